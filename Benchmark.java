@@ -0,0 +1,124 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Classe Benchmark - medição simples de tempo por operação, com iterações
+ * de aquecimento para o JIT antes das iterações medidas.
+ */
+public final class Benchmark {
+    
+    /**
+     * Resultado de uma medição
+     */
+    public static final class Medicao {
+        private final String nome;
+        private final String parametros;
+        private final double nsPorOperacao;
+        private final double desvioPadrao;
+        private final int iteracoes;
+        
+        Medicao(String nome, String parametros, double nsPorOperacao, double desvioPadrao, int iteracoes) {
+            this.nome = nome;
+            this.parametros = parametros;
+            this.nsPorOperacao = nsPorOperacao;
+            this.desvioPadrao = desvioPadrao;
+            this.iteracoes = iteracoes;
+        }
+        
+        public String getNome() { return nome; }
+        public String getParametros() { return parametros; }
+        public double getNsPorOperacao() { return nsPorOperacao; }
+        public double getDesvioPadrao() { return desvioPadrao; }
+        public int getIteracoes() { return iteracoes; }
+        
+        @Override
+        public String toString() {
+            String rotulo = parametros.isEmpty() ? nome : nome + " [" + parametros + "]";
+            return String.format("%-60s %12.3f ns/op  (+/- %.3f)", rotulo, nsPorOperacao, desvioPadrao);
+        }
+    }
+    
+    // Evita que o JIT elimine o trabalho medido
+    private static volatile long sumidouro;
+    
+    private Benchmark() {
+    }
+    
+    /**
+     * Mede o tempo médio por operação
+     * @param nome Nome da medição
+     * @param aquecimentos Iterações descartadas
+     * @param iteracoes Iterações medidas
+     * @param corpo Executa uma iteração e devolve o número de operações realizadas
+     * @return Média e desvio padrão do tempo por operação entre as iterações
+     */
+    public static Medicao medir(String nome, int aquecimentos, int iteracoes, LongSupplier corpo) {
+        return medir(nome, "", aquecimentos, iteracoes, corpo);
+    }
+    
+    /**
+     * Mede o tempo médio por operação
+     * @param nome Nome da medição
+     * @param parametros Parâmetros da medição (ex.: "filas=100")
+     * @param aquecimentos Iterações descartadas
+     * @param iteracoes Iterações medidas
+     * @param corpo Executa uma iteração e devolve o número de operações realizadas
+     * @return Média e desvio padrão do tempo por operação entre as iterações
+     */
+    public static Medicao medir(String nome, String parametros, int aquecimentos, int iteracoes, LongSupplier corpo) {
+        for (int i = 0; i < aquecimentos; i++) {
+            sumidouro += corpo.getAsLong();
+        }
+        
+        double[] tempos = new double[iteracoes];
+        for (int i = 0; i < iteracoes; i++) {
+            long inicio = System.nanoTime();
+            long operacoes = corpo.getAsLong();
+            long fim = System.nanoTime();
+            tempos[i] = (double) (fim - inicio) / operacoes;
+            sumidouro += operacoes;
+        }
+        return new Medicao(nome, parametros, Estatistica.media(tempos),
+                           Math.sqrt(Estatistica.variancia(tempos)), iteracoes);
+    }
+    
+    /**
+     * Exporta as medições em JSON, para comparação entre versões. Versão,
+     * nomes e parâmetros (que podem conter caminhos de arquivos) são escapados.
+     * @param medicoes Medições realizadas
+     * @param versao Identificação da versão medida
+     * @param nomeArquivo Arquivo de saída
+     * @throws IOException Se ocorrer erro ao escrever o arquivo
+     */
+    public static void exportarJson(List<Medicao> medicoes, String versao, String nomeArquivo) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(nomeArquivo))) {
+            writer.println("{");
+            writer.printf("  \"versao\": %s,\n", RelatorioJson.textoJson(versao));
+            writer.printf("  \"java\": %s,\n", RelatorioJson.textoJson(System.getProperty("java.version")));
+            writer.printf("  \"processadores\": %d,\n", Runtime.getRuntime().availableProcessors());
+            writer.println("  \"medicoes\": [");
+            for (int i = 0; i < medicoes.size(); i++) {
+                Medicao m = medicoes.get(i);
+                writer.printf(Locale.ROOT,
+                    "    {\"nome\": %s, \"parametros\": %s, \"nsPorOperacao\": %.4f, \"desvioPadrao\": %.4f, \"iteracoes\": %d}%s\n",
+                    RelatorioJson.textoJson(m.getNome()), RelatorioJson.textoJson(m.getParametros()),
+                    m.getNsPorOperacao(), m.getDesvioPadrao(),
+                    m.getIteracoes(), i < medicoes.size() - 1 ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+        }
+    }
+    
+    /**
+     * Consome um valor calculado no corpo de uma medição
+     * @param valor Valor a ser consumido
+     */
+    public static void consumir(double valor) {
+        sumidouro += Double.doubleToRawLongBits(valor);
+    }
+}
\ No newline at end of file
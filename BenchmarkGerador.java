@@ -0,0 +1,48 @@
+/**
+ * Classe BenchmarkGerador - compara o GeradorAleatorio sem buffer e em blocos
+ * para cada fluxo, conferindo antes que as duas formas produzem a mesma sequência.
+ */
+public class BenchmarkGerador {
+    private static final int NUMEROS_POR_ITERACAO = 10_000_000;
+    
+    public static void main(String[] args) {
+        for (String nome : new String[] { "lcg", "mrg32k3a", "xoshiro" }) {
+            conferirSequencia(nome);
+            System.out.println(medir(nome, 0));
+            System.out.println(medir(nome, GeradorAleatorio.TAMANHO_BLOCO_PADRAO));
+        }
+    }
+    
+    /**
+     * Mede nextRandom() para um fluxo e tamanho de bloco
+     * @param nome Nome do fluxo
+     * @param tamanhoBloco Tamanho do bloco (0 para sem buffer)
+     * @return Medição em ns por número
+     */
+    public static Benchmark.Medicao medir(String nome, int tamanhoBloco) {
+        String rotulo = "GeradorAleatorio.nextRandom " + nome + (tamanhoBloco > 0 ? " bloco=" + tamanhoBloco : " sem buffer");
+        GeradorAleatorio gerador = new GeradorAleatorio(FluxoAleatorio.criar(nome, Simulador.SEMENTE_PADRAO), tamanhoBloco);
+        return Benchmark.medir(rotulo, 5, 10, () -> {
+            double soma = 0.0;
+            for (int i = 0; i < NUMEROS_POR_ITERACAO; i++) {
+                soma += gerador.nextRandom();
+            }
+            Benchmark.consumir(soma);
+            return NUMEROS_POR_ITERACAO;
+        });
+    }
+    
+    private static void conferirSequencia(String nome) {
+        GeradorAleatorio simples = new GeradorAleatorio(FluxoAleatorio.criar(nome, Simulador.SEMENTE_PADRAO));
+        GeradorAleatorio emBlocos = new GeradorAleatorio(FluxoAleatorio.criar(nome, Simulador.SEMENTE_PADRAO),
+                                                         GeradorAleatorio.TAMANHO_BLOCO_PADRAO);
+        for (int i = 0; i < 3 * GeradorAleatorio.TAMANHO_BLOCO_PADRAO + 17; i++) {
+            if (simples.nextRandom() != emBlocos.nextRandom()) {
+                throw new IllegalStateException("Sequências divergem para " + nome + " na posição " + i);
+            }
+        }
+        if (simples.getContador() != emBlocos.getContador()) {
+            throw new IllegalStateException("Contadores divergem para " + nome);
+        }
+    }
+}
\ No newline at end of file
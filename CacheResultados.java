@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe CacheResultados - cache dos resultados das simulações, endereçado
+ * pelo conteúdo: a chave é o SHA-256 de tudo o que determina uma execução
+ * (configuração canônica, fluxo de números aleatórios, limite de aleatórios,
+ * aquecimento e versão do motor), e o valor são os bytes do resultado.
+ *
+ * Há dois níveis: uma LRU em memória, com número limitado de entradas, e
+ * opcionalmente um diretório em disco, com um arquivo por chave e tamanho
+ * total limitado; ao passar do limite, os arquivos usados há mais tempo
+ * (data de modificação, atualizada a cada acerto) são apagados. Os arquivos
+ * são escritos em um temporário e renomeados, de modo que vários processos
+ * podem compartilhar o diretório.
+ *
+ * Falhas de leitura ou escrita no disco nunca interrompem a simulação: a
+ * entrada é tratada como ausente.
+ */
+public class CacheResultados {
+    /**
+     * Versão dos resultados do motor: deve ser incrementada sempre que uma
+     * mudança no simulador altere o resultado de uma mesma configuração e
+     * semente, para que resultados antigos não sejam reaproveitados
+     */
+    public static final int VERSAO_MOTOR = 2;
+    public static final int ENTRADAS_MEMORIA_PADRAO = 256;
+    public static final long MEGABYTES_DISCO_PADRAO = 256;
+    public static final String DIRETORIO_PADRAO = ".cache_resultados";
+    private static final String EXTENSAO = ".res";
+    
+    private final LinkedHashMap<String, byte[]> memoria;
+    private final Path diretorio; // Nulo: apenas memória
+    private final long maxBytesDisco;
+    private final Object travaDisco = new Object();
+    private long bytesDisco;
+    private final AtomicLong acertosMemoria = new AtomicLong();
+    private final AtomicLong acertosDisco = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    
+    /**
+     * @param maxEntradasMemoria Número de resultados mantidos em memória
+     * @param diretorio Diretório do nível em disco, ou null para usar apenas a memória
+     * @param maxBytesDisco Tamanho máximo dos arquivos no diretório
+     * @throws IOException Se o diretório não puder ser criado ou lido
+     */
+    public CacheResultados(int maxEntradasMemoria, Path diretorio, long maxBytesDisco) throws IOException {
+        this.memoria = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> maisAntiga) {
+                return size() > maxEntradasMemoria;
+            }
+        };
+        this.diretorio = diretorio;
+        this.maxBytesDisco = maxBytesDisco;
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+            for (Path arquivo : listarArquivos()) {
+                bytesDisco += Files.size(arquivo);
+            }
+        }
+    }
+    
+    /**
+     * Cache configurado pelas opções de linha de comando: --<opcao>[=diretorio]
+     * ativa o cache em disco (padrão .cache_resultados), --cache-mb limita o
+     * tamanho em disco e --cache-memoria o número de entradas em memória
+     * @param opcoes Opções da linha de comando
+     * @param opcao Nome da opção que ativa o cache
+     * @return Cache, ou null se a opção não foi informada ou o diretório não pôde ser aberto
+     */
+    public static CacheResultados daLinhaComando(OpcoesLinhaComando opcoes, String opcao) {
+        if (!opcoes.tem(opcao)) {
+            return null;
+        }
+        String diretorio = opcoes.get(opcao, "true");
+        try {
+            return new CacheResultados(opcoes.getInt("cache-memoria", ENTRADAS_MEMORIA_PADRAO),
+                                       Paths.get(diretorio.equals("true") ? DIRETORIO_PADRAO : diretorio),
+                                       opcoes.getLong("cache-mb", MEGABYTES_DISCO_PADRAO) << 20);
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o cache de resultados, executando sem cache: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Calcula a chave de uma execução
+     * @param partes Descrições de tudo o que determina o resultado
+     * @return SHA-256 em hexadecimal das partes e da versão do motor
+     */
+    public static String chave(String... partes) {
+        MessageDigest sha = sha256();
+        for (String parte : partes) {
+            sha.update((byte) 0);
+            sha.update(parte.getBytes(StandardCharsets.UTF_8));
+        }
+        return hexadecimal(sha.digest());
+    }
+    
+    /**
+     * Calcula a chave de um conteúdo binário, como o corpo de uma requisição
+     * @param conteudo Bytes que determinam o resultado
+     * @return SHA-256 em hexadecimal do conteúdo e da versão do motor
+     */
+    public static String chave(byte[] conteudo) {
+        MessageDigest sha = sha256();
+        sha.update((byte) 0);
+        sha.update(conteudo);
+        return hexadecimal(sha.digest());
+    }
+    
+    /**
+     * @return SHA-256 já alimentado com a versão do motor
+     */
+    private static MessageDigest sha256() {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+        sha.update(("motor " + VERSAO_MOTOR).getBytes(StandardCharsets.UTF_8));
+        return sha;
+    }
+    
+    private static String hexadecimal(byte[] resumo) {
+        StringBuilder hexa = new StringBuilder(2 * resumo.length);
+        for (byte b : resumo) {
+            hexa.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hexa.toString();
+    }
+    
+    /**
+     * @param chave Chave calculada por chave()
+     * @return Bytes guardados, ou null se a chave não está no cache
+     */
+    public byte[] obter(String chave) {
+        synchronized (memoria) {
+            byte[] valor = memoria.get(chave);
+            if (valor != null) {
+                acertosMemoria.incrementAndGet();
+                return valor;
+            }
+        }
+        if (diretorio != null) {
+            Path arquivo = diretorio.resolve(chave + EXTENSAO);
+            try {
+                byte[] valor = Files.readAllBytes(arquivo);
+                Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis()));
+                synchronized (memoria) {
+                    memoria.put(chave, valor);
+                }
+                acertosDisco.incrementAndGet();
+                return valor;
+            } catch (IOException e) {
+                // Ausente ou apagado por outro processo
+            }
+        }
+        faltas.incrementAndGet();
+        return null;
+    }
+    
+    /**
+     * Guarda um resultado nos dois níveis
+     * @param chave Chave calculada por chave()
+     * @param valor Bytes do resultado (não devem ser modificados depois)
+     */
+    public void guardar(String chave, byte[] valor) {
+        synchronized (memoria) {
+            memoria.put(chave, valor);
+        }
+        if (diretorio == null || valor.length > maxBytesDisco) {
+            return;
+        }
+        Path arquivo = diretorio.resolve(chave + EXTENSAO);
+        try {
+            Path temporario = Files.createTempFile(diretorio, chave, ".tmp");
+            Files.write(temporario, valor);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (travaDisco) {
+                bytesDisco += valor.length;
+                if (bytesDisco > maxBytesDisco) {
+                    liberarDisco();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar no cache de resultados: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Apaga os arquivos usados há mais tempo até o diretório caber no limite,
+     * recalculando o tamanho pelo conteúdo atual (que outros processos também alteram)
+     */
+    private void liberarDisco() throws IOException {
+        List<Path> arquivos = listarArquivos();
+        List<long[]> datas = new ArrayList<>(arquivos.size()); // {data, tamanho, índice}
+        long total = 0;
+        for (int i = 0; i < arquivos.size(); i++) {
+            try {
+                long tamanho = Files.size(arquivos.get(i));
+                datas.add(new long[] { Files.getLastModifiedTime(arquivos.get(i)).toMillis(), tamanho, i });
+                total += tamanho;
+            } catch (IOException e) {
+                // Apagado por outro processo
+            }
+        }
+        datas.sort((x, y) -> Long.compare(x[0], y[0]));
+        for (int k = 0; k < datas.size() && total > maxBytesDisco; k++) {
+            if (Files.deleteIfExists(arquivos.get((int) datas.get(k)[2]))) {
+                total -= datas.get(k)[1];
+            }
+        }
+        bytesDisco = total;
+    }
+    
+    private List<Path> listarArquivos() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+            for (Path arquivo : conteudo) {
+                arquivos.add(arquivo);
+            }
+        }
+        return arquivos;
+    }
+    
+    public long getAcertosMemoria() { return acertosMemoria.get(); }
+    public long getAcertosDisco() { return acertosDisco.get(); }
+    public long getFaltas() { return faltas.get(); }
+    
+    /**
+     * @return Resumo de uso, para as mensagens dos programas
+     */
+    @Override
+    public String toString() {
+        return String.format("Result cache: %d memory hits, %d disk hits, %d misses",
+                             acertosMemoria.get(), acertosDisco.get(), faltas.get());
+    }
+}
\ No newline at end of file
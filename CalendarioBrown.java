@@ -0,0 +1,312 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe CalendarioBrown - calendário de eventos em fila de calendário (Brown, 1988).
+ *
+ * Os eventos são espalhados em baldes de largura fixa, como os dias de um
+ * calendário anual; cada balde mantém uma lista ordenada por (tempo, sequência).
+ * O número de baldes acompanha a quantidade de eventos e, a cada redimensionamento,
+ * a largura é recalculada pela separação média entre os próximos eventos, o que
+ * mantém agendar e remover em O(1) amortizado.
+ *
+ * Os campos dos eventos ficam em arrays paralelos com slots reaproveitados,
+ * como no CalendarioHeap.
+ */
+public class CalendarioBrown implements CalendarioEventos {
+    private static final int MIN_BALDES = 16;
+    private static final int CAPACIDADE_INICIAL = 64;
+    private static final int AMOSTRA_LARGURA = 25;
+    private static final int NENHUM = -1;
+    
+    // Slots: campos dos eventos e encadeamento dentro do balde
+    private double[] tempos;
+    private long[] sequencias;
+    private int[] tipos;
+    private int[] origens;
+    private int[] destinos;
+    private double[] temposCliente;
+    private int[] proximos;
+    private int primeiroLivre;
+    private int slotsUsados;
+    
+    // Baldes
+    private int[] cabecas;
+    private int mascara;
+    private double largura;
+    private long baldeVirtualAtual;
+    private int tamanho;
+    
+    private long proximaSequencia;
+    
+    // Evento corrente
+    private double tempoCorrente;
+    private int tipoCorrente;
+    private int origemCorrente;
+    private int destinoCorrente;
+    private double tempoClienteCorrente;
+    
+    public CalendarioBrown() {
+        this.tempos = new double[CAPACIDADE_INICIAL];
+        this.sequencias = new long[CAPACIDADE_INICIAL];
+        this.tipos = new int[CAPACIDADE_INICIAL];
+        this.origens = new int[CAPACIDADE_INICIAL];
+        this.destinos = new int[CAPACIDADE_INICIAL];
+        this.temposCliente = new double[CAPACIDADE_INICIAL];
+        this.proximos = new int[CAPACIDADE_INICIAL];
+        this.primeiroLivre = NENHUM;
+        this.cabecas = new int[MIN_BALDES];
+        Arrays.fill(cabecas, NENHUM);
+        this.mascara = MIN_BALDES - 1;
+        this.largura = 1.0;
+        this.baldeVirtualAtual = 0;
+    }
+    
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino, double tempoCliente) {
+        adicionar(tempo, proximaSequencia++, tipo, filaOrigem, filaDestino, tempoCliente);
+    }
+    
+    /**
+     * Coloca no seu balde um evento com a sequência indicada
+     */
+    private void adicionar(double tempo, long sequencia, int tipo, int filaOrigem, int filaDestino,
+                           double tempoCliente) {
+        int slot;
+        if (primeiroLivre != NENHUM) {
+            slot = primeiroLivre;
+            primeiroLivre = proximos[slot];
+        } else {
+            if (slotsUsados == tempos.length) {
+                crescer();
+            }
+            slot = slotsUsados++;
+        }
+        
+        tempos[slot] = tempo;
+        sequencias[slot] = sequencia;
+        tipos[slot] = tipo;
+        origens[slot] = filaOrigem;
+        destinos[slot] = filaDestino;
+        temposCliente[slot] = tempoCliente;
+        inserir(slot);
+        tamanho++;
+        
+        if (tamanho > 2 * cabecas.length) {
+            redimensionar(cabecas.length * 2);
+        }
+    }
+    
+    @Override
+    public void removerProximo() {
+        int balde = (int) baldeVirtualAtual & mascara;
+        int slot = NENHUM;
+        
+        // Percorre um "ano" de baldes procurando um evento do balde virtual corrente
+        for (int i = 0; i <= mascara; i++) {
+            int cabeca = cabecas[balde];
+            if (cabeca != NENHUM && baldeVirtual(tempos[cabeca]) <= baldeVirtualAtual) {
+                slot = cabeca;
+                break;
+            }
+            balde = (balde + 1) & mascara;
+            baldeVirtualAtual++;
+        }
+        
+        // Nenhum evento no próximo ano: busca direta pelo menor entre as cabeças
+        if (slot == NENHUM) {
+            for (int i = 0; i <= mascara; i++) {
+                int cabeca = cabecas[i];
+                if (cabeca != NENHUM && (slot == NENHUM || precede(cabeca, slot))) {
+                    slot = cabeca;
+                }
+            }
+            baldeVirtualAtual = baldeVirtual(tempos[slot]);
+            balde = (int) baldeVirtualAtual & mascara;
+        }
+        
+        cabecas[balde] = proximos[slot];
+        tempoCorrente = tempos[slot];
+        tipoCorrente = tipos[slot];
+        origemCorrente = origens[slot];
+        destinoCorrente = destinos[slot];
+        tempoClienteCorrente = temposCliente[slot];
+        proximos[slot] = primeiroLivre;
+        primeiroLivre = slot;
+        tamanho--;
+        
+        if (tamanho < cabecas.length / 2 && cabecas.length > MIN_BALDES) {
+            redimensionar(cabecas.length / 2);
+        }
+    }
+    
+    @Override
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(tamanho);
+        saida.writeLong(proximaSequencia);
+        for (int i = 0; i <= mascara; i++) {
+            for (int slot = cabecas[i]; slot != NENHUM; slot = proximos[slot]) {
+                saida.writeDouble(tempos[slot]);
+                saida.writeLong(sequencias[slot]);
+                saida.writeInt(tipos[slot]);
+                saida.writeInt(origens[slot]);
+                saida.writeInt(destinos[slot]);
+                saida.writeDouble(temposCliente[slot]);
+            }
+        }
+    }
+    
+    @Override
+    public void restaurar(DataInputStream entrada) throws IOException {
+        if (tamanho > 0) {
+            throw new IllegalStateException("O calendário precisa estar vazio para restaurar um checkpoint");
+        }
+        int numEventos = entrada.readInt();
+        proximaSequencia = entrada.readLong();
+        for (int i = 0; i < numEventos; i++) {
+            adicionar(entrada.readDouble(), entrada.readLong(), entrada.readInt(), entrada.readInt(),
+                      entrada.readInt(), entrada.readDouble());
+        }
+    }
+    
+    /**
+     * Índice do balde virtual (sem a máscara) de um tempo
+     */
+    private long baldeVirtual(double tempo) {
+        return (long) (tempo / largura);
+    }
+    
+    /**
+     * Verifica se o evento do slot a sai antes do evento do slot b
+     */
+    private boolean precede(int a, int b) {
+        return tempos[a] < tempos[b] || (tempos[a] == tempos[b] && sequencias[a] < sequencias[b]);
+    }
+    
+    /**
+     * Insere o slot na lista ordenada do seu balde
+     */
+    private void inserir(int slot) {
+        int balde = (int) baldeVirtual(tempos[slot]) & mascara;
+        int anterior = NENHUM;
+        int atual = cabecas[balde];
+        while (atual != NENHUM && !precede(slot, atual)) {
+            anterior = atual;
+            atual = proximos[atual];
+        }
+        proximos[slot] = atual;
+        if (anterior == NENHUM) {
+            cabecas[balde] = slot;
+        } else {
+            proximos[anterior] = slot;
+        }
+    }
+    
+    /**
+     * Reconstrói os baldes com nova quantidade e nova largura
+     * @param numBaldes Nova quantidade de baldes (potência de 2)
+     */
+    private void redimensionar(int numBaldes) {
+        // Coleta os eventos atuais
+        int[] eventos = new int[tamanho];
+        int n = 0;
+        for (int i = 0; i <= mascara; i++) {
+            for (int slot = cabecas[i]; slot != NENHUM; slot = proximos[slot]) {
+                eventos[n++] = slot;
+            }
+        }
+        
+        double novaLargura = estimarLargura(eventos, n);
+        if (novaLargura > 0) {
+            largura = novaLargura;
+        }
+        
+        cabecas = new int[numBaldes];
+        Arrays.fill(cabecas, NENHUM);
+        mascara = numBaldes - 1;
+        for (int i = 0; i < n; i++) {
+            inserir(eventos[i]);
+        }
+        baldeVirtualAtual = baldeVirtual(tempoCorrente);
+    }
+    
+    /**
+     * Estima a largura dos baldes como três vezes a separação média entre os
+     * próximos eventos, descartando separações muito acima da média (Brown, 1988)
+     * @return Nova largura, ou 0 se não houver separação mensurável
+     */
+    private double estimarLargura(int[] eventos, int n) {
+        // Seleciona os menores tempos mantendo um pequeno array ordenado
+        int k = Math.min(n, AMOSTRA_LARGURA);
+        if (k < 2) {
+            return 0.0;
+        }
+        double[] menores = new double[k];
+        int preenchidos = 0;
+        for (int i = 0; i < n; i++) {
+            double tempo = tempos[eventos[i]];
+            if (preenchidos == k && tempo >= menores[k - 1]) {
+                continue;
+            }
+            int j = preenchidos < k ? preenchidos++ : k - 1;
+            while (j > 0 && menores[j - 1] > tempo) {
+                menores[j] = menores[j - 1];
+                j--;
+            }
+            menores[j] = tempo;
+        }
+        
+        double media = (menores[k - 1] - menores[0]) / (k - 1);
+        double soma = 0.0;
+        int contagem = 0;
+        for (int i = 1; i < k; i++) {
+            double separacao = menores[i] - menores[i - 1];
+            if (separacao <= 2.0 * media) {
+                soma += separacao;
+                contagem++;
+            }
+        }
+        return contagem > 0 ? 3.0 * soma / contagem : 0.0;
+    }
+    
+    /**
+     * Dobra a capacidade dos slots
+     */
+    private void crescer() {
+        int capacidade = tempos.length * 2;
+        tempos = Arrays.copyOf(tempos, capacidade);
+        sequencias = Arrays.copyOf(sequencias, capacidade);
+        tipos = Arrays.copyOf(tipos, capacidade);
+        origens = Arrays.copyOf(origens, capacidade);
+        destinos = Arrays.copyOf(destinos, capacidade);
+        temposCliente = Arrays.copyOf(temposCliente, capacidade);
+        proximos = Arrays.copyOf(proximos, capacidade);
+    }
+    
+    @Override
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+    
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+    
+    @Override
+    public double getTempo() { return tempoCorrente; }
+    
+    @Override
+    public int getTipo() { return tipoCorrente; }
+    
+    @Override
+    public int getFilaOrigem() { return origemCorrente; }
+    
+    @Override
+    public int getFilaDestino() { return destinoCorrente; }
+    
+    @Override
+    public double getTempoCliente() { return tempoClienteCorrente; }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Interface CalendarioEventos - agenda de eventos futuros da simulação.
+ *
+ * O evento removido por removerProximo() passa a ser o evento corrente,
+ * cujos campos são lidos pelos getters. Assim o laço principal do
+ * Escalonador não precisa criar objetos Evento a cada iteração.
+ *
+ * Eventos com o mesmo tempo saem na ordem em que foram agendados,
+ * o que mantém os resultados reprodutíveis entre implementações.
+ */
+public interface CalendarioEventos {
+    
+    /**
+     * Cria um calendário pelo nome usado na linha de comando
+     * @param nome "heap" (padrão), "calendario" (fila de calendário de Brown)
+     *             ou "pq" (referência com PriorityQueue)
+     * @return Nova instância do calendário
+     */
+    static CalendarioEventos criar(String nome) {
+        switch (nome) {
+            case "heap":
+                return new CalendarioHeap();
+            case "calendario":
+                return new CalendarioBrown();
+            case "pq":
+                return new CalendarioPriorityQueue();
+            default:
+                throw new IllegalArgumentException("Calendário de eventos desconhecido: " + nome);
+        }
+    }
+    
+    /**
+     * Agenda um novo evento
+     * @param tempo Tempo do evento
+     * @param tipo Código do tipo (Evento.TIPO_CHEGADA, Evento.TIPO_SAIDA...)
+     * @param filaOrigem Fila de origem (0 para mundo externo)
+     * @param filaDestino Fila de destino (-1 quando não se aplica)
+     */
+    default void agendar(double tempo, int tipo, int filaOrigem, int filaDestino) {
+        agendar(tempo, tipo, filaOrigem, filaDestino, 0.0);
+    }
+    
+    /**
+     * Agenda um novo evento que carrega um instante associado ao cliente
+     * @param tempo Tempo do evento
+     * @param tipo Código do tipo (Evento.TIPO_CHEGADA, Evento.TIPO_SAIDA...)
+     * @param filaOrigem Fila de origem (0 para mundo externo)
+     * @param filaDestino Fila de destino (-1 quando não se aplica)
+     * @param tempoCliente Instante associado ao cliente (na saída, a chegada dele à fila)
+     */
+    void agendar(double tempo, int tipo, int filaOrigem, int filaDestino, double tempoCliente);
+    
+    /**
+     * Grava para um checkpoint o contador de sequência e os eventos agendados,
+     * em qualquer ordem: número de eventos, próxima sequência e, para cada
+     * evento, tempo, sequência, tipo, origem, destino e instante do cliente
+     * @param saida Destino do checkpoint
+     */
+    void salvar(DataOutputStream saida) throws IOException;
+    
+    /**
+     * Reagenda os eventos gravados por salvar(), de qualquer implementação,
+     * mantendo as sequências originais; como a ordem de saída depende só de
+     * (tempo, sequência), a simulação continua como se não tivesse parado.
+     * O calendário deve estar vazio.
+     * @param entrada Origem do checkpoint
+     */
+    void restaurar(DataInputStream entrada) throws IOException;
+    
+    /**
+     * Remove o próximo evento, que passa a ser o evento corrente
+     */
+    void removerProximo();
+    
+    /**
+     * @return true se não há eventos agendados
+     */
+    boolean vazio();
+    
+    /**
+     * @return Número de eventos agendados
+     */
+    int tamanho();
+    
+    // Campos do evento corrente
+    double getTempo();
+    int getTipo();
+    int getFilaOrigem();
+    int getFilaDestino();
+    double getTempoCliente();
+}
\ No newline at end of file
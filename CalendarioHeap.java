@@ -0,0 +1,228 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe CalendarioHeap - calendário de eventos em heap 4-ário sem alocação.
+ *
+ * O heap guarda apenas a chave de ordenação (tempo, sequência) e o índice do
+ * slot onde estão os demais campos do evento. Os slots liberados a cada
+ * remoção são reaproveitados, de modo que, após o aquecimento dos arrays,
+ * agendar e remover eventos não aloca memória.
+ */
+public class CalendarioHeap implements CalendarioEventos {
+    private static final int CAPACIDADE_INICIAL = 64;
+    
+    // Heap: chave de ordenação e slot de cada posição
+    private double[] tempos;
+    private long[] sequencias;
+    private int[] slots;
+    private int tamanho;
+    
+    // Slots: campos dos eventos (estrutura de arrays)
+    private int[] tipos;
+    private int[] origens;
+    private int[] destinos;
+    private double[] temposCliente;
+    private int[] livres;
+    private int numLivres;
+    private int slotsUsados;
+    
+    private long proximaSequencia;
+    
+    // Evento corrente
+    private double tempoCorrente;
+    private int tipoCorrente;
+    private int origemCorrente;
+    private int destinoCorrente;
+    private double tempoClienteCorrente;
+    
+    public CalendarioHeap() {
+        this(CAPACIDADE_INICIAL);
+    }
+    
+    public CalendarioHeap(int capacidadeInicial) {
+        int capacidade = Math.max(capacidadeInicial, 4);
+        this.tempos = new double[capacidade];
+        this.sequencias = new long[capacidade];
+        this.slots = new int[capacidade];
+        this.tipos = new int[capacidade];
+        this.origens = new int[capacidade];
+        this.destinos = new int[capacidade];
+        this.temposCliente = new double[capacidade];
+        this.livres = new int[capacidade];
+    }
+    
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino, double tempoCliente) {
+        inserir(tempo, proximaSequencia++, tipo, filaOrigem, filaDestino, tempoCliente);
+    }
+    
+    /**
+     * Coloca no heap um evento com a sequência indicada
+     */
+    private void inserir(double tempo, long sequencia, int tipo, int filaOrigem, int filaDestino,
+                         double tempoCliente) {
+        if (tamanho == tempos.length) {
+            crescer();
+        }
+        
+        int slot = numLivres > 0 ? livres[--numLivres] : slotsUsados++;
+        tipos[slot] = tipo;
+        origens[slot] = filaOrigem;
+        destinos[slot] = filaDestino;
+        temposCliente[slot] = tempoCliente;
+        
+        subir(tamanho++, tempo, sequencia, slot);
+    }
+    
+    @Override
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(tamanho);
+        saida.writeLong(proximaSequencia);
+        // Na ordem do heap, para que a restauração reconstrua o mesmo arranjo
+        for (int i = 0; i < tamanho; i++) {
+            int slot = slots[i];
+            saida.writeDouble(tempos[i]);
+            saida.writeLong(sequencias[i]);
+            saida.writeInt(tipos[slot]);
+            saida.writeInt(origens[slot]);
+            saida.writeInt(destinos[slot]);
+            saida.writeDouble(temposCliente[slot]);
+        }
+    }
+    
+    @Override
+    public void restaurar(DataInputStream entrada) throws IOException {
+        if (tamanho > 0) {
+            throw new IllegalStateException("O calendário precisa estar vazio para restaurar um checkpoint");
+        }
+        int numEventos = entrada.readInt();
+        proximaSequencia = entrada.readLong();
+        for (int i = 0; i < numEventos; i++) {
+            inserir(entrada.readDouble(), entrada.readLong(), entrada.readInt(), entrada.readInt(),
+                    entrada.readInt(), entrada.readDouble());
+        }
+    }
+    
+    @Override
+    public void removerProximo() {
+        int slot = slots[0];
+        tempoCorrente = tempos[0];
+        tipoCorrente = tipos[slot];
+        origemCorrente = origens[slot];
+        destinoCorrente = destinos[slot];
+        tempoClienteCorrente = temposCliente[slot];
+        livres[numLivres++] = slot;
+        
+        int ultimo = --tamanho;
+        if (ultimo > 0) {
+            descer(0, tempos[ultimo], sequencias[ultimo], slots[ultimo]);
+        }
+    }
+    
+    /**
+     * @return Tempo do próximo evento, sem removê-lo, ou infinito se não há eventos
+     */
+    public double proximoTempo() {
+        return tamanho > 0 ? tempos[0] : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Sobe a chave a partir da posição indicada até restaurar o heap
+     */
+    private void subir(int posicao, double tempo, long sequencia, int slot) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) >>> 2;
+            double tempoPai = tempos[pai];
+            if (tempo > tempoPai || (tempo == tempoPai && sequencia > sequencias[pai])) {
+                break;
+            }
+            tempos[posicao] = tempoPai;
+            sequencias[posicao] = sequencias[pai];
+            slots[posicao] = slots[pai];
+            posicao = pai;
+        }
+        tempos[posicao] = tempo;
+        sequencias[posicao] = sequencia;
+        slots[posicao] = slot;
+    }
+    
+    /**
+     * Desce a chave a partir da posição indicada até restaurar o heap
+     */
+    private void descer(int posicao, double tempo, long sequencia, int slot) {
+        while (true) {
+            int primeiroFilho = (posicao << 2) + 1;
+            if (primeiroFilho >= tamanho) {
+                break;
+            }
+            int ultimoFilho = Math.min(primeiroFilho + 4, tamanho);
+            
+            // Menor entre os até 4 filhos
+            int menor = primeiroFilho;
+            double tempoMenor = tempos[menor];
+            long sequenciaMenor = sequencias[menor];
+            for (int filho = primeiroFilho + 1; filho < ultimoFilho; filho++) {
+                double tempoFilho = tempos[filho];
+                if (tempoFilho < tempoMenor || (tempoFilho == tempoMenor && sequencias[filho] < sequenciaMenor)) {
+                    menor = filho;
+                    tempoMenor = tempoFilho;
+                    sequenciaMenor = sequencias[filho];
+                }
+            }
+            
+            if (tempo < tempoMenor || (tempo == tempoMenor && sequencia < sequenciaMenor)) {
+                break;
+            }
+            tempos[posicao] = tempoMenor;
+            sequencias[posicao] = sequenciaMenor;
+            slots[posicao] = slots[menor];
+            posicao = menor;
+        }
+        tempos[posicao] = tempo;
+        sequencias[posicao] = sequencia;
+        slots[posicao] = slot;
+    }
+    
+    /**
+     * Dobra a capacidade do heap e dos slots
+     */
+    private void crescer() {
+        int capacidade = tempos.length * 2;
+        tempos = Arrays.copyOf(tempos, capacidade);
+        sequencias = Arrays.copyOf(sequencias, capacidade);
+        slots = Arrays.copyOf(slots, capacidade);
+        tipos = Arrays.copyOf(tipos, capacidade);
+        origens = Arrays.copyOf(origens, capacidade);
+        destinos = Arrays.copyOf(destinos, capacidade);
+        temposCliente = Arrays.copyOf(temposCliente, capacidade);
+        livres = Arrays.copyOf(livres, capacidade);
+    }
+    
+    @Override
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+    
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+    
+    @Override
+    public double getTempo() { return tempoCorrente; }
+    
+    @Override
+    public int getTipo() { return tipoCorrente; }
+    
+    @Override
+    public int getFilaOrigem() { return origemCorrente; }
+    
+    @Override
+    public int getFilaDestino() { return destinoCorrente; }
+    
+    @Override
+    public double getTempoCliente() { return tempoClienteCorrente; }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.PriorityQueue;
+
+/**
+ * Classe CalendarioPriorityQueue - implementação de referência do calendário
+ * de eventos, baseada em java.util.PriorityQueue de objetos Evento.
+ * Aloca um Evento por agendamento; serve para conferir as demais implementações.
+ */
+public class CalendarioPriorityQueue implements CalendarioEventos {
+    private final PriorityQueue<Evento> eventos;
+    private long proximaSequencia;
+    private Evento corrente;
+    
+    public CalendarioPriorityQueue() {
+        this.eventos = new PriorityQueue<>();
+        this.proximaSequencia = 0;
+    }
+    
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino, double tempoCliente) {
+        eventos.add(new Evento(tempo, Evento.nomeTipo(tipo), 0, filaOrigem, filaDestino,
+                               proximaSequencia++, tempoCliente));
+    }
+    
+    @Override
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(eventos.size());
+        saida.writeLong(proximaSequencia);
+        for (Evento evento : eventos) {
+            saida.writeDouble(evento.getTempo());
+            saida.writeLong(evento.getSequencia());
+            saida.writeInt(Evento.codigoTipo(evento.getTipo()));
+            saida.writeInt(evento.getFilaOrigem());
+            saida.writeInt(evento.getFilaDestino());
+            saida.writeDouble(evento.getTempoCliente());
+        }
+    }
+    
+    @Override
+    public void restaurar(DataInputStream entrada) throws IOException {
+        if (!eventos.isEmpty()) {
+            throw new IllegalStateException("O calendário precisa estar vazio para restaurar um checkpoint");
+        }
+        int numEventos = entrada.readInt();
+        proximaSequencia = entrada.readLong();
+        for (int i = 0; i < numEventos; i++) {
+            double tempo = entrada.readDouble();
+            long sequencia = entrada.readLong();
+            String tipo = Evento.nomeTipo(entrada.readInt());
+            int origem = entrada.readInt();
+            int destino = entrada.readInt();
+            eventos.add(new Evento(tempo, tipo, 0, origem, destino, sequencia, entrada.readDouble()));
+        }
+    }
+    
+    @Override
+    public void removerProximo() {
+        corrente = eventos.poll();
+    }
+    
+    @Override
+    public boolean vazio() {
+        return eventos.isEmpty();
+    }
+    
+    @Override
+    public int tamanho() {
+        return eventos.size();
+    }
+    
+    @Override
+    public double getTempo() { return corrente.getTempo(); }
+    
+    @Override
+    public int getTipo() { return Evento.codigoTipo(corrente.getTipo()); }
+    
+    @Override
+    public int getFilaOrigem() { return corrente.getFilaOrigem(); }
+    
+    @Override
+    public int getFilaDestino() { return corrente.getFilaDestino(); }
+    
+    @Override
+    public double getTempoCliente() { return corrente.getTempoCliente(); }
+}
\ No newline at end of file
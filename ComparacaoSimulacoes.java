@@ -1,13 +1,175 @@
+import java.io.PrintStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToDoubleFunction;
 
 /**
- * Classe para executar ambas as simulações e comparar os resultados
+ * Classe para executar ambas as simulações e comparar os resultados.
+ *
+ * A comparação usa números aleatórios comuns: a replicação r das duas
+ * configurações usa o mesmo subfluxo r, com fluxos separados para chegadas,
+ * atendimento e roteamento de cada fila, de modo que as duas redes recebem as
+ * mesmas entradas aleatórias mesmo quando os eventos saem em outra ordem. As
+ * diferenças (B - A) são analisadas aos pares, o que dá intervalos de
+ * confiança mais estreitos que os de replicações independentes com o mesmo
+ * número de replicações; o relatório mostra as duas meias-larguras e a razão
+ * entre as variâncias.
  */
 public class ComparacaoSimulacoes {
+    private final ConfiguracaoRede configA;
+    private final ConfiguracaoRede configB;
+    private final int maxAleatorios;
+    private final FluxoAleatorio fluxoRaiz;
+    private final boolean numerosComuns;
+    private CacheResultados cache; // Nulo: sem cache
+    private ResumoReplicacoes resumoA;
+    private ResumoReplicacoes resumoB;
+    
+    /**
+     * @param configA Configuração de referência
+     * @param configB Configuração comparada
+     * @param maxAleatorios Número máximo de aleatórios por replicação
+     * @param fluxoRaiz Fluxo do qual cada replicação recebe um subfluxo
+     * @param numerosComuns true para números aleatórios comuns; false para
+     *                      replicações independentes (subfluxos diferentes em A e B)
+     */
+    public ComparacaoSimulacoes(ConfiguracaoRede configA, ConfiguracaoRede configB, int maxAleatorios,
+                                FluxoAleatorio fluxoRaiz, boolean numerosComuns) {
+        this.configA = configA;
+        this.configB = configB;
+        this.maxAleatorios = maxAleatorios;
+        this.fluxoRaiz = fluxoRaiz;
+        this.numerosComuns = numerosComuns;
+    }
+    
+    /**
+     * Reaproveita replicações já executadas (por exemplo, as da configuração
+     * de referência quando só a outra mudou)
+     * @param cache Cache de resultados, ou null para desativar
+     */
+    public void setCache(CacheResultados cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Executa as replicações das duas configurações em um ForkJoinPool
+     * @param numReplicacoes Número de replicações de cada configuração
+     * @param paralelismo Número de threads de trabalho
+     */
+    public void executar(int numReplicacoes, int paralelismo) {
+        Replicador replicadorA = new Replicador(configA, maxAleatorios, fluxoRaiz);
+        Replicador replicadorB = new Replicador(configB, maxAleatorios, fluxoRaiz);
+        replicadorA.setFluxosPorFinalidade(numerosComuns);
+        replicadorB.setFluxosPorFinalidade(numerosComuns);
+        replicadorA.setCache(cache);
+        replicadorB.setCache(cache);
+        int deslocamentoB = numerosComuns ? 0 : numReplicacoes;
+        
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<ForkJoinTask<ResultadoSimulacao>> tarefasA = new ArrayList<>(numReplicacoes);
+            List<ForkJoinTask<ResultadoSimulacao>> tarefasB = new ArrayList<>(numReplicacoes);
+            for (int i = 0; i < numReplicacoes; i++) {
+                final int indice = i;
+                tarefasA.add(pool.submit(() -> replicadorA.executarReplicacao(indice)));
+                tarefasB.add(pool.submit(() -> replicadorB.executarReplicacao(deslocamentoB + indice)));
+            }
+            
+            ResultadoSimulacao[] resultadosA = new ResultadoSimulacao[numReplicacoes];
+            ResultadoSimulacao[] resultadosB = new ResultadoSimulacao[numReplicacoes];
+            for (int i = 0; i < numReplicacoes; i++) {
+                resultadosA[i] = tarefasA.get(i).get();
+                resultadosB[i] = tarefasB.get(i).get();
+            }
+            resumoA = new ResumoReplicacoes(configA, resultadosA);
+            resumoB = new ResumoReplicacoes(configB, resultadosB);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replicações interrompidas", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma replicação", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Diferenças (B - A) de uma métrica, replicação a replicação
+     */
+    public double[] diferencas(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        double[] a = resumoA.valores(metrica);
+        double[] b = resumoB.valores(metrica);
+        double[] diferencas = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            diferencas[i] = b[i] - a[i];
+        }
+        return diferencas;
+    }
+    
+    /**
+     * Gera o relatório com a média de cada métrica em A e em B e o IC de 95%
+     * da diferença, pareado e (para referência) como se fossem independentes
+     * @param saida Destino do relatório
+     */
+    public void gerarRelatorio(PrintStream saida) {
+        int n = resumoA.getNumReplicacoes();
+        saida.println("=========================================================");
+        saida.println("================   COMPARISON REPORT   ==================");
+        saida.println("=========================================================");
+        saida.printf("Replications: %d per configuration (%s)\n", n,
+                     numerosComuns ? "common random numbers" : "independent streams");
+        saida.println("Difference B - A with 95% confidence half-widths: paired, and as if");
+        saida.println("the runs were independent; var. ratio = (var A + var B) / var(B - A)");
+        
+        int numFilas = Math.min(configA.getNumFilas(), configB.getNumFilas());
+        for (int i = 0; i < numFilas; i++) {
+            final int fila = i;
+            saida.println("*********************************************************");
+            saida.printf("Queue:   FILA%d\n", fila + 1);
+            saida.println("  Metric              A           B       B - A   +/- paired  +/- indep.  var. ratio");
+            imprimirMetrica(saida, "Utilization", r -> r.getUtilizacao(fila));
+            imprimirMetrica(saida, "Avg population", r -> r.getPopulacaoMedia(fila));
+            imprimirMetrica(saida, "Losses", r -> r.getPerdas(fila));
+            imprimirMetrica(saida, "Throughput", r -> r.getVazao(fila));
+            imprimirMetrica(saida, "Avg response", r -> r.getTempoResposta(fila).getMedia());
+        }
+        saida.println("=========================================================");
+    }
+    
+    private void imprimirMetrica(PrintStream saida, String rotulo, ToDoubleFunction<ResultadoSimulacao> metrica) {
+        double[] a = resumoA.valores(metrica);
+        double[] b = resumoB.valores(metrica);
+        double[] d = diferencas(metrica);
+        int n = d.length;
+        double varianciaSoma = Estatistica.variancia(a) + Estatistica.variancia(b);
+        double meiaLarguraIndependente = n > 1
+            ? Estatistica.quantilT(1.0 - (1.0 - ResumoReplicacoes.CONFIANCA) / 2.0, 2 * n - 2) * Math.sqrt(varianciaSoma / n)
+            : 0.0;
+        double varianciaDiferenca = Estatistica.variancia(d);
+        saida.printf("  %-14s %10.4f  %10.4f  %10.4f  %10.4f  %10.4f  %10s\n", rotulo,
+                     Estatistica.media(a), Estatistica.media(b), Estatistica.media(d),
+                     Estatistica.meiaLargura(d, ResumoReplicacoes.CONFIANCA), meiaLarguraIndependente,
+                     varianciaDiferenca > 0 ? String.format("%.1f", varianciaSoma / varianciaDiferenca) : "-");
+    }
+    
+    /**
+     * Método principal: gera os relatórios de uma execução de cada modelo e,
+     * em seguida, a comparação por replicações pareadas
+     * @param args [arquivo_a arquivo_b] [--aleatorios N] [--replicacoes R] [--threads N]
+     *             [--semente S] [--gerador mrg32k3a|xoshiro|lcg] [--independentes]
+     *             [--cache[=diretorio] [--cache-mb N]]
+     */
     public static void main(String[] args) {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "independentes", "cache");
+        
         // Definir o número de aleatórios
-        int numAleatorios = 100000;
+        int numAleatorios = opcoes.getInt("aleatorios", 100000);
+        CacheResultados cache = CacheResultados.daLinhaComando(opcoes, "cache");
         
         // Timestamp para identificar os arquivos de relatório
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
@@ -15,20 +177,26 @@ public class ComparacaoSimulacoes {
         System.out.println("=== INICIANDO SIMULAÇÃO DO MODELO ORIGINAL ===");
         
         // Simular o modelo original
-        String arquivoOriginal = "config.txt";
+        String arquivoOriginal = opcoes.numPosicionais() > 0 ? opcoes.posicional(0) : "config.txt";
         String relatorioOriginal = "relatorio_original_" + timestamp + ".txt";
+        ConfiguracaoRede configOriginal = ConfiguracaoRede.carregarOuSair(arquivoOriginal);
         
-        Simulador simuladorOriginal = new Simulador(arquivoOriginal, numAleatorios);
+        Simulador simuladorOriginal = new Simulador(configOriginal, numAleatorios, Simulador.SEMENTE_PADRAO,
+                                                    new CalendarioHeap());
+        simuladorOriginal.setCache(cache);
         simuladorOriginal.executar();
         simuladorOriginal.gerarRelatorioArquivo(relatorioOriginal);
         
         System.out.println("\n=== INICIANDO SIMULAÇÃO DO MODELO MELHORADO ===");
         
         // Simular o modelo melhorado
-        String arquivoMelhorado = "config_improved.txt";
+        String arquivoMelhorado = opcoes.numPosicionais() > 1 ? opcoes.posicional(1) : "config_improved.txt";
         String relatorioMelhorado = "relatorio_melhorado_" + timestamp + ".txt";
+        ConfiguracaoRede configMelhorado = ConfiguracaoRede.carregarOuSair(arquivoMelhorado);
         
-        Simulador simuladorMelhorado = new Simulador(arquivoMelhorado, numAleatorios);
+        Simulador simuladorMelhorado = new Simulador(configMelhorado, numAleatorios, Simulador.SEMENTE_PADRAO,
+                                                     new CalendarioHeap());
+        simuladorMelhorado.setCache(cache);
         simuladorMelhorado.executar();
         simuladorMelhorado.gerarRelatorioArquivo(relatorioMelhorado);
         
@@ -36,7 +204,19 @@ public class ComparacaoSimulacoes {
         System.out.println("Relatório do modelo original: " + relatorioOriginal);
         System.out.println("Relatório do modelo melhorado: " + relatorioMelhorado);
         
-        // Aqui poderia ser adicionado código para análise automática dos resultados
-        // Por exemplo, cálculo das métricas de desempenho e geração de gráficos comparativos
+        // Comparação por replicações pareadas
+        System.out.println("\n=== COMPARAÇÃO: " + arquivoOriginal + " (A) x " + arquivoMelhorado + " (B) ===");
+        FluxoAleatorio fluxoRaiz = FluxoAleatorio.criar(opcoes.get("gerador", "mrg32k3a"),
+                                                        opcoes.getLong("semente", Simulador.SEMENTE_PADRAO));
+        ComparacaoSimulacoes comparacao = new ComparacaoSimulacoes(
+            configOriginal, configMelhorado,
+            numAleatorios, fluxoRaiz, !opcoes.tem("independentes"));
+        comparacao.setCache(cache);
+        comparacao.executar(opcoes.getInt("replicacoes", 30),
+                            opcoes.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        comparacao.gerarRelatorio(System.out);
+        if (cache != null) {
+            System.out.println(cache);
+        }
     }
 }
\ No newline at end of file
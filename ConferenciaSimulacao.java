@@ -0,0 +1,131 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe ConferenciaSimulacao - conferências de regressão do motor de
+ * simulação, executáveis sem dependências externas. Termina com código 1 se
+ * alguma conferência encontrar divergência.
+ *
+ *   java ConferenciaSimulacao [arquivo_entrada] [num_aleatorios]
+ *
+ * Calendários: os relatórios em arquivo com CalendarioHeap, CalendarioBrown e
+ * CalendarioPriorityQueue devem ser idênticos byte a byte.
+ *
+ * Tempos de estado: as tabelas acumuladas de forma preguiçosa (Fila.atualizarAte,
+ * só nas filas que mudam de população) devem coincidir com as do algoritmo
+ * original, que somava o intervalo de cada evento em todas as filas
+ * (Fila.atualizarTempoEstado). A ordem das somas difere, então a comparação
+ * admite um erro de TOLERANCIA_RELATIVA do tempo total simulado.
+ */
+public class ConferenciaSimulacao {
+    private static final String[] CALENDARIOS = { "heap", "calendario", "pq" };
+    static final double TOLERANCIA_RELATIVA = 1e-9;
+    
+    public static void main(String[] args) throws IOException {
+        String arquivo = args.length > 0 ? args[0] : "config.txt";
+        int numAleatorios = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        ConfiguracaoRede config = ConfiguracaoRede.carregarOuSair(arquivo);
+        
+        boolean ok = conferirCalendarios(config, numAleatorios);
+        ok &= conferirTemposEstado(config, numAleatorios);
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("Conferências sem divergências para " + arquivo);
+    }
+    
+    /**
+     * Compara o relatório completo gerado com cada calendário de eventos
+     * com o do calendário padrão (heap)
+     * @return true se todos são idênticos
+     */
+    static boolean conferirCalendarios(ConfiguracaoRede config, int numAleatorios) throws IOException {
+        byte[] referencia = relatorio(config, numAleatorios, CALENDARIOS[0]);
+        boolean ok = true;
+        for (int i = 1; i < CALENDARIOS.length; i++) {
+            byte[] relatorio = relatorio(config, numAleatorios, CALENDARIOS[i]);
+            int divergencia = Arrays.mismatch(referencia, relatorio);
+            if (divergencia >= 0) {
+                System.err.println("Calendário " + CALENDARIOS[i] + ": relatório difere do de "
+                                   + CALENDARIOS[0] + " a partir do byte " + divergencia);
+                ok = false;
+            } else {
+                System.out.println("Calendário " + CALENDARIOS[i] + ": relatório idêntico ("
+                                   + relatorio.length + " bytes)");
+            }
+        }
+        return ok;
+    }
+    
+    /**
+     * Executa a simulação evento a evento e, em paralelo, acumula os tempos
+     * de estado de forma imediata em cópias das filas que acompanham a
+     * população das simuladas
+     * @return true se as tabelas coincidem dentro da tolerância
+     */
+    static boolean conferirTemposEstado(ConfiguracaoRede config, int numAleatorios) {
+        List<Fila> filas = config.criarFilas();
+        List<Fila> referencia = config.criarFilas();
+        GeradorAleatorio gerador = new GeradorAleatorio(new FluxoLCG(Simulador.SEMENTE_PADRAO),
+                                                        GeradorAleatorio.TAMANHO_BLOCO_PADRAO);
+        Escalonador escalonador = new Escalonador(filas, config.getTabelaRoteamento(), gerador,
+                                                  new CalendarioHeap());
+        escalonador.inicializar(2.0);
+        
+        double tempoAnterior = 0.0;
+        boolean continua = true;
+        while (continua) {
+            continua = escalonador.executarEventos(1, numAleatorios);
+            double tempo = escalonador.getTempoAtual();
+            for (int i = 0; i < filas.size(); i++) {
+                // O intervalo até o evento pertence à população anterior a ele
+                Fila eager = referencia.get(i);
+                eager.atualizarTempoEstado(tempo - tempoAnterior);
+                while (eager.Status() < filas.get(i).Status()) {
+                    eager.In();
+                }
+                while (eager.Status() > filas.get(i).Status()) {
+                    eager.Out();
+                }
+            }
+            tempoAnterior = tempo;
+        }
+        double tempoTotal = escalonador.encerrar();
+        
+        double tolerancia = TOLERANCIA_RELATIVA * Math.max(1.0, tempoTotal);
+        boolean ok = true;
+        for (int i = 0; i < filas.size(); i++) {
+            double[] preguicoso = filas.get(i).getTemposEstado();
+            double[] imediato = referencia.get(i).getTemposEstado();
+            double maiorErro = 0.0;
+            for (int j = 0; j < Math.max(preguicoso.length, imediato.length); j++) {
+                double a = j < preguicoso.length ? preguicoso[j] : 0.0;
+                double b = j < imediato.length ? imediato[j] : 0.0;
+                maiorErro = Math.max(maiorErro, Math.abs(a - b));
+            }
+            if (maiorErro > tolerancia) {
+                System.err.println("Fila " + (i + 1) + ": tempos de estado divergem do acúmulo imediato (erro "
+                                   + maiorErro + ", tolerância " + tolerancia + ")");
+                ok = false;
+            } else {
+                System.out.println("Fila " + (i + 1) + ": tempos de estado coincidem (maior erro " + maiorErro + ")");
+            }
+        }
+        return ok;
+    }
+    
+    /**
+     * @return Bytes do relatório completo (o do arquivo) de uma execução
+     */
+    private static byte[] relatorio(ConfiguracaoRede config, int numAleatorios, String calendario)
+            throws IOException {
+        Simulador simulador = new Simulador(config, numAleatorios, Simulador.SEMENTE_PADRAO,
+                                            CalendarioEventos.criar(calendario));
+        simulador.simular();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        simulador.gerarRelatorio(new RelatorioTexto(true), bytes);
+        return bytes.toByteArray();
+    }
+}
\ No newline at end of file
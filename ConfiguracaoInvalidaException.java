@@ -0,0 +1,42 @@
+/**
+ * Classe ConfiguracaoInvalidaException - erro ao ler um arquivo de
+ * configuração da rede, com o arquivo e a linha onde foi encontrado.
+ *
+ * Estende IllegalArgumentException para que quem já trata argumentos
+ * inválidos (como o serviço HTTP, que responde 400) continue funcionando.
+ */
+public class ConfiguracaoInvalidaException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+    
+    private final String arquivo;
+    private final int linha;
+    
+    /**
+     * @param arquivo Nome do arquivo (ou null, para texto recebido de outra forma)
+     * @param linha Número da linha, a partir de 1 (0 se não se aplica, como no formato binário)
+     * @param mensagem Descrição do erro
+     */
+    public ConfiguracaoInvalidaException(String arquivo, int linha, String mensagem) {
+        this(arquivo, linha, mensagem, null);
+    }
+    
+    public ConfiguracaoInvalidaException(String arquivo, int linha, String mensagem, Throwable causa) {
+        super(prefixo(arquivo, linha) + mensagem, causa);
+        this.arquivo = arquivo;
+        this.linha = linha;
+    }
+    
+    private static String prefixo(String arquivo, int linha) {
+        if (arquivo == null) {
+            return linha > 0 ? "Linha " + linha + ": " : "";
+        }
+        return linha > 0 ? arquivo + ", linha " + linha + ": " : arquivo + ": ";
+    }
+    
+    public String getArquivo() { return arquivo; }
+    
+    /**
+     * @return Linha do erro, ou 0 se não se aplica
+     */
+    public int getLinha() { return linha; }
+}
\ No newline at end of file
@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * Classe ConfiguracaoRede - descrição imutável de uma rede de filas lida do
+ * arquivo de configuração. Cada execução cria suas próprias instâncias de
+ * Fila a partir dela, o que permite reaproveitar a mesma configuração em
+ * várias replicações sem reler o arquivo.
+ */
+public class ConfiguracaoRede {
+    private final int numFilas;
+    private final int[] capacidades;
+    private final int[] servidores;
+    private final Distribuicao[] chegadas;
+    private final Distribuicao[] atendimentos;
+    private final ListaArestas arestas;
+    private final TabelaRoteamento tabelaRoteamento;
+    
+    public ConfiguracaoRede(int[] capacidades, int[] servidores,
+                            double[] minChegada, double[] maxChegada,
+                            double[] minAtendimento, double[] maxAtendimento,
+                            double[][] matrizRoteamento) {
+        this(capacidades, servidores, minChegada, maxChegada, minAtendimento, maxAtendimento,
+             ListaArestas.daMatriz(matrizRoteamento));
+    }
+    
+    /**
+     * @param arestas Rotas (origem, destino, probabilidade), índice 0 = mundo externo
+     */
+    public ConfiguracaoRede(int[] capacidades, int[] servidores,
+                            double[] minChegada, double[] maxChegada,
+                            double[] minAtendimento, double[] maxAtendimento,
+                            ListaArestas arestas) {
+        this(capacidades, servidores, uniformes(minChegada, maxChegada),
+             uniformes(minAtendimento, maxAtendimento), arestas);
+    }
+    
+    /**
+     * @param chegadas Distribuição dos intervalos entre chegadas externas de cada fila
+     * @param atendimentos Distribuição dos tempos de atendimento de cada fila
+     * @param arestas Rotas (origem, destino, probabilidade), índice 0 = mundo externo
+     */
+    public ConfiguracaoRede(int[] capacidades, int[] servidores,
+                            Distribuicao[] chegadas, Distribuicao[] atendimentos,
+                            ListaArestas arestas) {
+        this(capacidades, servidores, chegadas, atendimentos, arestas,
+             new TabelaRoteamento(arestas, capacidades.length, TabelaRoteamento.MODO_CUMULATIVO));
+    }
+    
+    /**
+     * Construtor com o roteamento já compilado
+     */
+    private ConfiguracaoRede(int[] capacidades, int[] servidores,
+                             Distribuicao[] chegadas, Distribuicao[] atendimentos,
+                             ListaArestas arestas, TabelaRoteamento tabelaRoteamento) {
+        this.numFilas = capacidades.length;
+        this.capacidades = capacidades;
+        this.servidores = servidores;
+        this.chegadas = chegadas;
+        this.atendimentos = atendimentos;
+        this.arestas = arestas;
+        this.tabelaRoteamento = tabelaRoteamento;
+    }
+    
+    /**
+     * Cópia que compartilha os parâmetros das filas, com outra tabela de roteamento
+     */
+    private ConfiguracaoRede(ConfiguracaoRede outra, TabelaRoteamento tabelaRoteamento) {
+        this(outra.capacidades, outra.servidores, outra.chegadas, outra.atendimentos,
+             outra.arestas, tabelaRoteamento);
+    }
+    
+    private static Distribuicao[] uniformes(double[] minimos, double[] maximos) {
+        Distribuicao[] distribuicoes = new Distribuicao[minimos.length];
+        for (int i = 0; i < minimos.length; i++) {
+            distribuicoes[i] = Distribuicao.uniforme(minimos[i], maximos[i]);
+        }
+        return distribuicoes;
+    }
+    
+    /**
+     * @param modo TabelaRoteamento.MODO_CUMULATIVO ou TabelaRoteamento.MODO_ALIAS
+     * @return Configuração igual a esta, com o roteamento no modo indicado
+     */
+    public ConfiguracaoRede comRoteamento(String modo) {
+        TabelaRoteamento tabela = tabelaRoteamento.comModo(modo);
+        return tabela == tabelaRoteamento ? this : new ConfiguracaoRede(this, tabela);
+    }
+    
+    /**
+     * Cópia com os parâmetros de uma fila alterados, com tempos uniformes; as
+     * rotas são compartilhadas
+     * @param fila Índice da fila (a partir de 0)
+     * @return Nova configuração, sem alterar esta
+     */
+    public ConfiguracaoRede comFila(int fila, int capacidade, int servidores,
+                                    double minChegada, double maxChegada,
+                                    double minAtendimento, double maxAtendimento) {
+        return comFila(fila, capacidade, servidores, Distribuicao.uniforme(minChegada, maxChegada),
+                       Distribuicao.uniforme(minAtendimento, maxAtendimento));
+    }
+    
+    /**
+     * Cópia com os parâmetros de uma fila alterados; as rotas são compartilhadas
+     * @param fila Índice da fila (a partir de 0)
+     * @return Nova configuração, sem alterar esta
+     */
+    public ConfiguracaoRede comFila(int fila, int capacidade, int servidores,
+                                    Distribuicao chegada, Distribuicao atendimento) {
+        int[] novasCapacidades = capacidades.clone();
+        int[] novosServidores = this.servidores.clone();
+        Distribuicao[] novasChegadas = chegadas.clone();
+        Distribuicao[] novosAtendimentos = atendimentos.clone();
+        novasCapacidades[fila] = capacidade;
+        novosServidores[fila] = servidores;
+        novasChegadas[fila] = chegada;
+        novosAtendimentos[fila] = atendimento;
+        return new ConfiguracaoRede(novasCapacidades, novosServidores, novasChegadas, novosAtendimentos,
+                                    arestas, tabelaRoteamento);
+    }
+    
+    /**
+     * Cópia com a probabilidade de uma rota alterada. As demais rotas da mesma
+     * origem são reescaladas para que a soma da linha não mude, o que exige
+     * que elas tenham alguma probabilidade e que a nova não passe da soma.
+     * @param origem Fila de origem (0 = mundo externo)
+     * @param destino Fila de destino (0 = saída do sistema)
+     * @param probabilidade Nova probabilidade da rota
+     * @return Nova configuração, sem alterar esta
+     * @throws IllegalArgumentException Se a linha não puder manter a soma
+     */
+    public ConfiguracaoRede comRota(int origem, int destino, double probabilidade) {
+        double anterior = 0.0;
+        for (int i = 0; i < arestas.tamanho(); i++) {
+            if (arestas.getOrigem(i) == origem && arestas.getDestino(i) == destino) {
+                anterior = arestas.getProbabilidade(i); // Repetidas: vale a última
+            }
+        }
+        if (probabilidade == anterior) {
+            return this;
+        }
+        double soma = tabelaRoteamento.getSoma(origem);
+        double demais = soma - anterior;
+        if (!(demais > 0.0)) {
+            throw new IllegalArgumentException(String.format(
+                "rota %d -> %d: as demais rotas da origem não têm probabilidade para reescalar", origem, destino));
+        }
+        if (probabilidade > soma) {
+            throw new IllegalArgumentException(String.format(
+                "rota %d -> %d: probabilidade %s maior que a soma das rotas da origem (%s)",
+                origem, destino, probabilidade, soma));
+        }
+        double fator = (soma - probabilidade) / demais;
+        
+        ListaArestas novas = new ListaArestas(arestas.tamanho() + 1);
+        for (int i = 0; i < arestas.tamanho(); i++) {
+            int o = arestas.getOrigem(i);
+            int d = arestas.getDestino(i);
+            if (o != origem) {
+                novas.adicionar(o, d, arestas.getProbabilidade(i));
+            } else if (d != destino) {
+                novas.adicionar(o, d, arestas.getProbabilidade(i) * fator);
+            }
+        }
+        novas.adicionar(origem, destino, probabilidade);
+        TabelaRoteamento tabela = new TabelaRoteamento(novas, numFilas, tabelaRoteamento.getModo());
+        return new ConfiguracaoRede(capacidades, servidores, chegadas, atendimentos, novas, tabela);
+    }
+    
+    /**
+     * Cria novas filas, com estatísticas zeradas, para uma execução
+     * @return Lista de filas na ordem do arquivo
+     */
+    public List<Fila> criarFilas() {
+        List<Fila> filas = new ArrayList<>(numFilas);
+        for (int i = 0; i < numFilas; i++) {
+            filas.add(new Fila(capacidades[i], servidores[i], chegadas[i], atendimentos[i]));
+        }
+        return filas;
+    }
+    
+    public int getNumFilas() { return numFilas; }
+    public int getCapacidade(int fila) { return capacidades[fila]; }
+    public int getServidores(int fila) { return servidores[fila]; }
+    public Distribuicao getChegada(int fila) { return chegadas[fila]; }
+    public Distribuicao getAtendimento(int fila) { return atendimentos[fila]; }
+    public double getMinChegada(int fila) { return chegadas[fila].getMinimo(); }
+    public double getMaxChegada(int fila) { return chegadas[fila].getMaximo(); }
+    public double getMinAtendimento(int fila) { return atendimentos[fila].getMinimo(); }
+    public double getMaxAtendimento(int fila) { return atendimentos[fila].getMaximo(); }
+    
+    /**
+     * Rotas na ordem em que foram lidas, onde o índice 0 é o mundo externo.
+     * Compartilhadas entre as execuções; não devem ser modificadas.
+     */
+    public ListaArestas getArestas() { return arestas; }
+    
+    /**
+     * Roteamento compilado, imutável e compartilhado entre as execuções
+     */
+    public TabelaRoteamento getTabelaRoteamento() { return tabelaRoteamento; }
+    
+    /**
+     * Texto que identifica o comportamento da rede, para a chave do cache de
+     * resultados: duas configurações com o mesmo texto produzem as mesmas
+     * simulações, ainda que os arquivos difiram em comentários, espaços, ordem
+     * das rotas ou rotas repetidas (vale a última, como no roteamento)
+     * @return Filas, rotas por origem e destino e modo de roteamento
+     */
+    public String textoCanonico() {
+        StringBuilder texto = new StringBuilder().append(numFilas).append('\n');
+        for (int i = 0; i < numFilas; i++) {
+            texto.append(capacidades[i]).append(' ').append(servidores[i]).append(' ')
+                 .append(chegadas[i].textoCanonico()).append(' ').append(atendimentos[i].textoCanonico()).append('\n');
+        }
+        TreeMap<Long, Double> rotas = new TreeMap<>();
+        for (int i = 0; i < arestas.tamanho(); i++) {
+            rotas.put(((long) arestas.getOrigem(i) << 32) | arestas.getDestino(i), arestas.getProbabilidade(i));
+        }
+        for (Map.Entry<Long, Double> rota : rotas.entrySet()) {
+            if (rota.getValue() > 0) {
+                texto.append(rota.getKey() >>> 32).append(' ').append(rota.getKey() & 0xFFFFFFFFL).append(' ')
+                     .append(rota.getValue()).append('\n');
+            }
+        }
+        return texto.append(tabelaRoteamento.getModo()).toString();
+    }
+    
+    /**
+     * Gera uma rede sintética para benchmarks: a fila 1 recebe as chegadas
+     * externas e cada fila encaminha para até três filas sorteadas (25% cada),
+     * com o restante saindo do sistema
+     * @param numFilas Número de filas
+     * @param semente Semente do sorteio das rotas
+     * @return Configuração gerada
+     */
+    public static ConfiguracaoRede gerarSintetica(int numFilas, long semente) {
+        return gerarSintetica(numFilas, semente, 1);
+    }
+    
+    /**
+     * Gera uma rede sintética com chegadas externas nas primeiras numEntradas
+     * filas; os intervalos entre chegadas crescem com o número de entradas, de
+     * modo que a taxa total de chegadas à rede não muda
+     * @param numFilas Número de filas
+     * @param semente Semente do sorteio das rotas
+     * @param numEntradas Número de filas com chegadas externas (1 a numFilas)
+     * @return Configuração gerada
+     */
+    public static ConfiguracaoRede gerarSintetica(int numFilas, long semente, int numEntradas) {
+        SplittableRandom sorteio = new SplittableRandom(semente);
+        int[] capacidades = new int[numFilas];
+        int[] servidores = new int[numFilas];
+        double[] minChegada = new double[numFilas];
+        double[] maxChegada = new double[numFilas];
+        double[] minAtendimento = new double[numFilas];
+        double[] maxAtendimento = new double[numFilas];
+        ListaArestas arestas = new ListaArestas(4 * numFilas);
+        
+        int[] sorteados = new int[3];
+        for (int i = 0; i < numFilas; i++) {
+            capacidades[i] = 10;
+            servidores[i] = 2;
+            minAtendimento[i] = 1.0;
+            maxAtendimento[i] = 3.0;
+            
+            // Destinos sorteados repetidos acumulam a probabilidade numa só aresta
+            int numSorteados = Math.min(3, numFilas);
+            for (int k = 0; k < numSorteados; k++) {
+                sorteados[k] = 1 + sorteio.nextInt(numFilas);
+            }
+            for (int k = 0; k < numSorteados; k++) {
+                int repeticoes = 0;
+                boolean primeira = true;
+                for (int j = 0; j < numSorteados; j++) {
+                    if (sorteados[j] == sorteados[k]) {
+                        repeticoes++;
+                        primeira &= j >= k;
+                    }
+                }
+                if (primeira) {
+                    arestas.adicionar(i + 1, sorteados[k], 0.25 * repeticoes);
+                }
+            }
+            arestas.adicionar(i + 1, 0, 1.0 - 0.25 * numSorteados);
+        }
+        for (int i = 0; i < numEntradas; i++) {
+            minChegada[i] = 0.5 * numEntradas;
+            maxChegada[i] = 1.5 * numEntradas;
+        }
+        
+        return new ConfiguracaoRede(capacidades, servidores, minChegada, maxChegada,
+                                    minAtendimento, maxAtendimento, arestas);
+    }
+    
+    /**
+     * Carrega a configuração da rede de um arquivo, no formato texto ou no
+     * binário (ver LeitorConfiguracao)
+     * @param arquivo Nome do arquivo de configuração
+     * @return Configuração lida
+     * @throws ConfiguracaoInvalidaException Se o arquivo não puder ser lido ou tiver erros
+     */
+    public static ConfiguracaoRede carregar(String arquivo) {
+        try {
+            return LeitorConfiguracao.ler(Paths.get(arquivo));
+        } catch (NoSuchFileException e) {
+            throw new ConfiguracaoInvalidaException(arquivo, 0, "arquivo não encontrado", e);
+        } catch (IOException e) {
+            throw new ConfiguracaoInvalidaException(arquivo, 0, "erro de leitura: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Carrega a configuração para os programas de linha de comando: em caso
+     * de erro, mostra a mensagem (com a linha) e encerra o programa
+     * @param arquivo Nome do arquivo de configuração
+     * @return Configuração lida
+     */
+    static ConfiguracaoRede carregarOuSair(String arquivo) {
+        try {
+            return carregar(arquivo);
+        } catch (ConfiguracaoInvalidaException e) {
+            System.err.println("Erro na configuração: " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+    
+    /**
+     * Interpreta o texto de uma configuração, no formato do arquivo: o número
+     * de filas, uma linha por fila e depois as rotas (origem destino probabilidade)
+     * @param texto Conteúdo da configuração
+     * @param diretorio Diretório de referência dos arquivos das distribuições empíricas
+     * @return Configuração lida
+     * @throws ConfiguracaoInvalidaException Se o texto tiver erros
+     */
+    public static ConfiguracaoRede interpretar(String texto, Path diretorio) {
+        return LeitorConfiguracao.interpretar(texto.getBytes(StandardCharsets.UTF_8), null, diretorio);
+    }
+    
+    /**
+     * Lê a capacidade de uma fila; "inf" (ou "infinito") e valores negativos
+     * indicam fila sem limite de admissão
+     * @param texto Campo da capacidade no arquivo
+     * @return Capacidade, ou Fila.CAPACIDADE_INFINITA
+     */
+    static int lerCapacidade(String texto) {
+        if (texto.equalsIgnoreCase("inf") || texto.equalsIgnoreCase("infinito")) {
+            return Fila.CAPACIDADE_INFINITA;
+        }
+        int capacidade = Integer.parseInt(texto);
+        return capacidade < 0 ? Fila.CAPACIDADE_INFINITA : capacidade;
+    }
+}
\ No newline at end of file
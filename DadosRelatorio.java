@@ -0,0 +1,112 @@
+/**
+ * Classe DadosRelatorio - conteúdo de um relatório de simulação, comum a
+ * todos os formatos (ver Relatorio): a configuração da rede, o resultado da
+ * execução e os tempos totais e, se houve parada sequencial, os intervalos
+ * de confiança e o consumo dela. Os formatos só decidem a apresentação.
+ *
+ * Com um limiar de probabilidade, sequências de dois ou mais estados
+ * consecutivos abaixo dele formam uma única faixa na tabela de estados, o
+ * que encurta muito os relatórios de filas com capacidade grande.
+ */
+public class DadosRelatorio {
+    private final ConfiguracaoRede config;
+    private final ResultadoSimulacao resultado;
+    private final double tempoSimulacao;
+    private final long eventosAquecimento;
+    private double limiarEstados; // Zero: cada estado em sua linha
+    private ParadaSequencial parada; // Nula: execução até o limite de aleatórios
+    
+    /**
+     * @param config Configuração simulada
+     * @param resultado Estatísticas da execução (medidas após o aquecimento)
+     * @param tempoSimulacao Tempo total simulado, incluindo o aquecimento
+     * @param eventosAquecimento Eventos descartados no aquecimento
+     */
+    public DadosRelatorio(ConfiguracaoRede config, ResultadoSimulacao resultado,
+                          double tempoSimulacao, long eventosAquecimento) {
+        this.config = config;
+        this.resultado = resultado;
+        this.tempoSimulacao = tempoSimulacao;
+        this.eventosAquecimento = eventosAquecimento;
+    }
+    
+    /**
+     * @param limiar Probabilidade (0-1) abaixo da qual estados consecutivos são agrupados
+     */
+    public void setLimiarEstados(double limiar) {
+        if (!(limiar >= 0.0 && limiar < 1.0)) {
+            throw new IllegalArgumentException("Limiar de estados inválido: " + limiar);
+        }
+        this.limiarEstados = limiar;
+    }
+    
+    /**
+     * @param parada Parada sequencial já executada, ou null se não houve
+     */
+    public void setParadaSequencial(ParadaSequencial parada) {
+        this.parada = parada;
+    }
+    
+    public ConfiguracaoRede getConfig() { return config; }
+    public ResultadoSimulacao getResultado() { return resultado; }
+    public int getNumFilas() { return config.getNumFilas(); }
+    public double getTempoSimulacao() { return tempoSimulacao; }
+    public long getEventosAquecimento() { return eventosAquecimento; }
+    public double getLimiarEstados() { return limiarEstados; }
+    public ParadaSequencial getParadaSequencial() { return parada; }
+    
+    /**
+     * @return Tempo observado após o aquecimento, base das probabilidades e taxas
+     */
+    public double getTempoColeta() { return resultado.getTempoSimulacao(); }
+    
+    /**
+     * Nome da fila com a caracterização na notação de Kendall: G/G/m/K, ou
+     * G/G/m quando a capacidade é infinita
+     * @param fila Índice da fila, a partir de 0
+     */
+    public String getNome(int fila) {
+        int capacidade = config.getCapacidade(fila);
+        return capacidade == Fila.CAPACIDADE_INFINITA
+            ? "FILA" + (fila + 1) + " (G/G/" + config.getServidores(fila) + ")"
+            : "FILA" + (fila + 1) + " (G/G/" + config.getServidores(fila) + "/" + capacidade + ")";
+    }
+    
+    /**
+     * @return true se a fila recebe chegadas externas
+     */
+    public boolean temChegadasExternas(int fila) {
+        return config.getMinChegada(fila) > 0 || config.getMaxChegada(fila) > 0;
+    }
+    
+    /**
+     * Último estado da linha da tabela que começa em um estado: ele mesmo,
+     * ou o fim da sequência de estados abaixo do limiar que começa nele
+     * @param fila Índice da fila
+     * @param estado Primeiro estado da linha
+     */
+    public int fimFaixa(int fila, int estado) {
+        double[] tempos = resultado.getTemposEstado(fila);
+        double limite = limiarEstados * getTempoColeta();
+        int fim = estado;
+        while (fim + 1 < tempos.length && tempos[fim] < limite && tempos[fim + 1] < limite) {
+            fim++;
+        }
+        return fim;
+    }
+    
+    /**
+     * @return Tempo total nos estados de inicio a fim (inclusive)
+     */
+    public double tempoFaixa(int fila, int inicio, int fim) {
+        double[] tempos = resultado.getTemposEstado(fila);
+        if (inicio == fim) {
+            return tempos[inicio];
+        }
+        double soma = 0.0;
+        for (int j = inicio; j <= fim; j++) {
+            soma += tempos[j];
+        }
+        return soma;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+import java.util.Arrays;
+
+/**
+ * Classe DetectorAquecimento - detecção automática do fim do transiente
+ * inicial pela regra MSER-5 (Marginal Standard Error Rule). As observações
+ * (população total da rede entre eventos consecutivos) são agrupadas em lotes
+ * de 5 eventos; o ponto de truncamento é o lote d que minimiza o erro padrão
+ * marginal dos lotes restantes, S(d) = soma((Z_j - média_d)^2) / (k - d)^2,
+ * procurado apenas na primeira metade da série.
+ */
+public class DetectorAquecimento {
+    public static final int EVENTOS_POR_LOTE = 5;
+    
+    private double[] mediasLotes = new double[1024];
+    private double[] finsLotes = new double[1024];
+    private int numLotes;
+    
+    private double inicioLote;
+    private double areaLote;
+    private int eventosLote;
+    
+    /**
+     * Registra o intervalo entre dois eventos
+     * @param tempoAnterior Início do intervalo
+     * @param tempo Fim do intervalo (tempo do evento atual)
+     * @param populacao População total da rede durante o intervalo
+     */
+    public void observar(double tempoAnterior, double tempo, int populacao) {
+        areaLote += populacao * (tempo - tempoAnterior);
+        if (++eventosLote == EVENTOS_POR_LOTE) {
+            double duracao = tempo - inicioLote;
+            if (numLotes == mediasLotes.length) {
+                mediasLotes = Arrays.copyOf(mediasLotes, numLotes * 2);
+                finsLotes = Arrays.copyOf(finsLotes, numLotes * 2);
+            }
+            mediasLotes[numLotes] = duracao > 0 ? areaLote / duracao : populacao;
+            finsLotes[numLotes] = tempo;
+            numLotes++;
+            inicioLote = tempo;
+            areaLote = 0.0;
+            eventosLote = 0;
+        }
+    }
+    
+    /**
+     * @return Número de lotes completos observados
+     */
+    public int getNumLotes() {
+        return numLotes;
+    }
+    
+    /**
+     * @return Número de lotes a descartar segundo a regra MSER-5
+     */
+    public int lotesTruncados() {
+        // Somas dos sufixos, percorrendo a série de trás para frente
+        int melhor = 0;
+        double menorErro = Double.POSITIVE_INFINITY;
+        double soma = 0.0;
+        double somaQuadrados = 0.0;
+        for (int d = numLotes - 1; d >= 0; d--) {
+            soma += mediasLotes[d];
+            somaQuadrados += mediasLotes[d] * mediasLotes[d];
+            int restantes = numLotes - d;
+            if (d > numLotes / 2) {
+                continue;
+            }
+            double erro = Math.max(0.0, somaQuadrados - soma * soma / restantes) / ((double) restantes * restantes);
+            if (erro <= menorErro) {
+                menorErro = erro;
+                melhor = d;
+            }
+        }
+        return melhor;
+    }
+    
+    /**
+     * @return Tempo de simulação em que termina o aquecimento (0 se nada deve ser descartado)
+     */
+    public double tempoTruncamento() {
+        int d = lotesTruncados();
+        return d == 0 ? 0.0 : finsLotes[d - 1];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,556 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Classe Distribuicao - distribuição de um tempo de chegada ou de atendimento:
+ * uniforme, exponencial, Erlang, hiperexponencial, lognormal, determinística
+ * ou empírica (valores observados, com pesos).
+ *
+ * É uma classe final com um switch sobre o tipo, e não uma hierarquia de
+ * subclasses, para que a chamada amostrar() no laço de eventos tenha um único
+ * alvo e possa ser embutida pelo JIT. Os números uniformes vêm do
+ * GeradorAleatorio e entram na contagem de aleatórios:
+ * - uniforme: um número, pela inversa (mesmos sorteios de antes);
+ * - exponencial, Erlang e hiperexponencial: ziggurat de 256 camadas, que usa
+ *   um número em ~99% dos sorteios;
+ * - lognormal: ziggurat normal de 128 camadas (com sinal);
+ * - empírica: tabela de alias sobre os valores distintos, um número;
+ * - determinística: nenhum número.
+ *
+ * No arquivo de configuração, cada distribuição é um termo tipo:parametros
+ * (ver interpretar()); dois números sem tipo continuam valendo como uniforme.
+ */
+public final class Distribuicao {
+    private static final int UNIFORME = 0;
+    private static final int EXPONENCIAL = 1;
+    private static final int ERLANG = 2;
+    private static final int HIPEREXPONENCIAL = 3;
+    private static final int LOGNORMAL = 4;
+    private static final int DETERMINISTICA = 5;
+    private static final int EMPIRICA = 6;
+    
+    // Ziggurat exponencial (Marsaglia e Tsang, 2000): 256 camadas de mesma área V
+    private static final int CAMADAS_EXP = 256;
+    private static final double R_EXP = 7.69711747013104972;
+    private static final double V_EXP = 3.949659822581572e-3;
+    private static final double[] X_EXP = new double[CAMADAS_EXP + 1];
+    private static final double[] F_EXP = new double[CAMADAS_EXP + 1];
+    
+    // Ziggurat normal: 128 camadas por lado; o número sorteado também escolhe o sinal
+    private static final int CAMADAS_NORMAL = 128;
+    private static final double R_NORMAL = 3.442619855899;
+    private static final double V_NORMAL = 9.91256303526217e-3;
+    private static final double[] X_NORMAL = new double[CAMADAS_NORMAL + 1];
+    private static final double[] F_NORMAL = new double[CAMADAS_NORMAL + 1];
+    
+    static {
+        // X[i] é a largura da camada i (a camada 0 inclui a cauda além de R) e F[i] = f(X[i])
+        X_EXP[0] = V_EXP / Math.exp(-R_EXP);
+        X_EXP[1] = R_EXP;
+        for (int i = 1; i < CAMADAS_EXP; i++) {
+            X_EXP[i + 1] = i + 1 < CAMADAS_EXP ? -Math.log(V_EXP / X_EXP[i] + Math.exp(-X_EXP[i])) : 0.0;
+        }
+        for (int i = 0; i <= CAMADAS_EXP; i++) {
+            F_EXP[i] = Math.exp(-X_EXP[i]);
+        }
+        
+        X_NORMAL[0] = V_NORMAL / Math.exp(-0.5 * R_NORMAL * R_NORMAL);
+        X_NORMAL[1] = R_NORMAL;
+        for (int i = 1; i < CAMADAS_NORMAL; i++) {
+            X_NORMAL[i + 1] = i + 1 < CAMADAS_NORMAL
+                ? Math.sqrt(-2.0 * Math.log(V_NORMAL / X_NORMAL[i] + Math.exp(-0.5 * X_NORMAL[i] * X_NORMAL[i])))
+                : 0.0;
+        }
+        for (int i = 0; i <= CAMADAS_NORMAL; i++) {
+            F_NORMAL[i] = Math.exp(-0.5 * X_NORMAL[i] * X_NORMAL[i]);
+        }
+    }
+    
+    private final int tipo;
+    private final double a;         // Mínimo, média, valor ou mu (lognormal)
+    private final double b;         // Máximo ou sigma (lognormal)
+    private final int fases;        // Fases da Erlang
+    private final double[] valores; // Médias dos ramos (hiperexponencial) ou valores distintos (empírica)
+    private final TabelaAlias tabela;
+    private final double media;
+    private final double desvio;    // Desvio padrão informado (lognormal)
+    
+    private Distribuicao(int tipo, double a, double b, int fases, double[] valores, TabelaAlias tabela,
+                         double media, double desvio) {
+        this.tipo = tipo;
+        this.a = a;
+        this.b = b;
+        this.fases = fases;
+        this.valores = valores;
+        this.tabela = tabela;
+        this.media = media;
+        this.desvio = desvio;
+    }
+    
+    /**
+     * Uniforme em [minimo, maximo); (0, 0) indica ausência de chegadas externas
+     */
+    public static Distribuicao uniforme(double minimo, double maximo) {
+        return new Distribuicao(UNIFORME, minimo, maximo, 0, null, null, (minimo + maximo) / 2.0, 0.0);
+    }
+    
+    /**
+     * @param media Média (inverso da taxa)
+     */
+    public static Distribuicao exponencial(double media) {
+        exigirPositivo(media, "exponencial");
+        return new Distribuicao(EXPONENCIAL, media, 0.0, 1, null, null, media, 0.0);
+    }
+    
+    /**
+     * Soma de fases exponenciais iguais
+     * @param fases Número de fases (k)
+     * @param media Média total (cada fase tem média media / k)
+     */
+    public static Distribuicao erlang(int fases, double media) {
+        exigirPositivo(media, "Erlang");
+        if (fases < 1) {
+            throw new IllegalArgumentException("Erlang com número de fases inválido: " + fases);
+        }
+        return new Distribuicao(ERLANG, media / fases, 0.0, fases, null, null, media, 0.0);
+    }
+    
+    /**
+     * Mistura de exponenciais: o ramo i é escolhido com probabilidade proporcional a pesos[i]
+     * @param pesos Pesos dos ramos
+     * @param medias Média de cada ramo
+     */
+    public static Distribuicao hiperexponencial(double[] pesos, double[] medias) {
+        if (pesos.length != medias.length || pesos.length == 0) {
+            throw new IllegalArgumentException("Hiperexponencial exige um peso para cada média");
+        }
+        double soma = 0.0;
+        double media = 0.0;
+        for (int i = 0; i < pesos.length; i++) {
+            exigirPositivo(medias[i], "hiperexponencial");
+            soma += pesos[i];
+            media += pesos[i] * medias[i];
+        }
+        TabelaAlias tabela = new TabelaAlias(pesos);
+        return new Distribuicao(HIPEREXPONENCIAL, 0.0, 0.0, 1, medias.clone(), tabela, media / soma, 0.0);
+    }
+    
+    /**
+     * Lognormal com a média e o desvio padrão dados (do próprio tempo, não do logaritmo)
+     */
+    public static Distribuicao lognormal(double media, double desvio) {
+        exigirPositivo(media, "lognormal");
+        if (desvio < 0) {
+            throw new IllegalArgumentException("Lognormal com desvio padrão negativo: " + desvio);
+        }
+        double cv = desvio / media;
+        double sigma2 = Math.log1p(cv * cv);
+        return new Distribuicao(LOGNORMAL, Math.log(media) - sigma2 / 2.0, Math.sqrt(sigma2), 0, null, null,
+                                media, desvio);
+    }
+    
+    /**
+     * Sempre o mesmo valor, sem consumir números aleatórios
+     */
+    public static Distribuicao deterministica(double valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Tempo determinístico negativo: " + valor);
+        }
+        return new Distribuicao(DETERMINISTICA, valor, valor, 0, null, null, valor, 0.0);
+    }
+    
+    /**
+     * Distribuição empírica: cada valor é sorteado com probabilidade
+     * proporcional ao seu peso; valores repetidos acumulam o peso
+     * @param observados Valores observados
+     * @param pesos Pesos (ou null para peso 1 em cada valor)
+     */
+    public static Distribuicao empirica(double[] observados, double[] pesos) {
+        int n = observados.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Distribuição empírica sem valores");
+        }
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            if (!(observados[i] >= 0) || Double.isInfinite(observados[i])) {
+                throw new IllegalArgumentException("Valor inválido na distribuição empírica: " + observados[i]);
+            }
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (i, j) -> Double.compare(observados[i], observados[j]));
+        
+        double[] distintos = new double[n];
+        double[] pesosDistintos = new double[n];
+        int numDistintos = 0;
+        double soma = 0.0;
+        double media = 0.0;
+        for (int k = 0; k < n; k++) {
+            int i = ordem[k];
+            double peso = pesos != null ? pesos[i] : 1.0;
+            if (numDistintos == 0 || distintos[numDistintos - 1] != observados[i]) {
+                distintos[numDistintos++] = observados[i];
+            }
+            pesosDistintos[numDistintos - 1] += peso;
+            soma += peso;
+            media += peso * observados[i];
+        }
+        TabelaAlias tabela = new TabelaAlias(Arrays.copyOf(pesosDistintos, numDistintos));
+        return new Distribuicao(EMPIRICA, distintos[0], distintos[numDistintos - 1], 0,
+                                Arrays.copyOf(distintos, numDistintos), tabela, media / soma, 0.0);
+    }
+    
+    private static void exigirPositivo(double media, String nome) {
+        if (!(media > 0) || Double.isInfinite(media)) {
+            throw new IllegalArgumentException("Média inválida na distribuição " + nome + ": " + media);
+        }
+    }
+    
+    /**
+     * Interpreta uma distribuição do arquivo de configuração:
+     *   uniforme:min:max, exp:media, erlang:k:media, hiperexp:p1:m1:p2:m2[...],
+     *   lognormal:media:desvio, det:valor ou empirica:arquivo
+     * O arquivo da empírica tem um valor por linha, opcionalmente seguido do
+     * peso; caminhos relativos partem do diretório do arquivo de configuração.
+     * @param texto Termo do arquivo
+     * @param diretorio Diretório do arquivo de configuração (pode ser null)
+     * @return Distribuição lida
+     */
+    public static Distribuicao interpretar(String texto, Path diretorio) {
+        return interpretar(texto, diretorio, null);
+    }
+    
+    /**
+     * Interpreta uma distribuição, restringindo os arquivos das empíricas a um diretório
+     * @param texto Termo do arquivo
+     * @param diretorio Diretório do arquivo de configuração (pode ser null)
+     * @param raiz Diretório de onde os arquivos das empíricas podem ser lidos, ou null para qualquer um
+     * @return Distribuição lida
+     */
+    public static Distribuicao interpretar(String texto, Path diretorio, Path raiz) {
+        int doisPontos = texto.indexOf(':');
+        String nome = (doisPontos < 0 ? texto : texto.substring(0, doisPontos)).toLowerCase();
+        if (nome.equals("empirica") || nome.equals("empírica")) {
+            Path arquivo = Paths.get(texto.substring(doisPontos + 1));
+            if (diretorio != null && !arquivo.isAbsolute()) {
+                arquivo = diretorio.resolve(arquivo);
+            }
+            if (raiz != null && !LeitorConfiguracao.dentroDe(arquivo, raiz)) {
+                throw new IllegalArgumentException("Arquivo da distribuição empírica fora do diretório permitido: "
+                                                   + texto.substring(doisPontos + 1));
+            }
+            return carregarEmpirica(arquivo);
+        }
+        
+        String[] partes = texto.split(":");
+        double[] p = new double[partes.length - 1];
+        try {
+            for (int i = 0; i < p.length; i++) {
+                p[i] = Double.parseDouble(partes[i + 1]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro inválido na distribuição: " + texto);
+        }
+        switch (nome) {
+            case "uniforme":
+                exigirParametros(texto, p, 2);
+                return uniforme(p[0], p[1]);
+            case "exp":
+            case "exponencial":
+                exigirParametros(texto, p, 1);
+                return exponencial(p[0]);
+            case "erlang":
+                exigirParametros(texto, p, 2);
+                if (p[0] != Math.rint(p[0])) {
+                    throw new IllegalArgumentException("Número de fases da Erlang deve ser inteiro: " + texto);
+                }
+                return erlang((int) p[0], p[1]);
+            case "hiperexp":
+            case "hiperexponencial":
+                if (p.length == 0 || p.length % 2 != 0) {
+                    throw new IllegalArgumentException("Hiperexponencial exige pares probabilidade:media: " + texto);
+                }
+                double[] pesos = new double[p.length / 2];
+                double[] medias = new double[p.length / 2];
+                for (int i = 0; i < pesos.length; i++) {
+                    pesos[i] = p[2 * i];
+                    medias[i] = p[2 * i + 1];
+                }
+                return hiperexponencial(pesos, medias);
+            case "lognormal":
+                exigirParametros(texto, p, 2);
+                return lognormal(p[0], p[1]);
+            case "det":
+            case "deterministica":
+            case "determinística":
+                exigirParametros(texto, p, 1);
+                return deterministica(p[0]);
+            default:
+                throw new IllegalArgumentException("Distribuição desconhecida: " + texto);
+        }
+    }
+    
+    private static void exigirParametros(String texto, double[] parametros, int quantidade) {
+        if (parametros.length != quantidade) {
+            throw new IllegalArgumentException("Distribuição " + texto + " exige " + quantidade + " parâmetro(s)");
+        }
+    }
+    
+    /**
+     * Lê os valores de uma distribuição empírica (valor [peso] por linha; # inicia comentário)
+     */
+    private static Distribuicao carregarEmpirica(Path arquivo) {
+        double[] observados = new double[64];
+        double[] pesos = new double[64];
+        int n = 0;
+        int numLinha = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(arquivo.toFile()))) {
+            String linha;
+            while ((linha = br.readLine()) != null) {
+                numLinha++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] partes = linha.split("[\\s,;]+");
+                if (n == observados.length) {
+                    observados = Arrays.copyOf(observados, 2 * n);
+                    pesos = Arrays.copyOf(pesos, 2 * n);
+                }
+                observados[n] = Double.parseDouble(partes[0]);
+                pesos[n] = partes.length > 1 ? Double.parseDouble(partes[1]) : 1.0;
+                n++;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Erro ao ler distribuição empírica " + arquivo.getFileName());
+        } catch (NumberFormatException e) {
+            // Sem o conteúdo da linha, que pode não ser um arquivo de valores
+            throw new IllegalArgumentException("Valor inválido na distribuição empírica " + arquivo.getFileName()
+                                               + ", linha " + numLinha);
+        }
+        return empirica(Arrays.copyOf(observados, n), Arrays.copyOf(pesos, n));
+    }
+    
+    /**
+     * Sorteia um tempo
+     * @param gerador Gerador da execução
+     * @param finalidade Fluxo do sorteio (ver GeradorAleatorio.nextRandom(int))
+     * @return Tempo sorteado
+     */
+    public double amostrar(GeradorAleatorio gerador, int finalidade) {
+        switch (tipo) {
+            case UNIFORME:
+                return a + (b - a) * gerador.nextRandom(finalidade);
+            case EXPONENCIAL:
+                return a * exponencialPadrao(gerador, finalidade);
+            case ERLANG:
+                double soma = 0.0;
+                for (int k = 0; k < fases; k++) {
+                    soma += exponencialPadrao(gerador, finalidade);
+                }
+                return a * soma;
+            case HIPEREXPONENCIAL:
+                return valores[tabela.amostrar(gerador.nextRandom(finalidade))]
+                       * exponencialPadrao(gerador, finalidade);
+            case LOGNORMAL:
+                return Math.exp(a + b * normalPadrao(gerador, finalidade));
+            case DETERMINISTICA:
+                return a;
+            default:
+                return valores[tabela.amostrar(gerador.nextRandom(finalidade))];
+        }
+    }
+    
+    /**
+     * Exponencial de média 1 pelo ziggurat
+     */
+    private static double exponencialPadrao(GeradorAleatorio gerador, int finalidade) {
+        while (true) {
+            // A parte inteira escolhe a camada; a fracionária, a posição dentro dela
+            double w = gerador.nextRandom(finalidade) * CAMADAS_EXP;
+            int i = (int) w;
+            double x = (w - i) * X_EXP[i];
+            if (x < X_EXP[i + 1]) {
+                return x;
+            }
+            if (i == 0) {
+                // Cauda além de R: pela falta de memória, R mais uma nova exponencial
+                return R_EXP - Math.log1p(-gerador.nextRandom(finalidade));
+            }
+            double y = F_EXP[i] + gerador.nextRandom(finalidade) * (F_EXP[i + 1] - F_EXP[i]);
+            if (y < Math.exp(-x)) {
+                return x;
+            }
+        }
+    }
+    
+    /**
+     * Normal padrão pelo ziggurat
+     */
+    private static double normalPadrao(GeradorAleatorio gerador, int finalidade) {
+        while (true) {
+            double w = gerador.nextRandom(finalidade) * (2 * CAMADAS_NORMAL);
+            int j = (int) w;
+            int i = j & (CAMADAS_NORMAL - 1);
+            double sinal = j < CAMADAS_NORMAL ? 1.0 : -1.0;
+            double x = (w - j) * X_NORMAL[i];
+            if (x < X_NORMAL[i + 1]) {
+                return sinal * x;
+            }
+            if (i == 0) {
+                // Cauda além de R (método de Marsaglia)
+                double xc;
+                double yc;
+                do {
+                    xc = -Math.log1p(-gerador.nextRandom(finalidade)) / R_NORMAL;
+                    yc = -Math.log1p(-gerador.nextRandom(finalidade));
+                } while (2.0 * yc < xc * xc);
+                return sinal * (R_NORMAL + xc);
+            }
+            double y = F_NORMAL[i] + gerador.nextRandom(finalidade) * (F_NORMAL[i + 1] - F_NORMAL[i]);
+            if (y < Math.exp(-0.5 * x * x)) {
+                return sinal * x;
+            }
+        }
+    }
+    
+    /**
+     * @return true se for uniforme (definida só por mínimo e máximo)
+     */
+    public boolean isUniforme() { return tipo == UNIFORME; }
+    
+    /**
+     * @return Média teórica
+     */
+    public double getMedia() { return media; }
+    
+    /**
+     * @return Menor valor possível
+     */
+    public double getMinimo() {
+        return tipo == UNIFORME || tipo == DETERMINISTICA || tipo == EMPIRICA ? a : 0.0;
+    }
+    
+    /**
+     * @return Maior valor possível (infinito nas distribuições sem limite superior)
+     */
+    public double getMaximo() {
+        return tipo == UNIFORME || tipo == DETERMINISTICA || tipo == EMPIRICA ? b : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * @return Descrição exata dos parâmetros que determinam as amostras, para a
+     *         chave do cache de resultados (ao contrário de toString, sem arredondamento)
+     */
+    public String textoCanonico() {
+        StringBuilder texto = new StringBuilder().append(tipo).append(':').append(a).append(':').append(b)
+                                                 .append(':').append(fases);
+        if (valores != null) {
+            texto.append(':').append(Arrays.toString(valores));
+        }
+        if (tabela != null) {
+            for (int i = 0; i < tabela.tamanho(); i++) {
+                texto.append(i == 0 ? ":[" : ", ").append(tabela.getLimiar(i)).append('/').append(tabela.getAlias(i));
+            }
+            texto.append(']');
+        }
+        return texto.toString();
+    }
+    
+    /**
+     * @return Bytes ocupados por gravar()
+     */
+    int tamanhoBinario() {
+        return 48 + 8 * (valores != null ? valores.length : 0) + 12 * (tabela != null ? tabela.tamanho() : 0);
+    }
+    
+    /**
+     * Grava os campos internos, para o formato binário da configuração: a
+     * leitura reconstrói a mesma distribuição, com a mesma tabela de alias,
+     * sem reler arquivos de valores empíricos
+     * @param saida Buffer com espaço para tamanhoBinario() bytes
+     */
+    void gravar(ByteBuffer saida) {
+        saida.putInt(tipo).putDouble(a).putDouble(b).putInt(fases).putDouble(media).putDouble(desvio);
+        saida.putInt(valores != null ? valores.length : 0);
+        for (int i = 0; valores != null && i < valores.length; i++) {
+            saida.putDouble(valores[i]);
+        }
+        saida.putInt(tabela != null ? tabela.tamanho() : 0);
+        for (int i = 0; tabela != null && i < tabela.tamanho(); i++) {
+            saida.putDouble(tabela.getLimiar(i)).putInt(tabela.getAlias(i));
+        }
+    }
+    
+    /**
+     * Lê uma distribuição gravada por gravar()
+     * @param entrada Buffer posicionado no início da distribuição
+     * @return Distribuição lida
+     * @throws IllegalArgumentException Se os campos forem inconsistentes
+     */
+    static Distribuicao ler(ByteBuffer entrada) {
+        int tipo = entrada.getInt();
+        double a = entrada.getDouble();
+        double b = entrada.getDouble();
+        int fases = entrada.getInt();
+        double media = entrada.getDouble();
+        double desvio = entrada.getDouble();
+        int numValores = entrada.getInt();
+        if (tipo < UNIFORME || tipo > EMPIRICA || numValores < 0 || numValores > entrada.remaining() / 8) {
+            throw new IllegalArgumentException("Distribuição inválida (tipo " + tipo + ")");
+        }
+        double[] valores = null;
+        if (numValores > 0) {
+            valores = new double[numValores];
+            for (int i = 0; i < numValores; i++) {
+                valores[i] = entrada.getDouble();
+            }
+        }
+        int tamanhoTabela = entrada.getInt();
+        boolean comTabela = tipo == HIPEREXPONENCIAL || tipo == EMPIRICA;
+        if (comTabela ? tamanhoTabela != numValores || numValores == 0 : tamanhoTabela != 0 || numValores != 0) {
+            throw new IllegalArgumentException("Distribuição com tabela de alias inconsistente (tipo " + tipo + ")");
+        }
+        if (tipo == ERLANG && fases < 1) {
+            throw new IllegalArgumentException("Erlang com número de fases inválido: " + fases);
+        }
+        TabelaAlias tabela = null;
+        if (comTabela) {
+            double[] limiares = new double[tamanhoTabela];
+            int[] alias = new int[tamanhoTabela];
+            for (int i = 0; i < tamanhoTabela; i++) {
+                limiares[i] = entrada.getDouble();
+                alias[i] = entrada.getInt();
+            }
+            tabela = new TabelaAlias(limiares, alias);
+        }
+        return new Distribuicao(tipo, a, b, fases, valores, tabela, media, desvio);
+    }
+    
+    /**
+     * Descrição para os relatórios; a uniforme mantém o formato "min ... max"
+     */
+    @Override
+    public String toString() {
+        switch (tipo) {
+            case UNIFORME:
+                return String.format("%.1f ... %.1f", a, b);
+            case EXPONENCIAL:
+                return String.format("exp(mean %.2f)", media);
+            case ERLANG:
+                return String.format("Erlang(k %d, mean %.2f)", fases, media);
+            case HIPEREXPONENCIAL:
+                return String.format("hyperexp(%d branches, mean %.2f)", valores.length, media);
+            case LOGNORMAL:
+                return String.format("lognormal(mean %.2f, sd %.2f)", media, desvio);
+            case DETERMINISTICA:
+                return String.format("deterministic(%.2f)", a);
+            default:
+                return String.format("empirical(%d values, mean %.2f)", valores.length, media);
+        }
+    }
+}
\ No newline at end of file
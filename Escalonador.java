@@ -1,38 +1,106 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * Classe Escalonador - responsável por gerenciar a agenda de eventos
  * e controlar o avanço do tempo de simulação.
  */
 public class Escalonador {
-    private final PriorityQueue<Evento> eventos;
+    // Finalidades dos números aleatórios de cada fila, para os fluxos por finalidade
+    public static final int FINALIDADES_POR_FILA = 3;
+    static final int FINALIDADE_CHEGADA = 0;
+    static final int FINALIDADE_ATENDIMENTO = 1;
+    static final int FINALIDADE_ROTEAMENTO = 2;
+    
+    private final CalendarioEventos calendario;
     private final List<Fila> filas;
     private final GeradorAleatorio gerador;
-    private final double[][] matrizRoteamento;
+    private final TabelaRoteamento roteamento;
+    private final int[] entradas; // Filas com chegadas externas (a partir de 1)
     
     private double tempoAtual;
     private double tempoUltimoEvento;
     private int numFilas;
+    private long eventosProcessados;
+    private int populacaoTotal;
+    private GravadorTrace trace; // Nulo: sem trace
+    
+    // Início da coleta de estatísticas (após o aquecimento, se houver)
+    private double tempoInicioColeta;
+    private long eventosInicioColeta;
     
     public Escalonador(List<Fila> filas, double[][] matrizRoteamento, GeradorAleatorio gerador) {
+        this(filas, matrizRoteamento, gerador, new CalendarioHeap());
+    }
+    
+    /**
+     * Construtor com calendário de eventos explícito
+     * @param filas Filas da rede
+     * @param matrizRoteamento Probabilidades de roteamento entre as filas
+     * @param gerador Gerador de números aleatórios
+     * @param calendario Implementação da agenda de eventos
+     */
+    public Escalonador(List<Fila> filas, double[][] matrizRoteamento, GeradorAleatorio gerador,
+                       CalendarioEventos calendario) {
+        this(filas, new TabelaRoteamento(matrizRoteamento), gerador, calendario);
+    }
+    
+    /**
+     * Construtor com roteamento já compilado
+     * @param filas Filas da rede
+     * @param roteamento Tabela de roteamento entre as filas
+     * @param gerador Gerador de números aleatórios
+     * @param calendario Implementação da agenda de eventos
+     */
+    public Escalonador(List<Fila> filas, TabelaRoteamento roteamento, GeradorAleatorio gerador,
+                       CalendarioEventos calendario) {
         this.filas = filas;
-        this.matrizRoteamento = matrizRoteamento;
+        this.roteamento = roteamento;
         this.gerador = gerador;
-        this.eventos = new PriorityQueue<>();
+        this.calendario = calendario;
         this.tempoAtual = 0.0;
         this.tempoUltimoEvento = 0.0;
         this.numFilas = filas.size();
+        this.entradas = listarEntradas(filas);
+    }
+    
+    /**
+     * Filas com chegadas externas: as que têm tempo de chegada maior que zero
+     * @param filas Filas da rede
+     * @return Índices das filas (a partir de 1), em ordem crescente
+     */
+    private static int[] listarEntradas(List<Fila> filas) {
+        int[] entradas = new int[filas.size()];
+        int numEntradas = 0;
+        for (int i = 0; i < filas.size(); i++) {
+            if (filas.get(i).getMaxChegada() > 0) {
+                entradas[numEntradas++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(entradas, numEntradas);
     }
     
     /**
-     * Inicializa o escalonador, agendando o primeiro evento
-     * @param tempoInicial Tempo da primeira chegada
+     * Inicializa o escalonador, agendando a primeira chegada externa de cada
+     * fila de entrada. Cada fila de entrada tem seu próprio processo de
+     * chegadas: a chegada seguinte é sorteada quando a anterior acontece.
+     * @param tempoInicial Tempo da primeira chegada em cada fila de entrada
      */
     public void inicializar(double tempoInicial) {
-        // Agenda o primeiro evento (chegada do primeiro cliente)
-        agendarChegada(0, tempoInicial); // Primeira chegada no tempo especificado
+        for (int fila : entradas) {
+            agendarChegadaExterna(fila, tempoInicial);
+        }
+    }
+    
+    /**
+     * @return Índices (a partir de 1) das filas com chegadas externas
+     */
+    public int[] getEntradas() {
+        return entradas.clone();
     }
     
     /**
@@ -42,52 +110,148 @@ public class Escalonador {
      * @return Tempo total da simulação
      */
     public double executar(int maxAleatorios) {
-        while (!eventos.isEmpty() && gerador.getContador() < maxAleatorios) {
-            // Obtém o próximo evento
-            Evento evento = eventos.poll();
+        while (!calendario.vazio() && gerador.getContador() < maxAleatorios) {
+            // Obtém o próximo evento, que passa a ser o evento corrente do calendário
+            calendario.removerProximo();
+            
+            // Atualiza o tempo atual; os tempos de estado são acumulados
+            // apenas nas filas que mudam de população
+            tempoUltimoEvento = tempoAtual;
+            tempoAtual = calendario.getTempo();
+            eventosProcessados++;
             
-            // Calcula o tempo decorrido desde o último evento
-            double tempoDecorrido = evento.getTempo() - tempoAtual;
+            // Processa o evento
+            processarEvento(calendario.getTipo(), calendario.getFilaOrigem(), calendario.getFilaDestino());
+            if (trace != null) {
+                registrarTrace();
+            }
+        }
+        
+        return encerrar(); // Retorna o tempo total da simulação
+    }
+    
+    /**
+     * Executa no máximo o número de eventos indicado, sem fechar os
+     * intervalos de estado das filas; permite observar a simulação em lotes
+     * @param eventos Número máximo de eventos a processar
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @return true se a simulação pode continuar (há eventos e aleatórios disponíveis)
+     */
+    public boolean executarEventos(long eventos, int maxAleatorios) {
+        long limite = eventosProcessados + eventos;
+        while (eventosProcessados < limite && !calendario.vazio() && gerador.getContador() < maxAleatorios) {
+            calendario.removerProximo();
+            tempoUltimoEvento = tempoAtual;
+            tempoAtual = calendario.getTempo();
+            eventosProcessados++;
+            processarEvento(calendario.getTipo(), calendario.getFilaOrigem(), calendario.getFilaDestino());
+            if (trace != null) {
+                registrarTrace();
+            }
+        }
+        return !calendario.vazio() && gerador.getContador() < maxAleatorios;
+    }
+    
+    /**
+     * Fecha o último intervalo de estado de todas as filas no tempo atual
+     * @return Tempo total da simulação
+     */
+    public double encerrar() {
+        for (int i = 0; i < filas.size(); i++) {
+            filas.get(i).atualizarAte(tempoAtual);
+        }
+        return tempoAtual;
+    }
+    
+    /**
+     * Executa o período de aquecimento e descarta as estatísticas das filas
+     * acumuladas até o seu fim. O aquecimento termina no primeiro dos limites
+     * atingidos; a simulação continua depois com executar().
+     * @param tempoLimite Tempo de simulação do fim do aquecimento
+     * @param eventosLimite Número de eventos do aquecimento
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     */
+    public void aquecer(double tempoLimite, long eventosLimite, int maxAleatorios) {
+        while (!calendario.vazio() && gerador.getContador() < maxAleatorios && eventosProcessados < eventosLimite) {
+            calendario.removerProximo();
             
-            // Atualiza os tempos de estado para todas as filas
-            for (int i = 0; i < filas.size(); i++) {
-                Fila fila = filas.get(i);
-                fila.atualizarTempoEstado(tempoDecorrido);
+            // O evento retirado depois do tempo limite já pertence ao período de coleta
+            boolean fimAquecimento = calendario.getTempo() > tempoLimite;
+            if (fimAquecimento) {
+                iniciarColeta(tempoLimite);
             }
             
-            // Atualiza o tempo atual
             tempoUltimoEvento = tempoAtual;
-            tempoAtual = evento.getTempo();
+            tempoAtual = calendario.getTempo();
+            eventosProcessados++;
+            processarEvento(calendario.getTipo(), calendario.getFilaOrigem(), calendario.getFilaDestino());
+            if (trace != null) {
+                registrarTrace();
+            }
             
-            // Processa o evento
-            processarEvento(evento);
+            if (fimAquecimento) {
+                return;
+            }
         }
-        
-        return tempoAtual; // Retorna o tempo total da simulação
+        iniciarColeta(Math.min(tempoAtual, tempoLimite));
+    }
+    
+    /**
+     * Zera as estatísticas das filas, que passam a ser coletadas a partir do tempo indicado
+     * @param tempo Fim do aquecimento
+     */
+    private void iniciarColeta(double tempo) {
+        for (int i = 0; i < filas.size(); i++) {
+            Fila fila = filas.get(i);
+            fila.atualizarAte(tempo);
+            fila.reiniciarEstatisticas(tempo);
+        }
+        tempoInicioColeta = tempo;
+        eventosInicioColeta = eventosProcessados;
+    }
+    
+    /**
+     * Executa uma simulação piloto registrando a população total da rede
+     * entre eventos, para a detecção automática do aquecimento
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @param detector Detector que recebe as observações
+     * @return Tempo total da simulação piloto
+     */
+    public double executarPiloto(int maxAleatorios, DetectorAquecimento detector) {
+        while (!calendario.vazio() && gerador.getContador() < maxAleatorios) {
+            calendario.removerProximo();
+            tempoUltimoEvento = tempoAtual;
+            tempoAtual = calendario.getTempo();
+            eventosProcessados++;
+            detector.observar(tempoUltimoEvento, tempoAtual, populacaoTotal);
+            processarEvento(calendario.getTipo(), calendario.getFilaOrigem(), calendario.getFilaDestino());
+        }
+        return tempoAtual;
     }
     
     /**
      * Processa um evento específico
-     * @param evento Evento a ser processado
+     * @param tipo Código do tipo do evento
+     * @param filaOrigem Fila de origem
+     * @param filaDestino Fila de destino
      */
-    private void processarEvento(Evento evento) {
-        switch (evento.getTipo()) {
-            case Evento.CHEGADA:
-                processarChegada(evento);
+    private void processarEvento(int tipo, int filaOrigem, int filaDestino) {
+        switch (tipo) {
+            case Evento.TIPO_CHEGADA:
+                processarChegada(filaOrigem, filaDestino);
                 break;
-            case Evento.SAIDA:
-                processarSaida(evento);
+            case Evento.TIPO_SAIDA:
+                processarSaida(filaOrigem, calendario.getTempoCliente());
                 break;
         }
     }
     
     /**
      * Processa um evento de chegada
-     * @param evento Evento de chegada
+     * @param filaOrigem Fila de origem (0 para mundo externo)
+     * @param filaDestino Fila de destino
      */
-    private void processarChegada(Evento evento) {
-        int filaDestino = evento.getFilaDestino();
-        
+    private void processarChegada(int filaOrigem, int filaDestino) {
         if (filaDestino <= 0 || filaDestino > numFilas) {
             return; // Fila inválida
         }
@@ -95,33 +259,38 @@ public class Escalonador {
         Fila fila = filas.get(filaDestino - 1); // Ajuste de índice
         
         if (fila.podeAceitarCliente()) {
+            fila.atualizarAte(tempoAtual);
             fila.In(); // Coloca o cliente na fila
+            populacaoTotal++;
             
             // Se há servidor disponível, agenda saída imediatamente
             if (fila.Status() <= fila.Servers()) {
-                double tempoAtendimento = fila.getMinAtendimento() + 
-                      (fila.getMaxAtendimento() - fila.getMinAtendimento()) * gerador.nextRandom();
-                agendarSaida(filaDestino, tempoAtual + tempoAtendimento);
+                fila.registrarEspera(0.0);
+                double tempoAtendimento = fila.getAtendimento().amostrar(
+                      gerador, finalidade(filaDestino, FINALIDADE_ATENDIMENTO));
+                fila.registrarAtendimento(tempoAtendimento);
+                agendarSaida(filaDestino, tempoAtual + tempoAtendimento, tempoAtual);
+            } else {
+                fila.aguardar(tempoAtual);
             }
         } else {
             fila.Loss(); // Cliente perdido por fila cheia
         }
         
-        // Agenda a próxima chegada externa se for do mundo externo para fila 1
-        if (evento.getFilaOrigem() == 0 && filaDestino == 1) {
-            double tempoProximaChegada = fila.getMinChegada() + 
-                  (fila.getMaxChegada() - fila.getMinChegada()) * gerador.nextRandom();
-            agendarChegada(0, tempoAtual + tempoProximaChegada);
+        // Chegada externa: agenda a próxima do processo de chegadas desta fila
+        if (filaOrigem == 0) {
+            double tempoProximaChegada = fila.getChegada().amostrar(
+                  gerador, finalidade(filaDestino, FINALIDADE_CHEGADA));
+            agendarChegadaExterna(filaDestino, tempoAtual + tempoProximaChegada);
         }
     }
     
     /**
      * Processa um evento de saída
-     * @param evento Evento de saída
+     * @param filaOrigem Fila de onde o cliente sai
+     * @param tempoChegada Instante em que o cliente chegou à fila
      */
-    private void processarSaida(Evento evento) {
-        int filaOrigem = evento.getFilaOrigem();
-        
+    private void processarSaida(int filaOrigem, double tempoChegada) {
         if (filaOrigem <= 0 || filaOrigem > numFilas) {
             return; // Fila inválida
         }
@@ -129,28 +298,24 @@ public class Escalonador {
         Fila fila = filas.get(filaOrigem - 1); // Ajuste de índice
         
         // Cliente sai da fila
+        fila.atualizarAte(tempoAtual);
         fila.Out();
+        populacaoTotal--;
+        fila.registrarSaida(tempoAtual - tempoChegada);
         
-        // Se ainda há clientes além do número de servidores, agenda nova saída
+        // Se ainda há clientes além do número de servidores, o mais antigo começa a ser atendido
         if (fila.Status() >= fila.Servers()) {
-            double tempoAtendimento = fila.getMinAtendimento() + 
-                  (fila.getMaxAtendimento() - fila.getMinAtendimento()) * gerador.nextRandom();
-            agendarSaida(filaOrigem, tempoAtual + tempoAtendimento);
+            double chegadaProximo = fila.proximoAguardando();
+            fila.registrarEspera(tempoAtual - chegadaProximo);
+            double tempoAtendimento = fila.getAtendimento().amostrar(
+                  gerador, finalidade(filaOrigem, FINALIDADE_ATENDIMENTO));
+            fila.registrarAtendimento(tempoAtendimento);
+            agendarSaida(filaOrigem, tempoAtual + tempoAtendimento, chegadaProximo);
         }
         
         // Determina para onde o cliente vai após sair da fila
-        double probabilidade = gerador.nextRandom();
-        double acumulado = 0.0;
-        
-        int proximaFila = 0; // 0 representa saída do sistema por padrão
-        
-        for (int i = 0; i <= numFilas; i++) {
-            acumulado += matrizRoteamento[filaOrigem][i];
-            if (probabilidade <= acumulado) {
-                proximaFila = i;
-                break;
-            }
-        }
+        int proximaFila = escolherDestino(filaOrigem,
+                                          gerador.nextRandom(finalidade(filaOrigem, FINALIDADE_ROTEAMENTO)));
         
         if (proximaFila > 0) {
             // Cliente vai para outra fila
@@ -160,13 +325,37 @@ public class Escalonador {
     }
     
     /**
-     * Agenda um evento de chegada na primeira fila
-     * @param filaOrigem Fila de origem (0 para mundo externo)
+     * @return Índice do fluxo de uma finalidade de uma fila (índice a partir de 1)
+     */
+    static int finalidade(int fila, int tipo) {
+        return FINALIDADES_POR_FILA * (fila - 1) + tipo;
+    }
+    
+    /**
+     * @param numFilas Número de filas da rede
+     * @return Quantidade de fluxos por finalidade usados pela rede
+     */
+    public static int numFinalidades(int numFilas) {
+        return FINALIDADES_POR_FILA * numFilas;
+    }
+    
+    /**
+     * Escolhe o destino de um cliente que sai da fila pela tabela de roteamento
+     * @param filaOrigem Fila de onde o cliente sai
+     * @param probabilidade Número aleatório uniforme em [0, 1)
+     * @return Fila de destino (0 representa saída do sistema)
+     */
+    int escolherDestino(int filaOrigem, double probabilidade) {
+        return roteamento.destino(filaOrigem, probabilidade);
+    }
+    
+    /**
+     * Agenda uma chegada vinda do mundo externo
+     * @param filaDestino Fila de entrada
      * @param tempo Tempo do evento
      */
-    private void agendarChegada(int filaOrigem, double tempo) {
-        // Agenda chegada na primeira fila (do mundo externo)
-        eventos.add(new Evento(tempo, Evento.CHEGADA, 0, filaOrigem, 1));
+    private void agendarChegadaExterna(int filaDestino, double tempo) {
+        calendario.agendar(tempo, Evento.TIPO_CHEGADA, 0, filaDestino);
     }
     
     /**
@@ -177,16 +366,85 @@ public class Escalonador {
      */
     private void agendarChegada(int filaOrigem, double tempo, int filaDestino) {
         // Agenda chegada de um cliente que vem de outra fila
-        eventos.add(new Evento(tempo, Evento.CHEGADA, 0, filaOrigem, filaDestino));
+        calendario.agendar(tempo, Evento.TIPO_CHEGADA, filaOrigem, filaDestino);
     }
     
     /**
      * Agenda um evento de saída
      * @param filaOrigem Fila de origem
      * @param tempo Tempo do evento
+     * @param tempoChegada Instante em que o cliente chegou à fila
      */
-    private void agendarSaida(int filaOrigem, double tempo) {
-        eventos.add(new Evento(tempo, Evento.SAIDA, 0, filaOrigem, -1));
+    private void agendarSaida(int filaOrigem, double tempo, double tempoChegada) {
+        calendario.agendar(tempo, Evento.TIPO_SAIDA, filaOrigem, -1, tempoChegada);
+    }
+    
+    /**
+     * Grava o evento corrente no trace, com as populações das filas envolvidas
+     */
+    private void registrarTrace() {
+        int origem = calendario.getFilaOrigem();
+        int destino = calendario.getFilaDestino();
+        trace.registrar(tempoAtual, eventosProcessados, calendario.getTipo(), origem, destino,
+                        populacao(origem), populacao(destino), gerador.getContador());
+    }
+    
+    /**
+     * @return População da fila (índice a partir de 1), ou -1 para o mundo externo
+     */
+    private int populacao(int fila) {
+        return fila > 0 && fila <= numFilas ? filas.get(fila - 1).Status() : -1;
+    }
+    
+    /**
+     * Grava o estado completo da simulação (relógio, calendário, filas e
+     * gerador) para um checkpoint. Deve ser chamado entre eventos.
+     * @param saida Destino do checkpoint
+     */
+    public void salvarEstado(DataOutputStream saida) throws IOException {
+        saida.writeDouble(tempoAtual);
+        saida.writeDouble(tempoUltimoEvento);
+        saida.writeLong(eventosProcessados);
+        saida.writeInt(populacaoTotal);
+        saida.writeDouble(tempoInicioColeta);
+        saida.writeLong(eventosInicioColeta);
+        calendario.salvar(saida);
+        saida.writeInt(filas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            filas.get(i).salvar(saida);
+        }
+        gerador.salvar(saida);
+    }
+    
+    /**
+     * Restaura o estado gravado por salvarEstado() em um escalonador recém-criado
+     * (sem inicializar()) com a mesma rede; a execução continua produzindo os
+     * mesmos resultados de uma execução sem interrupção
+     * @param entrada Origem do checkpoint
+     */
+    public void restaurarEstado(DataInputStream entrada) throws IOException {
+        tempoAtual = entrada.readDouble();
+        tempoUltimoEvento = entrada.readDouble();
+        eventosProcessados = entrada.readLong();
+        populacaoTotal = entrada.readInt();
+        tempoInicioColeta = entrada.readDouble();
+        eventosInicioColeta = entrada.readLong();
+        calendario.restaurar(entrada);
+        if (entrada.readInt() != filas.size()) {
+            throw new IOException("Checkpoint gravado com outro número de filas");
+        }
+        for (int i = 0; i < filas.size(); i++) {
+            filas.get(i).restaurar(entrada);
+        }
+        gerador.restaurar(entrada);
+    }
+    
+    /**
+     * Ativa o trace binário dos eventos processados
+     * @param trace Gravador do trace, ou null para desativar
+     */
+    public void setGravadorTrace(GravadorTrace trace) {
+        this.trace = trace;
     }
     
     /**
@@ -196,4 +454,28 @@ public class Escalonador {
     public double getTempoAtual() {
         return tempoAtual;
     }
+    
+    /**
+     * Obtém o tempo em que começou a coleta de estatísticas
+     * @return Fim do aquecimento, ou 0 se não houve aquecimento
+     */
+    public double getTempoInicioColeta() {
+        return tempoInicioColeta;
+    }
+    
+    /**
+     * Obtém o número de eventos processados durante o aquecimento
+     * @return Eventos descartados pelo aquecimento
+     */
+    public long getEventosAquecimento() {
+        return eventosInicioColeta;
+    }
+    
+    /**
+     * Obtém o número de eventos processados
+     * @return Eventos retirados do calendário até agora
+     */
+    public long getEventosProcessados() {
+        return eventosProcessados;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,435 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classe EscalonadorParalelo - simulação paralela conservadora de uma única
+ * rede: as filas são divididas em partições, cada uma com sua thread e seu
+ * calendário de eventos, sincronizadas por janelas de tempo (YAWNS).
+ *
+ * Lookahead: quando uma fila começa um atendimento no instante s, o cliente
+ * só sai em s + atendimento >= s + mínimo de atendimento da fila. Por isso o
+ * destino do cliente é sorteado no início do atendimento, e a chegada na
+ * partição de destino é enviada já nesse momento. Se N é o próximo evento de
+ * uma partição e L o menor mínimo de atendimento das suas filas com rotas
+ * para outras partições, nada que ela enviar terá tempo menor que N + L; a
+ * janela vai até W = min(N + L) entre as partições, e dentro dela cada
+ * partição processa seus eventos sem esperar pelas demais.
+ *
+ * Cada janela tem duas barreiras: após o processamento (todas as mensagens da
+ * janela foram escritas) e após a leitura das mensagens recebidas, quando a
+ * próxima janela é calculada. As mensagens de uma partição para outra ficam
+ * em uma caixa com um único escritor e um único leitor, sem locks: escritor e
+ * leitor nunca a usam na mesma fase, e as barreiras publicam as escritas.
+ *
+ * Os números aleatórios vêm de fluxos por finalidade (chegadas, atendimento e
+ * roteamento de cada fila), de modo que os sorteios de uma fila não dependem
+ * de como a rede foi dividida. O resultado é estatisticamente equivalente ao
+ * do Escalonador sequencial, mas não idêntico: o destino é sorteado no início
+ * do atendimento, e a execução termina ao fim da janela em que o número de
+ * aleatórios foi atingido. Filas com atendimento mínimo zero e rotas para
+ * outra partição não têm lookahead e não podem ser simuladas assim.
+ */
+public class EscalonadorParalelo {
+    private final List<Fila> filas;
+    private final TabelaRoteamento roteamento;
+    private final int numFilas;
+    private final int[] particaoDaFila; // Índice pela fila (a partir de 1)
+    private final Particao[] particoes;
+    private final CaixaMensagens[][] caixas; // [origem][destino]
+    
+    // Estado da janela, escrito pela ação da barreira e lido por todas as partições
+    private double fimJanela;
+    private boolean encerrada;
+    private int maxAleatorios;
+    private double tempoFinal;
+    private int janelas;
+    
+    /**
+     * Divide as filas em partições de índices contíguos
+     * @param config Configuração da rede
+     * @param fluxo Fluxo do qual saem os fluxos por finalidade
+     * @param numParticoes Número de partições (threads)
+     */
+    public EscalonadorParalelo(ConfiguracaoRede config, FluxoAleatorio fluxo, int numParticoes) {
+        this.numFilas = config.getNumFilas();
+        if (numParticoes < 1 || numParticoes > numFilas) {
+            throw new IllegalArgumentException("Número de partições deve estar entre 1 e " + numFilas
+                                               + ": " + numParticoes);
+        }
+        this.filas = config.criarFilas();
+        this.roteamento = config.getTabelaRoteamento();
+        this.particaoDaFila = new int[numFilas + 1];
+        for (int fila = 1; fila <= numFilas; fila++) {
+            particaoDaFila[fila] = (int) ((long) (fila - 1) * numParticoes / numFilas);
+        }
+        
+        // Lookahead: menor mínimo de atendimento entre as filas com rotas para outra partição
+        double[] lookahead = new double[numParticoes];
+        double[] passo = new double[numParticoes];
+        Arrays.fill(lookahead, Double.POSITIVE_INFINITY);
+        Arrays.fill(passo, Double.POSITIVE_INFINITY);
+        ListaArestas arestas = config.getArestas();
+        for (int i = 0; i < arestas.tamanho(); i++) {
+            int origem = arestas.getOrigem(i);
+            int destino = arestas.getDestino(i);
+            if (origem < 1 || origem > numFilas || destino < 1 || destino > numFilas
+                || arestas.getProbabilidade(i) <= 0) {
+                continue;
+            }
+            int p = particaoDaFila[origem];
+            if (p != particaoDaFila[destino]) {
+                double minimo = filas.get(origem - 1).getMinAtendimento();
+                if (!(minimo > 0)) {
+                    throw new IllegalArgumentException("Fila " + origem + " tem atendimento mínimo zero e rota para"
+                                                       + " outra partição: sem lookahead para a simulação paralela");
+                }
+                lookahead[p] = Math.min(lookahead[p], minimo);
+            }
+        }
+        // Partições sem rotas para fora avançam em passos do menor atendimento, para
+        // que o número de aleatórios seja conferido a intervalos regulares
+        for (int fila = 1; fila <= numFilas; fila++) {
+            int p = particaoDaFila[fila];
+            double minimo = filas.get(fila - 1).getMinAtendimento();
+            passo[p] = Math.min(passo[p], minimo > 0 ? minimo : 1.0);
+        }
+        
+        this.caixas = new CaixaMensagens[numParticoes][numParticoes];
+        this.particoes = new Particao[numParticoes];
+        for (int p = 0; p < numParticoes; p++) {
+            for (int d = 0; d < numParticoes; d++) {
+                caixas[p][d] = new CaixaMensagens();
+            }
+            GeradorAleatorio gerador = new GeradorAleatorio(fluxo.reiniciado());
+            gerador.separarFinalidades(Escalonador.numFinalidades(numFilas));
+            particoes[p] = new Particao(p, gerador,
+                                        lookahead[p] < Double.POSITIVE_INFINITY ? lookahead[p] : passo[p]);
+        }
+    }
+    
+    /**
+     * Executa a simulação até que o total de aleatórios sorteados pelas
+     * partições atinja o máximo, ou até não haver eventos
+     * @param tempoInicial Tempo da primeira chegada em cada fila de entrada
+     * @param maxAleatorios Número máximo de aleatórios
+     * @return Estatísticas finais
+     */
+    public ResultadoSimulacao executar(double tempoInicial, int maxAleatorios) {
+        this.maxAleatorios = maxAleatorios;
+        for (int fila = 1; fila <= numFilas; fila++) {
+            if (filas.get(fila - 1).getMaxChegada() > 0) {
+                particoes[particaoDaFila[fila]].calendario.agendar(tempoInicial, Evento.TIPO_CHEGADA, 0, fila);
+            }
+        }
+        
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+        CyclicBarrier barreiraProcessamento = new CyclicBarrier(particoes.length);
+        CyclicBarrier barreiraJanela = new CyclicBarrier(particoes.length, this::calcularJanela);
+        Thread[] threads = new Thread[particoes.length];
+        for (int p = 0; p < particoes.length; p++) {
+            Particao particao = particoes[p];
+            threads[p] = new Thread(() -> {
+                try {
+                    while (true) {
+                        particao.receberMensagens();
+                        barreiraJanela.await();
+                        if (encerrada) {
+                            break;
+                        }
+                        particao.processarJanela(fimJanela);
+                        barreiraProcessamento.await();
+                    }
+                } catch (BrokenBarrierException | InterruptedException e) {
+                    // Outra partição falhou e interrompeu esta; a falha dela é relatada
+                } catch (RuntimeException | Error e) {
+                    falha.compareAndSet(null, e);
+                    for (Thread outra : threads) {
+                        if (outra != Thread.currentThread()) {
+                            outra.interrupt();
+                        }
+                    }
+                }
+            }, "pdes-particao-" + p);
+            threads[p].setDaemon(true);
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            throw new IllegalStateException("Simulação paralela interrompida", e);
+        }
+        if (falha.get() != null) {
+            throw new IllegalStateException("Falha em uma partição da simulação paralela", falha.get());
+        }
+        
+        for (Fila fila : filas) {
+            fila.atualizarAte(tempoFinal);
+        }
+        return ResultadoSimulacao.capturar(filas, tempoFinal, (int) Math.min(getAleatoriosUsados(), Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Ação da barreira: decide se a simulação terminou e, se não, até onde vai a próxima janela
+     */
+    private void calcularJanela() {
+        double fim = Double.POSITIVE_INFINITY;
+        boolean haEventos = false;
+        for (Particao particao : particoes) {
+            double proximo = particao.calendario.proximoTempo();
+            haEventos |= proximo < Double.POSITIVE_INFINITY;
+            fim = Math.min(fim, proximo + particao.lookahead);
+        }
+        if (!haEventos || getAleatoriosUsados() >= maxAleatorios) {
+            // Todas as partições processaram os eventos anteriores ao fim da última
+            // janela; o estado é consistente no último evento processado
+            double ultimo = 0.0;
+            for (Particao particao : particoes) {
+                ultimo = Math.max(ultimo, particao.tempoAtual);
+            }
+            tempoFinal = ultimo;
+            encerrada = true;
+            return;
+        }
+        fimJanela = fim;
+        janelas++;
+    }
+    
+    /**
+     * @return Total de aleatórios sorteados pelas partições
+     */
+    public long getAleatoriosUsados() {
+        long total = 0;
+        for (Particao particao : particoes) {
+            total += particao.gerador.getContador();
+        }
+        return total;
+    }
+    
+    /**
+     * @return Total de eventos processados pelas partições
+     */
+    public long getEventosProcessados() {
+        long total = 0;
+        for (Particao particao : particoes) {
+            total += particao.eventosProcessados;
+        }
+        return total;
+    }
+    
+    /**
+     * @return Número de mensagens trocadas entre partições
+     */
+    public long getMensagens() {
+        long total = 0;
+        for (Particao particao : particoes) {
+            total += particao.mensagensEnviadas;
+        }
+        return total;
+    }
+    
+    public int getJanelas() { return janelas; }
+    public int getNumParticoes() { return particoes.length; }
+    
+    /**
+     * Chegadas enviadas de uma partição para outra durante uma janela
+     */
+    private static final class CaixaMensagens {
+        private double[] tempos = new double[64];
+        private int[] origens = new int[64];
+        private int[] destinos = new int[64];
+        private int tamanho;
+        
+        void enviar(double tempo, int origem, int destino) {
+            if (tamanho == tempos.length) {
+                tempos = Arrays.copyOf(tempos, 2 * tamanho);
+                origens = Arrays.copyOf(origens, 2 * tamanho);
+                destinos = Arrays.copyOf(destinos, 2 * tamanho);
+            }
+            tempos[tamanho] = tempo;
+            origens[tamanho] = origem;
+            destinos[tamanho] = destino;
+            tamanho++;
+        }
+    }
+    
+    /**
+     * Um grupo de filas com seu calendário, seu gerador e sua thread
+     */
+    private final class Particao {
+        private final int indice;
+        private final CalendarioHeap calendario = new CalendarioHeap();
+        private final GeradorAleatorio gerador;
+        private final double lookahead;
+        private double tempoAtual;
+        private long eventosProcessados;
+        private long mensagensEnviadas;
+        
+        Particao(int indice, GeradorAleatorio gerador, double lookahead) {
+            this.indice = indice;
+            this.gerador = gerador;
+            this.lookahead = lookahead;
+        }
+        
+        /**
+         * Agenda as chegadas recebidas das outras partições, na ordem das partições de origem
+         */
+        void receberMensagens() {
+            for (int origem = 0; origem < caixas.length; origem++) {
+                CaixaMensagens caixa = caixas[origem][indice];
+                for (int i = 0; i < caixa.tamanho; i++) {
+                    calendario.agendar(caixa.tempos[i], Evento.TIPO_CHEGADA, caixa.origens[i], caixa.destinos[i]);
+                }
+                caixa.tamanho = 0;
+            }
+        }
+        
+        /**
+         * Processa os eventos anteriores ao fim da janela
+         */
+        void processarJanela(double fim) {
+            while (calendario.proximoTempo() < fim) {
+                calendario.removerProximo();
+                tempoAtual = calendario.getTempo();
+                eventosProcessados++;
+                if (calendario.getTipo() == Evento.TIPO_CHEGADA) {
+                    processarChegada(calendario.getFilaOrigem(), calendario.getFilaDestino());
+                } else {
+                    processarSaida(calendario.getFilaOrigem(), calendario.getFilaDestino(),
+                                   calendario.getTempoCliente());
+                }
+            }
+        }
+        
+        private void processarChegada(int filaOrigem, int filaDestino) {
+            Fila fila = filas.get(filaDestino - 1);
+            if (fila.podeAceitarCliente()) {
+                fila.atualizarAte(tempoAtual);
+                fila.In();
+                if (fila.Status() <= fila.Servers()) {
+                    fila.registrarEspera(0.0);
+                    iniciarAtendimento(filaDestino, fila, tempoAtual);
+                } else {
+                    fila.aguardar(tempoAtual);
+                }
+            } else {
+                fila.Loss();
+            }
+            
+            if (filaOrigem == 0) {
+                double intervalo = fila.getChegada().amostrar(
+                      gerador, Escalonador.finalidade(filaDestino, Escalonador.FINALIDADE_CHEGADA));
+                calendario.agendar(tempoAtual + intervalo, Evento.TIPO_CHEGADA, 0, filaDestino);
+            }
+        }
+        
+        private void processarSaida(int filaOrigem, int proximaFila, double tempoChegada) {
+            Fila fila = filas.get(filaOrigem - 1);
+            fila.atualizarAte(tempoAtual);
+            fila.Out();
+            fila.registrarSaida(tempoAtual - tempoChegada);
+            
+            if (fila.Status() >= fila.Servers()) {
+                double chegadaProximo = fila.proximoAguardando();
+                fila.registrarEspera(tempoAtual - chegadaProximo);
+                iniciarAtendimento(filaOrigem, fila, chegadaProximo);
+            }
+            
+            // Chegadas em outras partições já foram enviadas no início do atendimento
+            if (proximaFila > 0 && particaoDaFila[proximaFila] == indice) {
+                calendario.agendar(tempoAtual, Evento.TIPO_CHEGADA, filaOrigem, proximaFila);
+            }
+        }
+        
+        /**
+         * Sorteia o atendimento e o destino do cliente; a chegada numa fila de
+         * outra partição é enviada já agora, com pelo menos o lookahead de antecedência
+         */
+        private void iniciarAtendimento(int numeroFila, Fila fila, double tempoChegada) {
+            double atendimento = fila.getAtendimento().amostrar(
+                  gerador, Escalonador.finalidade(numeroFila, Escalonador.FINALIDADE_ATENDIMENTO));
+            fila.registrarAtendimento(atendimento);
+            int proximaFila = roteamento.destino(numeroFila, gerador.nextRandom(
+                  Escalonador.finalidade(numeroFila, Escalonador.FINALIDADE_ROTEAMENTO)));
+            double saida = tempoAtual + atendimento;
+            calendario.agendar(saida, Evento.TIPO_SAIDA, numeroFila, proximaFila, tempoChegada);
+            
+            if (proximaFila > 0 && particaoDaFila[proximaFila] != indice) {
+                caixas[indice][particaoDaFila[proximaFila]].enviar(saida, numeroFila, proximaFila);
+                mensagensEnviadas++;
+            }
+        }
+    }
+    
+    /**
+     * Rede sintética carregada para medir o ganho da simulação paralela: todas
+     * as filas recebem chegadas externas (uniforme 0,5 a 1,5) e encaminham
+     * clientes para filas sorteadas, como em ConfiguracaoRede.gerarSintetica
+     * @param numFilas Número de filas
+     * @return Configuração gerada
+     */
+    public static ConfiguracaoRede redeCarregada(int numFilas) {
+        ConfiguracaoRede config = ConfiguracaoRede.gerarSintetica(numFilas, 42L, numFilas);
+        Distribuicao chegada = Distribuicao.uniforme(0.5, 1.5);
+        for (int i = 0; i < numFilas; i++) {
+            config = config.comFila(i, config.getCapacidade(i), config.getServidores(i), chegada,
+                                    config.getAtendimento(i));
+        }
+        return config;
+    }
+    
+    /**
+     * Método principal: executa a rede com o Escalonador sequencial e com a
+     * simulação paralela para cada número de partições, e mostra o ganho
+     * @param args [arquivo_entrada] [--filas N] [--aleatorios N] [--particoes 1,2,4]
+     *             [--semente S] [--gerador mrg32k3a|xoshiro|lcg]
+     */
+    public static void main(String[] args) {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args);
+        ConfiguracaoRede config = opcoes.numPosicionais() > 0
+            ? ConfiguracaoRede.carregarOuSair(opcoes.posicional(0))
+            : redeCarregada(opcoes.getInt("filas", 1000));
+        int numAleatorios = opcoes.getInt("aleatorios", 10_000_000);
+        FluxoAleatorio fluxo = FluxoAleatorio.criar(opcoes.get("gerador", "mrg32k3a"),
+                                                    opcoes.getLong("semente", Simulador.SEMENTE_PADRAO));
+        
+        // Sequencial, com os mesmos fluxos por finalidade
+        GeradorAleatorio gerador = new GeradorAleatorio(fluxo.reiniciado());
+        gerador.separarFinalidades(Escalonador.numFinalidades(config.getNumFilas()));
+        Escalonador sequencial = new Escalonador(config.criarFilas(), config.getTabelaRoteamento(), gerador,
+                                                 new CalendarioHeap());
+        long inicio = System.nanoTime();
+        sequencial.inicializar(2.0);
+        double tempoSimulado = sequencial.executar(numAleatorios);
+        double segundosSequencial = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf(Locale.ROOT, "Network: %d queues, %d random numbers\n", config.getNumFilas(), numAleatorios);
+        System.out.printf(Locale.ROOT, "%-12s %8s %12s %10s %10s %10s %12s %8s\n",
+                          "engine", "time(s)", "events", "Mev/s", "sim.time", "windows", "messages", "speedup");
+        System.out.printf(Locale.ROOT, "%-12s %8.3f %12d %10.2f %10.1f %10s %12s %8s\n", "sequential",
+                          segundosSequencial, sequencial.getEventosProcessados(),
+                          sequencial.getEventosProcessados() / segundosSequencial / 1e6, tempoSimulado, "-", "-", "1.00");
+        
+        for (String texto : opcoes.get("particoes", "1,2,4,8").split(",")) {
+            int numParticoes = Math.min(Integer.parseInt(texto.trim()), config.getNumFilas());
+            EscalonadorParalelo paralelo = new EscalonadorParalelo(config, fluxo, numParticoes);
+            inicio = System.nanoTime();
+            ResultadoSimulacao resultado = paralelo.executar(2.0, numAleatorios);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf(Locale.ROOT, "%-12s %8.3f %12d %10.2f %10.1f %10d %12d %8.2f\n", "parallel/" + numParticoes,
+                              segundos, paralelo.getEventosProcessados(), paralelo.getEventosProcessados() / segundos / 1e6,
+                              resultado.getTempoSimulacao(),
+                              paralelo.getJanelas(), paralelo.getMensagens(), segundosSequencial / segundos);
+        }
+    }
+}
\ No newline at end of file
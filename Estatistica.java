@@ -0,0 +1,110 @@
+/**
+ * Classe Estatistica - funções estatísticas usadas na análise de saída:
+ * média, variância amostral e intervalos de confiança pela t de Student.
+ */
+public final class Estatistica {
+    
+    private Estatistica() {
+    }
+    
+    /**
+     * @return Média aritmética dos valores
+     */
+    public static double media(double[] valores) {
+        double soma = 0.0;
+        for (double valor : valores) {
+            soma += valor;
+        }
+        return soma / valores.length;
+    }
+    
+    /**
+     * @return Variância amostral (divisor n-1), ou 0 para menos de dois valores
+     */
+    public static double variancia(double[] valores) {
+        int n = valores.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        double media = media(valores);
+        double soma = 0.0;
+        for (double valor : valores) {
+            double desvio = valor - media;
+            soma += desvio * desvio;
+        }
+        return soma / (n - 1);
+    }
+    
+    /**
+     * Meia-largura do intervalo de confiança para a média
+     * @param valores Observações independentes
+     * @param confianca Nível de confiança (ex.: 0.95)
+     * @return Meia-largura do intervalo, ou 0 para menos de dois valores
+     */
+    public static double meiaLargura(double[] valores, double confianca) {
+        int n = valores.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        double t = quantilT(1.0 - (1.0 - confianca) / 2.0, n - 1);
+        return t * Math.sqrt(variancia(valores) / n);
+    }
+    
+    /**
+     * Quantil da distribuição t de Student. Exato para 1 e 2 graus de
+     * liberdade; expansão de Cornish-Fisher em torno da normal nos demais.
+     * @param p Probabilidade acumulada (0-1)
+     * @param grausLiberdade Graus de liberdade
+     * @return Quantil t
+     */
+    public static double quantilT(double p, int grausLiberdade) {
+        if (grausLiberdade == 1) {
+            return Math.tan(Math.PI * (p - 0.5));
+        }
+        if (grausLiberdade == 2) {
+            return (2.0 * p - 1.0) / Math.sqrt(2.0 * p * (1.0 - p));
+        }
+        
+        double z = quantilNormal(p);
+        double z2 = z * z;
+        double v = grausLiberdade;
+        double g1 = (z2 + 1.0) * z / 4.0;
+        double g2 = ((5.0 * z2 + 16.0) * z2 + 3.0) * z / 96.0;
+        double g3 = (((3.0 * z2 + 19.0) * z2 + 17.0) * z2 - 15.0) * z / 384.0;
+        double g4 = ((((79.0 * z2 + 776.0) * z2 + 1482.0) * z2 - 1920.0) * z2 - 945.0) * z / 92160.0;
+        return z + g1 / v + g2 / (v * v) + g3 / (v * v * v) + g4 / (v * v * v * v);
+    }
+    
+    /**
+     * Quantil da normal padrão (aproximação racional de Acklam,
+     * erro relativo inferior a 1.2e-9)
+     * @param p Probabilidade acumulada (0-1)
+     * @return Quantil z
+     */
+    public static double quantilNormal(double p) {
+        final double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                             1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+        final double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                             6.680131188771972e+01, -1.328068155288572e+01 };
+        final double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                             -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+        final double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                             3.754408661907416e+00 };
+        final double pBaixo = 0.02425;
+        
+        if (p < pBaixo) {
+            double q = Math.sqrt(-2.0 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                   ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1.0);
+        }
+        if (p > 1.0 - pBaixo) {
+            double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                    ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1.0);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+               (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Classe EstatisticaOnline - média e variância acumuladas em uma passada
+ * (algoritmo de Welford), com mínimo, máximo e, opcionalmente, quantis
+ * estimados por um HistogramaLog. A memória não cresce com o número de
+ * observações.
+ */
+public class EstatisticaOnline {
+    private final HistogramaLog histograma; // Nulo quando não há quantis
+    private long n;
+    private double media;
+    private double m2;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+    
+    /**
+     * Estatística com quantis (valores não negativos, como tempos)
+     */
+    public EstatisticaOnline() {
+        this(true);
+    }
+    
+    /**
+     * @param comQuantis true para acompanhar quantis (exige valores não negativos)
+     */
+    public EstatisticaOnline(boolean comQuantis) {
+        this.histograma = comQuantis ? new HistogramaLog() : null;
+    }
+    
+    private EstatisticaOnline(EstatisticaOnline outra) {
+        this.histograma = outra.histograma != null ? outra.histograma.copiar() : null;
+        this.n = outra.n;
+        this.media = outra.media;
+        this.m2 = outra.m2;
+        this.minimo = outra.minimo;
+        this.maximo = outra.maximo;
+    }
+    
+    /**
+     * @return Cópia independente do estado atual
+     */
+    public EstatisticaOnline copiar() {
+        return new EstatisticaOnline(this);
+    }
+    
+    public void adicionar(double x) {
+        n++;
+        double delta = x - media;
+        media += delta / n;
+        m2 += delta * (x - media);
+        if (x < minimo) {
+            minimo = x;
+        }
+        if (x > maximo) {
+            maximo = x;
+        }
+        if (histograma != null) {
+            histograma.adicionar(x);
+        }
+    }
+    
+    /**
+     * Descarta todas as observações
+     */
+    public void reiniciar() {
+        n = 0;
+        media = 0.0;
+        m2 = 0.0;
+        minimo = Double.POSITIVE_INFINITY;
+        maximo = Double.NEGATIVE_INFINITY;
+        if (histograma != null) {
+            histograma.reiniciar();
+        }
+    }
+    
+    /**
+     * Grava o estado para um checkpoint
+     * @param saida Destino do checkpoint
+     */
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeLong(n);
+        saida.writeDouble(media);
+        saida.writeDouble(m2);
+        saida.writeDouble(minimo);
+        saida.writeDouble(maximo);
+        saida.writeBoolean(histograma != null);
+        if (histograma != null) {
+            histograma.salvar(saida);
+        }
+    }
+    
+    /**
+     * Substitui o estado pelo gravado por salvar() em uma estatística do mesmo tipo
+     * @param entrada Origem do checkpoint
+     */
+    public void restaurar(DataInputStream entrada) throws IOException {
+        n = entrada.readLong();
+        media = entrada.readDouble();
+        m2 = entrada.readDouble();
+        minimo = entrada.readDouble();
+        maximo = entrada.readDouble();
+        if (entrada.readBoolean() != (histograma != null)) {
+            throw new IOException("Checkpoint com estatística de outro tipo");
+        }
+        if (histograma != null) {
+            histograma.restaurar(entrada);
+        }
+    }
+    
+    /**
+     * Lê uma estatística gravada por salvar(), com ou sem quantis conforme foi gravada
+     * @param entrada Origem dos dados
+     * @return Nova estatística
+     */
+    public static EstatisticaOnline ler(DataInputStream entrada) throws IOException {
+        long n = entrada.readLong();
+        double media = entrada.readDouble();
+        double m2 = entrada.readDouble();
+        double minimo = entrada.readDouble();
+        double maximo = entrada.readDouble();
+        EstatisticaOnline estatistica = new EstatisticaOnline(entrada.readBoolean());
+        estatistica.n = n;
+        estatistica.media = media;
+        estatistica.m2 = m2;
+        estatistica.minimo = minimo;
+        estatistica.maximo = maximo;
+        if (estatistica.histograma != null) {
+            estatistica.histograma.restaurar(entrada);
+        }
+        return estatistica;
+    }
+    
+    public long getN() { return n; }
+    public double getMedia() { return n > 0 ? media : Double.NaN; }
+    public double getMinimo() { return n > 0 ? minimo : Double.NaN; }
+    public double getMaximo() { return n > 0 ? maximo : Double.NaN; }
+    
+    /**
+     * @return Variância amostral (n-1), ou 0 para menos de duas observações
+     */
+    public double getVariancia() {
+        return n > 1 ? m2 / (n - 1) : 0.0;
+    }
+    
+    public double getDesvioPadrao() {
+        return Math.sqrt(getVariancia());
+    }
+    
+    /**
+     * @param p Probabilidade do quantil, em [0, 1]
+     * @return Estimativa do quantil (erro relativo de até cerca de 1,6%)
+     */
+    public double getQuantil(double p) {
+        if (histograma == null) {
+            throw new IllegalStateException("Estatística criada sem quantis");
+        }
+        return histograma.getQuantil(p);
+    }
+}
\ No newline at end of file
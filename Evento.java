@@ -3,18 +3,36 @@ public class Evento implements Comparable<Evento> {
     public static final String SAIDA = "SAIDA";
     public static final String PASSAGEM = "PASSAGEM";
     
+    // Códigos inteiros dos tipos, usados pelos calendários de eventos
+    public static final int TIPO_CHEGADA = 0;
+    public static final int TIPO_SAIDA = 1;
+    public static final int TIPO_PASSAGEM = 2;
+    
     private final double tempo;
     private final String tipo;
     private final int servidor;
     private final int filaOrigem;
     private final int filaDestino;
+    private final long sequencia;
+    private final double tempoCliente;
     
     public Evento(double tempo, String tipo, int servidor, int filaOrigem, int filaDestino) {
+        this(tempo, tipo, servidor, filaOrigem, filaDestino, 0L);
+    }
+    
+    public Evento(double tempo, String tipo, int servidor, int filaOrigem, int filaDestino, long sequencia) {
+        this(tempo, tipo, servidor, filaOrigem, filaDestino, sequencia, 0.0);
+    }
+    
+    public Evento(double tempo, String tipo, int servidor, int filaOrigem, int filaDestino, long sequencia,
+                  double tempoCliente) {
         this.tempo = tempo;
         this.tipo = tipo;
         this.servidor = servidor;
         this.filaOrigem = filaOrigem;
         this.filaDestino = filaDestino;
+        this.sequencia = sequencia;
+        this.tempoCliente = tempoCliente;
     }
     
     public double getTempo() { return tempo; }
@@ -22,10 +40,43 @@ public class Evento implements Comparable<Evento> {
     public int getServidor() { return servidor; }
     public int getFilaOrigem() { return filaOrigem; }
     public int getFilaDestino() { return filaDestino; }
+    public long getSequencia() { return sequencia; }
+    public double getTempoCliente() { return tempoCliente; }
+    
+    /**
+     * Converte o código inteiro do tipo para o nome do evento
+     * @param codigo Código do tipo (TIPO_CHEGADA, TIPO_SAIDA ou TIPO_PASSAGEM)
+     * @return Nome do tipo
+     */
+    public static String nomeTipo(int codigo) {
+        switch (codigo) {
+            case TIPO_CHEGADA: return CHEGADA;
+            case TIPO_SAIDA: return SAIDA;
+            default: return PASSAGEM;
+        }
+    }
+    
+    /**
+     * Converte o nome do tipo para o código inteiro
+     * @param nome Nome do tipo
+     * @return Código do tipo
+     */
+    public static int codigoTipo(String nome) {
+        switch (nome) {
+            case CHEGADA: return TIPO_CHEGADA;
+            case SAIDA: return TIPO_SAIDA;
+            default: return TIPO_PASSAGEM;
+        }
+    }
     
     @Override
     public int compareTo(Evento outro) {
-        return Double.compare(this.tempo, outro.tempo);
+        int comparacao = Double.compare(this.tempo, outro.tempo);
+        if (comparacao != 0) {
+            return comparacao;
+        }
+        // Desempate determinístico pela ordem de agendamento
+        return Long.compare(this.sequencia, outro.sequencia);
     }
     
     @Override
@@ -1,27 +1,61 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
 public class Fila {
+    // Capacidade de uma fila sem limite de admissão (G/G/m)
+    public static final int CAPACIDADE_INFINITA = Integer.MAX_VALUE;
+    
+    // Até esta capacidade o histograma de estados é alocado inteiro; acima
+    // dela (e em filas infinitas) cresce conforme a população observada
+    static final int LIMITE_HISTOGRAMA_FIXO = 4096;
+    private static final int TAMANHO_INICIAL_HISTOGRAMA = 64;
+    
     private final int capacidade;
     private final int numServidores;
-    private final double minChegada;
-    private final double maxChegada;
-    private final double minAtendimento;
-    private final double maxAtendimento;
+    private final Distribuicao chegada;
+    private final Distribuicao atendimento;
     
     private int clientes;
     private int perdidos;
+    private long chegadas; // Clientes que chegaram, aceitos ou perdidos
     private double[] temposEstado;
+    private double tempoUltimaMudanca;
+    private double tempoOcupado;   // Tempo com ao menos um cliente (soma dos estados > 0)
+    private double areaPopulacao;  // Integral da população no tempo
+    
+    // Instantes de chegada dos clientes à espera de um servidor (fila circular, FIFO)
+    private double[] temposChegada;
+    private int inicioEspera;
+    private int numEsperando;
+    
+    private long atendidos;
+    private long numAtendimentos;    // Atendimentos iniciados
+    private double somaAtendimentos; // Soma dos tempos de atendimento sorteados
+    private final EstatisticaOnline tempoEspera = new EstatisticaOnline();
+    private final EstatisticaOnline tempoResposta = new EstatisticaOnline();
     
     public Fila(int capacidade, int numServidores, 
                double minChegada, double maxChegada,
                double minAtendimento, double maxAtendimento) {
+        this(capacidade, numServidores, Distribuicao.uniforme(minChegada, maxChegada),
+             Distribuicao.uniforme(minAtendimento, maxAtendimento));
+    }
+    
+    /**
+     * @param chegada Distribuição dos intervalos entre chegadas externas
+     * @param atendimento Distribuição dos tempos de atendimento
+     */
+    public Fila(int capacidade, int numServidores, Distribuicao chegada, Distribuicao atendimento) {
         this.capacidade = capacidade;
         this.numServidores = numServidores;
-        this.minChegada = minChegada;
-        this.maxChegada = maxChegada;
-        this.minAtendimento = minAtendimento;
-        this.maxAtendimento = maxAtendimento;
+        this.chegada = chegada;
+        this.atendimento = atendimento;
         this.clientes = 0;
         this.perdidos = 0;
-        this.temposEstado = new double[capacidade + 1];
+        this.temposEstado = new double[capacidade <= LIMITE_HISTOGRAMA_FIXO ? capacidade + 1 : TAMANHO_INICIAL_HISTOGRAMA];
+        this.temposChegada = new double[Math.max(1, Math.min(capacidade - numServidores, 64))];
     }
     
     // Métodos básicos de manipulação
@@ -31,12 +65,17 @@ public class Fila {
     
     public int Loss() { 
         perdidos++; 
+        chegadas++;
         return perdidos;
     }
     
     public void In() {
         if (clientes < capacidade) {
+            if (clientes == temposEstado.length - 1) {
+                crescerHistograma(); // Só ocorre em filas de capacidade grande ou infinita
+            }
             clientes++;
+            chegadas++;
         } else {
             Loss();
         }
@@ -48,6 +87,14 @@ public class Fila {
         }
     }
     
+    /**
+     * Dobra o histograma de estados, sem ultrapassar capacidade + 1 posições
+     */
+    private void crescerHistograma() {
+        long tamanho = Math.min(2L * temposEstado.length, (long) capacidade + 1);
+        temposEstado = Arrays.copyOf(temposEstado, (int) Math.min(tamanho, Integer.MAX_VALUE - 8));
+    }
+    
     // Métodos para a simulação
     public boolean podeAceitarCliente() {
         return clientes < capacidade;
@@ -61,18 +108,228 @@ public class Fila {
         return perdidos;
     }
     
+    public long getChegadas() {
+        return chegadas;
+    }
+    
+    /**
+     * Acúmulo imediato do algoritmo original, que somava o intervalo de cada
+     * evento em todas as filas. A simulação usa atualizarAte(); este método
+     * é a referência com que ConferenciaSimulacao confere as tabelas.
+     * @param tempoDecorrido Intervalo desde o evento anterior
+     */
     public void atualizarTempoEstado(double tempoDecorrido) {
         if (clientes >= 0 && clientes < temposEstado.length) {
             temposEstado[clientes] += tempoDecorrido;
         }
     }
     
+    /**
+     * Acumula no estado atual o tempo decorrido desde a última mudança de
+     * população. Deve ser chamado antes de In()/Out() e ao final da simulação,
+     * de modo que só as filas que mudam de estado são tocadas a cada evento.
+     * @param tempo Tempo atual da simulação
+     */
+    public void atualizarAte(double tempo) {
+        double decorrido = tempo - tempoUltimaMudanca;
+        temposEstado[clientes] += decorrido;
+        if (clientes > 0) {
+            tempoOcupado += decorrido;
+            areaPopulacao += clientes * decorrido;
+        }
+        tempoUltimaMudanca = tempo;
+    }
+    
+    /**
+     * @param tempo Tempo atual da simulação (não anterior à última mudança de população)
+     * @return Tempo acumulado com ao menos um cliente até o tempo dado, sem fechar o intervalo
+     */
+    public double getTempoOcupado(double tempo) {
+        return clientes > 0 ? tempoOcupado + (tempo - tempoUltimaMudanca) : tempoOcupado;
+    }
+    
+    /**
+     * @param tempo Tempo atual da simulação (não anterior à última mudança de população)
+     * @return Integral da população até o tempo dado, sem fechar o intervalo
+     */
+    public double getAreaPopulacao(double tempo) {
+        return areaPopulacao + clientes * (tempo - tempoUltimaMudanca);
+    }
+    
+    /**
+     * Guarda o instante de chegada de um cliente que ficou à espera de servidor
+     * @param tempoChegada Instante da chegada à fila
+     */
+    public void aguardar(double tempoChegada) {
+        if (numEsperando == temposChegada.length) {
+            double[] maior = new double[temposChegada.length * 2];
+            for (int i = 0; i < numEsperando; i++) {
+                maior[i] = temposChegada[(inicioEspera + i) % temposChegada.length];
+            }
+            temposChegada = maior;
+            inicioEspera = 0;
+        }
+        temposChegada[(inicioEspera + numEsperando) % temposChegada.length] = tempoChegada;
+        numEsperando++;
+    }
+    
+    /**
+     * Retira o cliente que espera há mais tempo (ordem de chegada)
+     * @return Instante de chegada dele à fila
+     */
+    public double proximoAguardando() {
+        double tempoChegada = temposChegada[inicioEspera];
+        inicioEspera = (inicioEspera + 1) % temposChegada.length;
+        numEsperando--;
+        return tempoChegada;
+    }
+    
+    /**
+     * Registra o tempo que um cliente esperou até começar o atendimento
+     */
+    public void registrarEspera(double espera) {
+        tempoEspera.adicionar(espera);
+    }
+    
+    /**
+     * Registra a saída de um cliente atendido
+     * @param resposta Tempo total na fila (espera mais atendimento)
+     */
+    public void registrarSaida(double resposta) {
+        atendidos++;
+        tempoResposta.adicionar(resposta);
+    }
+    
+    /**
+     * Registra o tempo de atendimento sorteado para um cliente que começa a ser atendido
+     */
+    public void registrarAtendimento(double tempo) {
+        numAtendimentos++;
+        somaAtendimentos += tempo;
+    }
+    
+    /**
+     * @return Média dos tempos de atendimento sorteados, ou NaN se nenhum atendimento começou
+     */
+    public double getMediaAtendimento() {
+        return numAtendimentos > 0 ? somaAtendimentos / numAtendimentos : Double.NaN;
+    }
+    
+    public long getAtendidos() { return atendidos; }
+    public EstatisticaOnline getTempoEspera() { return tempoEspera; }
+    public EstatisticaOnline getTempoResposta() { return tempoResposta; }
+    
+    /**
+     * Descarta as estatísticas acumuladas (tempos de estado, perdas e tempos
+     * de espera e resposta), mantendo os clientes presentes. Usado ao fim do aquecimento.
+     * @param tempo Tempo a partir do qual as estatísticas voltam a ser coletadas
+     */
+    public void reiniciarEstatisticas(double tempo) {
+        Arrays.fill(temposEstado, 0.0);
+        tempoOcupado = 0.0;
+        areaPopulacao = 0.0;
+        perdidos = 0;
+        chegadas = 0;
+        atendidos = 0;
+        numAtendimentos = 0;
+        somaAtendimentos = 0.0;
+        tempoEspera.reiniciar();
+        tempoResposta.reiniciar();
+        tempoUltimaMudanca = tempo;
+    }
+    
+    /**
+     * Tempo acumulado em cada estado (número de clientes). Em filas de
+     * capacidade pequena o array cobre todos os estados de 0 à capacidade; nas
+     * demais, vai até o maior estado com tempo acumulado.
+     */
     public double[] getTemposEstado() {
-        return temposEstado;
+        if (temposEstado.length == (long) capacidade + 1) {
+            return temposEstado;
+        }
+        int numEstados = temposEstado.length;
+        while (numEstados > 1 && temposEstado[numEstados - 1] == 0.0) {
+            numEstados--;
+        }
+        return Arrays.copyOf(temposEstado, numEstados);
+    }
+    
+    /**
+     * Grava a população, as estatísticas e os clientes à espera para um checkpoint
+     * @param saida Destino do checkpoint
+     */
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(capacidade);
+        saida.writeInt(numServidores);
+        saida.writeInt(clientes);
+        saida.writeInt(perdidos);
+        saida.writeLong(chegadas);
+        saida.writeLong(atendidos);
+        saida.writeLong(numAtendimentos);
+        saida.writeDouble(somaAtendimentos);
+        saida.writeDouble(tempoUltimaMudanca);
+        saida.writeInt(temposEstado.length);
+        for (double tempo : temposEstado) {
+            saida.writeDouble(tempo);
+        }
+        saida.writeInt(numEsperando);
+        for (int i = 0; i < numEsperando; i++) {
+            saida.writeDouble(temposChegada[(inicioEspera + i) % temposChegada.length]);
+        }
+        tempoEspera.salvar(saida);
+        tempoResposta.salvar(saida);
+    }
+    
+    /**
+     * Restaura o estado gravado por salvar() em uma fila de mesma capacidade
+     * e mesmo número de servidores
+     * @param entrada Origem do checkpoint
+     */
+    public void restaurar(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != capacidade || entrada.readInt() != numServidores) {
+            throw new IOException("Checkpoint gravado com outra configuração de fila");
+        }
+        clientes = entrada.readInt();
+        perdidos = entrada.readInt();
+        chegadas = entrada.readLong();
+        atendidos = entrada.readLong();
+        numAtendimentos = entrada.readLong();
+        somaAtendimentos = entrada.readDouble();
+        tempoUltimaMudanca = entrada.readDouble();
+        temposEstado = new double[entrada.readInt()];
+        tempoOcupado = 0.0;
+        areaPopulacao = 0.0;
+        for (int i = 0; i < temposEstado.length; i++) {
+            temposEstado[i] = entrada.readDouble();
+            // Os acumuladores não são gravados: são derivados da tabela
+            if (i > 0) {
+                tempoOcupado += temposEstado[i];
+                areaPopulacao += i * temposEstado[i];
+            }
+        }
+        numEsperando = entrada.readInt();
+        inicioEspera = 0;
+        if (numEsperando > temposChegada.length) {
+            temposChegada = new double[Integer.highestOneBit(numEsperando) * 2];
+        }
+        for (int i = 0; i < numEsperando; i++) {
+            temposChegada[i] = entrada.readDouble();
+        }
+        tempoEspera.restaurar(entrada);
+        tempoResposta.restaurar(entrada);
+    }
+    
+    /**
+     * @return true se a fila não tem limite de admissão
+     */
+    public boolean isCapacidadeInfinita() {
+        return capacidade == CAPACIDADE_INFINITA;
     }
     
-    public double getMinChegada() { return minChegada; }
-    public double getMaxChegada() { return maxChegada; }
-    public double getMinAtendimento() { return minAtendimento; }
-    public double getMaxAtendimento() { return maxAtendimento; }
+    public Distribuicao getChegada() { return chegada; }
+    public Distribuicao getAtendimento() { return atendimento; }
+    public double getMinChegada() { return chegada.getMinimo(); }
+    public double getMaxChegada() { return chegada.getMaximo(); }
+    public double getMinAtendimento() { return atendimento.getMinimo(); }
+    public double getMaxAtendimento() { return atendimento.getMaximo(); }
 }
\ No newline at end of file
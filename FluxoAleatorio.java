@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+/**
+ * Interface FluxoAleatorio - fonte de números uniformes em [0, 1) usada pelo
+ * GeradorAleatorio. Cada implementação sabe criar subfluxos independentes,
+ * o que permite dar a cada replicação (ou a cada finalidade dentro de uma
+ * replicação) a sua própria sequência de números.
+ */
+public interface FluxoAleatorio {
+    
+    /**
+     * @return Próximo número uniforme em [0, 1)
+     */
+    double proximo();
+    
+    /**
+     * Preenche um trecho do array com os próximos números da sequência,
+     * na mesma ordem em que proximo() os devolveria
+     * @param destino Array de destino
+     * @param inicio Primeira posição (inclusive)
+     * @param fim Última posição (exclusive)
+     */
+    default void preencher(double[] destino, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            destino[i] = proximo();
+        }
+    }
+    
+    /**
+     * Cria o subfluxo de índice indicado. Subfluxos de índices diferentes
+     * de um mesmo fluxo não se sobrepõem na prática, e o resultado depende
+     * apenas da semente original e do índice (não do estado atual).
+     * @param indice Índice do subfluxo (0, 1, 2...)
+     * @return Novo fluxo independente
+     */
+    FluxoAleatorio subfluxo(int indice);
+    
+    /**
+     * Cria o fluxo de uma finalidade (chegadas, atendimento, roteamento...)
+     * dentro deste fluxo. É um segundo nível de subdivisão: os fluxos de
+     * finalidade de subfluxos diferentes não se sobrepõem entre si, o que
+     * permite usar números aleatórios comuns em replicações independentes.
+     * @param finalidade Índice da finalidade (0, 1, 2...)
+     * @return Novo fluxo independente
+     */
+    FluxoAleatorio fluxoFinalidade(int finalidade);
+    
+    /**
+     * Cria um fluxo novo na posição inicial deste (mesma semente), sem
+     * alterar o estado atual. Permite repetir exatamente a mesma sequência.
+     * @return Novo fluxo no início da sequência
+     */
+    FluxoAleatorio reiniciado();
+    
+    /**
+     * @return Cópia do estado atual, usada nos checkpoints
+     */
+    long[] getEstado();
+    
+    /**
+     * Restaura um estado obtido por getEstado() de um fluxo do mesmo tipo
+     * @param estado Estado gravado
+     */
+    void setEstado(long[] estado);
+    
+    /**
+     * Identifica a sequência que o fluxo vai produzir (tipo, semente e posição
+     * atual), para a chave do cache de resultados
+     * @return Descrição exata do fluxo
+     */
+    default String identidade() {
+        return getClass().getSimpleName() + Arrays.toString(reiniciado().getEstado())
+               + "@" + Arrays.toString(getEstado());
+    }
+    
+    /**
+     * Cria um fluxo pelo nome usado na linha de comando
+     * @param nome "lcg" (gerador congruente linear da disciplina),
+     *             "mrg32k3a" ou "xoshiro"
+     * @param semente Semente do fluxo
+     * @return Novo fluxo
+     */
+    static FluxoAleatorio criar(String nome, long semente) {
+        switch (nome) {
+            case "lcg":
+                return new FluxoLCG(semente);
+            case "mrg32k3a":
+                return new FluxoMRG32k3a(semente);
+            case "xoshiro":
+                return new FluxoXoshiro256(semente);
+            default:
+                throw new IllegalArgumentException("Gerador de números aleatórios desconhecido: " + nome);
+        }
+    }
+    
+    /**
+     * Função de mistura do SplitMix64, usada para derivar sementes
+     * @param z Valor de entrada
+     * @return Valor misturado (64 bits)
+     */
+    static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
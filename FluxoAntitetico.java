@@ -0,0 +1,70 @@
+/**
+ * Classe FluxoAntitetico - devolve o complemento 1 - U de cada número de
+ * outro fluxo. Uma replicação com este fluxo e outra com o fluxo original
+ * formam um par antitético: onde uma sorteia tempos curtos, a outra sorteia
+ * tempos longos, e a média do par tem variância menor que a de duas
+ * replicações independentes quando a resposta é monótona nos sorteios.
+ *
+ * O complemento de 0 seria 1, fora de [0, 1); nesse caso devolve o maior
+ * double abaixo de 1.
+ */
+public class FluxoAntitetico implements FluxoAleatorio {
+    private static final double MAXIMO = Math.nextDown(1.0);
+    
+    private final FluxoAleatorio base;
+    
+    /**
+     * @param base Fluxo cujos números são complementados
+     */
+    public FluxoAntitetico(FluxoAleatorio base) {
+        this.base = base;
+    }
+    
+    private static double complementar(double u) {
+        double v = 1.0 - u;
+        return v < 1.0 ? v : MAXIMO;
+    }
+    
+    @Override
+    public double proximo() {
+        return complementar(base.proximo());
+    }
+    
+    @Override
+    public void preencher(double[] destino, int inicio, int fim) {
+        base.preencher(destino, inicio, fim);
+        for (int i = inicio; i < fim; i++) {
+            destino[i] = complementar(destino[i]);
+        }
+    }
+    
+    @Override
+    public FluxoAleatorio subfluxo(int indice) {
+        return new FluxoAntitetico(base.subfluxo(indice));
+    }
+    
+    @Override
+    public FluxoAleatorio fluxoFinalidade(int finalidade) {
+        return new FluxoAntitetico(base.fluxoFinalidade(finalidade));
+    }
+    
+    @Override
+    public FluxoAleatorio reiniciado() {
+        return new FluxoAntitetico(base.reiniciado());
+    }
+    
+    @Override
+    public String identidade() {
+        return "FluxoAntitetico(" + base.identidade() + ")";
+    }
+    
+    @Override
+    public long[] getEstado() {
+        return base.getEstado();
+    }
+    
+    @Override
+    public void setEstado(long[] estado) {
+        base.setEstado(estado);
+    }
+}
\ No newline at end of file
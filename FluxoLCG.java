@@ -0,0 +1,97 @@
+/**
+ * Classe FluxoLCG - gerador congruente linear da disciplina
+ * (a = 1664525, c = 1013904223, M = 2^31). Mantido para reproduzir os
+ * resultados de referência; o período de 2^31 é curto para execuções longas.
+ */
+public class FluxoLCG implements FluxoAleatorio {
+    private static final long M = 1L << 31;
+    private static final long MASCARA = M - 1;
+    private static final double INVERSO_M = 1.0 / M;
+    private static final long a = 1664525;
+    private static final long c = 1013904223;
+    
+    // Salto de 4 passos (x -> A4 * x + C4), usado para gerar 4 posições independentes por volta
+    private static final long A4 = (a * a % M) * (a * a % M) % M;
+    private static final long C4 = c * ((a * a % M) * a % M + a * a % M + a + 1) % M;
+    
+    private final long sementeInicial;
+    private long seed;
+    
+    public FluxoLCG(long seed) {
+        this.sementeInicial = seed;
+        this.seed = seed;
+    }
+    
+    @Override
+    public double proximo() {
+        seed = (a * seed + c) & MASCARA;
+        return seed * INVERSO_M;
+    }
+    
+    /**
+     * Preenche o trecho em quatro faixas intercaladas que avançam 4 passos por
+     * volta, quebrando a dependência entre iterações consecutivas; a sequência
+     * produzida é a mesma de chamadas sucessivas a proximo().
+     */
+    @Override
+    public void preencher(double[] destino, int inicio, int fim) {
+        long s = seed;
+        int i = inicio;
+        if (fim - inicio >= 4) {
+            long x0 = (a * s + c) & MASCARA;
+            long x1 = (a * x0 + c) & MASCARA;
+            long x2 = (a * x1 + c) & MASCARA;
+            long x3 = (a * x2 + c) & MASCARA;
+            for (; i + 4 <= fim; i += 4) {
+                destino[i] = x0 * INVERSO_M;
+                destino[i + 1] = x1 * INVERSO_M;
+                destino[i + 2] = x2 * INVERSO_M;
+                destino[i + 3] = x3 * INVERSO_M;
+                s = x3;
+                x0 = (A4 * x0 + C4) & MASCARA;
+                x1 = (A4 * x1 + C4) & MASCARA;
+                x2 = (A4 * x2 + C4) & MASCARA;
+                x3 = (A4 * x3 + C4) & MASCARA;
+            }
+        }
+        for (; i < fim; i++) {
+            s = (a * s + c) & MASCARA;
+            destino[i] = s * INVERSO_M;
+        }
+        seed = s;
+    }
+    
+    @Override
+    public FluxoAleatorio reiniciado() {
+        return new FluxoLCG(sementeInicial);
+    }
+    
+    @Override
+    public long[] getEstado() {
+        return new long[] { seed };
+    }
+    
+    @Override
+    public void setEstado(long[] estado) {
+        seed = estado[0];
+    }
+    
+    /**
+     * O LCG não tem salto eficiente entre subfluxos: cada subfluxo recebe uma
+     * semente derivada por mistura, sem garantia de não sobreposição.
+     */
+    @Override
+    public FluxoAleatorio subfluxo(int indice) {
+        long z = FluxoAleatorio.misturar(sementeInicial + (indice + 1) * 0x9E3779B97F4A7C15L);
+        return new FluxoLCG(z & MASCARA);
+    }
+    
+    /**
+     * Como em subfluxo(), a semente é derivada por mistura, com outra constante
+     */
+    @Override
+    public FluxoAleatorio fluxoFinalidade(int finalidade) {
+        long z = FluxoAleatorio.misturar(~sementeInicial + (finalidade + 1) * 0xD1B54A32D192ED03L);
+        return new FluxoLCG(z & MASCARA);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+/**
+ * Classe FluxoMRG32k3a - gerador recursivo múltiplo combinado de L'Ecuyer
+ * (1999), com período de aproximadamente 2^191.
+ *
+ * Os subfluxos são obtidos por salto de 2^127 posições, calculado com as
+ * matrizes de transição elevadas a 2^127 (como no pacote RngStreams), e
+ * portanto nunca se sobrepõem. Os fluxos de finalidade ficam a 2^76 posições
+ * um do outro, dentro do trecho de 2^127 do fluxo.
+ */
+public class FluxoMRG32k3a implements FluxoAleatorio {
+    private static final long m1 = 4294967087L;
+    private static final long m2 = 4294944443L;
+    private static final long a12 = 1403580L;
+    private static final long a13n = 810728L;
+    private static final long a21 = 527612L;
+    private static final long a23n = 1370589L;
+    private static final double NORMA = 2.328306549295727688e-10;
+    
+    // Matrizes de salto de 2^127 passos das duas componentes
+    private static final long[][] A1p127 = {
+        { 2427906178L, 3580155704L, 949770784L },
+        { 226153695L, 1230515664L, 3580155704L },
+        { 1988835001L, 986791581L, 1230515664L }
+    };
+    private static final long[][] A2p127 = {
+        { 1464411153L, 277697599L, 1610723613L },
+        { 32183930L, 1464411153L, 1022607788L },
+        { 2824425944L, 32183930L, 2093834863L }
+    };
+    
+    // Matrizes de salto de 2^76 passos (fluxos de finalidade)
+    private static final long[][] A1p76 = {
+        { 82758667L, 1871391091L, 4127413238L },
+        { 3672831523L, 69195019L, 1871391091L },
+        { 3672091415L, 3528743235L, 69195019L }
+    };
+    private static final long[][] A2p76 = {
+        { 1511326704L, 3759209742L, 1610795712L },
+        { 4292754251L, 1511326704L, 3889917532L },
+        { 3859662829L, 4292754251L, 3708466080L }
+    };
+    
+    private final long[] sementeInicial;
+    private long s10, s11, s12, s20, s21, s22;
+    
+    /**
+     * Construtor a partir de uma semente de 64 bits, espalhada pelos seis
+     * componentes do estado
+     * @param semente Semente
+     */
+    public FluxoMRG32k3a(long semente) {
+        this(derivarEstado(semente));
+    }
+    
+    /**
+     * Construtor a partir do estado completo
+     * @param estado s10, s11, s12 (em [0, m1), não todos nulos) e s20, s21, s22
+     *               (em [0, m2), não todos nulos)
+     */
+    public FluxoMRG32k3a(long[] estado) {
+        this.sementeInicial = estado.clone();
+        this.s10 = estado[0];
+        this.s11 = estado[1];
+        this.s12 = estado[2];
+        this.s20 = estado[3];
+        this.s21 = estado[4];
+        this.s22 = estado[5];
+    }
+    
+    private static long[] derivarEstado(long semente) {
+        long[] estado = new long[6];
+        long z = semente;
+        for (int i = 0; i < 6; i++) {
+            z += 0x9E3779B97F4A7C15L;
+            long m = i < 3 ? m1 : m2;
+            estado[i] = Long.remainderUnsigned(FluxoAleatorio.misturar(z), m - 1) + 1; // nunca nulo
+        }
+        return estado;
+    }
+    
+    @Override
+    public double proximo() {
+        // Componente 1
+        long p1 = (a12 * s11 - a13n * s10) % m1;
+        if (p1 < 0) {
+            p1 += m1;
+        }
+        s10 = s11;
+        s11 = s12;
+        s12 = p1;
+        
+        // Componente 2
+        long p2 = (a21 * s22 - a23n * s20) % m2;
+        if (p2 < 0) {
+            p2 += m2;
+        }
+        s20 = s21;
+        s21 = s22;
+        s22 = p2;
+        
+        // Combinação
+        return p1 > p2 ? (p1 - p2) * NORMA : (p1 - p2 + m1) * NORMA;
+    }
+    
+    @Override
+    public void preencher(double[] destino, int inicio, int fim) {
+        long x10 = s10, x11 = s11, x12 = s12, x20 = s20, x21 = s21, x22 = s22;
+        for (int i = inicio; i < fim; i++) {
+            long p1 = (a12 * x11 - a13n * x10) % m1;
+            if (p1 < 0) {
+                p1 += m1;
+            }
+            x10 = x11;
+            x11 = x12;
+            x12 = p1;
+            
+            long p2 = (a21 * x22 - a23n * x20) % m2;
+            if (p2 < 0) {
+                p2 += m2;
+            }
+            x20 = x21;
+            x21 = x22;
+            x22 = p2;
+            
+            destino[i] = p1 > p2 ? (p1 - p2) * NORMA : (p1 - p2 + m1) * NORMA;
+        }
+        s10 = x10;
+        s11 = x11;
+        s12 = x12;
+        s20 = x20;
+        s21 = x21;
+        s22 = x22;
+    }
+    
+    @Override
+    public FluxoAleatorio reiniciado() {
+        return new FluxoMRG32k3a(sementeInicial);
+    }
+    
+    @Override
+    public long[] getEstado() {
+        return new long[] { s10, s11, s12, s20, s21, s22 };
+    }
+    
+    @Override
+    public void setEstado(long[] estado) {
+        s10 = estado[0];
+        s11 = estado[1];
+        s12 = estado[2];
+        s20 = estado[3];
+        s21 = estado[4];
+        s22 = estado[5];
+    }
+    
+    @Override
+    public FluxoAleatorio subfluxo(int indice) {
+        return saltar(A1p127, A2p127, indice);
+    }
+    
+    @Override
+    public FluxoAleatorio fluxoFinalidade(int finalidade) {
+        return saltar(A1p76, A2p76, finalidade);
+    }
+    
+    /**
+     * Cria o fluxo que começa na semente inicial avançada pelo salto das matrizes, repetido n vezes
+     */
+    private FluxoAleatorio saltar(long[][] salto1Base, long[][] salto2Base, int n) {
+        long[] salto1 = potencia(salto1Base, n, m1);
+        long[] salto2 = potencia(salto2Base, n, m2);
+        long[] estado = new long[6];
+        for (int i = 0; i < 3; i++) {
+            estado[i] = somaProdutos(salto1, i, sementeInicial, 0, m1);
+            estado[i + 3] = somaProdutos(salto2, i, sementeInicial, 3, m2);
+        }
+        return new FluxoMRG32k3a(estado);
+    }
+    
+    /**
+     * Eleva a matriz de salto a uma potência (mod m) por quadrados sucessivos
+     * @return Matriz resultante em ordem de linhas (9 elementos)
+     */
+    private static long[] potencia(long[][] matriz, int expoente, long m) {
+        long[] resultado = { 1, 0, 0, 0, 1, 0, 0, 0, 1 };
+        long[] base = new long[9];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                base[3 * i + j] = matriz[i][j];
+            }
+        }
+        while (expoente > 0) {
+            if ((expoente & 1) != 0) {
+                resultado = multiplicar(resultado, base, m);
+            }
+            base = multiplicar(base, base, m);
+            expoente >>>= 1;
+        }
+        return resultado;
+    }
+    
+    private static long[] multiplicar(long[] a, long[] b, long m) {
+        long[] c = new long[9];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                long soma = 0;
+                for (int k = 0; k < 3; k++) {
+                    soma = (soma + multiplicarMod(a[3 * i + k], b[3 * k + j], m)) % m;
+                }
+                c[3 * i + j] = soma;
+            }
+        }
+        return c;
+    }
+    
+    private static long somaProdutos(long[] matriz, int linha, long[] vetor, int deslocamento, long m) {
+        long soma = 0;
+        for (int k = 0; k < 3; k++) {
+            soma = (soma + multiplicarMod(matriz[3 * linha + k], vetor[deslocamento + k], m)) % m;
+        }
+        return soma;
+    }
+    
+    /**
+     * (a * b) mod m para a, b menores que 2^32, sem estouro de 64 bits
+     */
+    private static long multiplicarMod(long a, long b, long m) {
+        long alto = (a * (b >>> 16)) % m;
+        return ((alto << 16) + a * (b & 0xFFFF)) % m;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/**
+ * Classe FluxoXoshiro256 - gerador xoshiro256++ (Blackman e Vigna), caminho
+ * rápido para execuções longas: período 2^256 - 1 e 53 bits por número.
+ *
+ * Como no SplittableRandom, o estado é semeado pelo SplitMix64, e cada
+ * subfluxo recebe uma semente derivada da semente original e do índice;
+ * com período 2^256 a chance de sobreposição é desprezível.
+ */
+public class FluxoXoshiro256 implements FluxoAleatorio {
+    private static final double ESCALA = 0x1.0p-53;
+    private static final long GAMA = 0x9E3779B97F4A7C15L;
+    
+    private final long sementeInicial;
+    private long s0, s1, s2, s3;
+    
+    public FluxoXoshiro256(long semente) {
+        this.sementeInicial = semente;
+        long z = semente;
+        this.s0 = FluxoAleatorio.misturar(z += GAMA);
+        this.s1 = FluxoAleatorio.misturar(z += GAMA);
+        this.s2 = FluxoAleatorio.misturar(z += GAMA);
+        this.s3 = FluxoAleatorio.misturar(z + GAMA);
+    }
+    
+    @Override
+    public double proximo() {
+        long resultado = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return (resultado >>> 11) * ESCALA;
+    }
+    
+    @Override
+    public void preencher(double[] destino, int inicio, int fim) {
+        long a = s0, b = s1, c = s2, d = s3;
+        for (int i = inicio; i < fim; i++) {
+            long resultado = Long.rotateLeft(a + d, 23) + a;
+            long t = b << 17;
+            c ^= a;
+            d ^= b;
+            b ^= c;
+            a ^= d;
+            c ^= t;
+            d = Long.rotateLeft(d, 45);
+            destino[i] = (resultado >>> 11) * ESCALA;
+        }
+        s0 = a;
+        s1 = b;
+        s2 = c;
+        s3 = d;
+    }
+    
+    @Override
+    public FluxoAleatorio reiniciado() {
+        return new FluxoXoshiro256(sementeInicial);
+    }
+    
+    @Override
+    public long[] getEstado() {
+        return new long[] { s0, s1, s2, s3 };
+    }
+    
+    @Override
+    public void setEstado(long[] estado) {
+        s0 = estado[0];
+        s1 = estado[1];
+        s2 = estado[2];
+        s3 = estado[3];
+    }
+    
+    @Override
+    public FluxoAleatorio subfluxo(int indice) {
+        return new FluxoXoshiro256(FluxoAleatorio.misturar(sementeInicial ^ ((indice + 1L) * GAMA)));
+    }
+    
+    @Override
+    public FluxoAleatorio fluxoFinalidade(int finalidade) {
+        return new FluxoXoshiro256(FluxoAleatorio.misturar(~sementeInicial ^ ((finalidade + 1L) * 0xD1B54A32D192ED03L)));
+    }
+}
\ No newline at end of file
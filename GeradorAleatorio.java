@@ -1,19 +1,95 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Classe GeradorAleatorio - fornece os números aleatórios da simulação a
+ * partir de um FluxoAleatorio e conta quantos foram consumidos, contagem que
+ * define o fim da execução. O construtor com semente usa o LCG da disciplina.
+ *
+ * No modo em blocos, os números são gerados em lotes por FluxoAleatorio.preencher
+ * e entregues a partir do buffer. A sequência e a contagem são as mesmas do
+ * modo sem buffer; apenas o estado interno do fluxo fica adiantado até o fim do bloco.
+ *
+ * Com fluxos por finalidade, nextRandom(finalidade) tira cada número do fluxo
+ * próprio da finalidade (FluxoAleatorio.fluxoFinalidade), criado no primeiro
+ * uso; a contagem continua única. Assim duas simulações de redes diferentes
+ * recebem as mesmas chegadas, atendimentos e sorteios de rota mesmo quando os
+ * eventos saem em outra ordem (números aleatórios comuns). Sem fluxos por
+ * finalidade, nextRandom(finalidade) é igual a nextRandom().
+ */
 public class GeradorAleatorio {
-    private static final long M = (long) Math.pow(2, 31);
-    private static final long a = 1664525;
-    private static final long c = 1013904223;
-    private long seed;
+    public static final int TAMANHO_BLOCO_PADRAO = 4096;
+    
+    private final FluxoAleatorio fluxo;
+    private final double[] bloco;
+    private int posicao;
     private int contador;
+    private FluxoAleatorio[] finalidades; // Nulo: um só fluxo para tudo
     
     public GeradorAleatorio(long seed) {
-        this.seed = seed;
+        this(new FluxoLCG(seed));
+    }
+    
+    public GeradorAleatorio(FluxoAleatorio fluxo) {
+        this(fluxo, 0);
+    }
+    
+    /**
+     * Construtor com modo em blocos
+     * @param fluxo Fonte dos números
+     * @param tamanhoBloco Quantidade de números gerados por lote (0 desativa o buffer)
+     */
+    public GeradorAleatorio(FluxoAleatorio fluxo, int tamanhoBloco) {
+        this.fluxo = fluxo;
+        this.bloco = tamanhoBloco > 0 ? new double[tamanhoBloco] : null;
+        this.posicao = tamanhoBloco;
         this.contador = 0;
     }
     
     public double nextRandom() {
-        seed = (a * seed + c) % M;
         contador++;
-        return (double) seed / M;
+        if (bloco == null) {
+            return fluxo.proximo();
+        }
+        if (posicao == bloco.length) {
+            fluxo.preencher(bloco, 0, bloco.length);
+            posicao = 0;
+        }
+        return bloco[posicao++];
+    }
+    
+    /**
+     * @param finalidade Índice da finalidade (de 0 a numFinalidades-1)
+     * @return Próximo número do fluxo da finalidade, ou do fluxo único
+     */
+    public double nextRandom(int finalidade) {
+        if (finalidades == null) {
+            return nextRandom();
+        }
+        contador++;
+        FluxoAleatorio fluxoFinalidade = finalidades[finalidade];
+        if (fluxoFinalidade == null) {
+            fluxoFinalidade = fluxo.fluxoFinalidade(finalidade);
+            finalidades[finalidade] = fluxoFinalidade;
+        }
+        return fluxoFinalidade.proximo();
+    }
+    
+    /**
+     * Passa a usar um fluxo por finalidade em nextRandom(finalidade). Deve ser
+     * chamado antes do primeiro número.
+     * @param numFinalidades Quantidade de finalidades
+     */
+    public void separarFinalidades(int numFinalidades) {
+        this.finalidades = new FluxoAleatorio[numFinalidades];
+    }
+    
+    /**
+     * @return Quantidade de finalidades, ou 0 com um só fluxo
+     */
+    public int getNumFinalidades() {
+        return finalidades == null ? 0 : finalidades.length;
     }
     
     public double gerarTempo(double min, double max) {
@@ -23,4 +99,89 @@ public class GeradorAleatorio {
     public int getContador() {
         return contador;
     }
+    
+    public FluxoAleatorio getFluxo() {
+        return fluxo;
+    }
+    
+    /**
+     * @return Tamanho do bloco, ou 0 no modo sem buffer
+     */
+    public int getTamanhoBloco() {
+        return bloco == null ? 0 : bloco.length;
+    }
+    
+    /**
+     * Grava a contagem, os números ainda não entregues do bloco e o estado do fluxo
+     * @param saida Destino do checkpoint
+     */
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(contador);
+        saida.writeUTF(fluxo.getClass().getSimpleName());
+        saida.writeInt(getTamanhoBloco());
+        if (bloco != null) {
+            saida.writeInt(posicao);
+            for (int i = posicao; i < bloco.length; i++) {
+                saida.writeDouble(bloco[i]);
+            }
+        }
+        salvarEstado(saida, fluxo);
+        saida.writeInt(getNumFinalidades());
+        for (int i = 0; i < getNumFinalidades(); i++) {
+            saida.writeBoolean(finalidades[i] != null);
+            if (finalidades[i] != null) {
+                salvarEstado(saida, finalidades[i]);
+            }
+        }
+    }
+    
+    private static void salvarEstado(DataOutputStream saida, FluxoAleatorio fluxo) throws IOException {
+        long[] estado = fluxo.getEstado();
+        saida.writeInt(estado.length);
+        for (long valor : estado) {
+            saida.writeLong(valor);
+        }
+    }
+    
+    private static void restaurarEstado(DataInputStream entrada, FluxoAleatorio fluxo) throws IOException {
+        long[] estado = new long[entrada.readInt()];
+        for (int i = 0; i < estado.length; i++) {
+            estado[i] = entrada.readLong();
+        }
+        fluxo.setEstado(estado);
+    }
+    
+    /**
+     * Restaura o estado gravado por salvar() em um gerador com o mesmo tipo de
+     * fluxo e o mesmo tamanho de bloco
+     * @param entrada Origem do checkpoint
+     */
+    public void restaurar(DataInputStream entrada) throws IOException {
+        int contadorGravado = entrada.readInt();
+        String tipoFluxo = entrada.readUTF();
+        if (!tipoFluxo.equals(fluxo.getClass().getSimpleName())) {
+            throw new IOException("Checkpoint gravado com outro gerador: " + tipoFluxo);
+        }
+        if (entrada.readInt() != getTamanhoBloco()) {
+            throw new IOException("Checkpoint gravado com outro tamanho de bloco");
+        }
+        if (bloco != null) {
+            posicao = entrada.readInt();
+            for (int i = posicao; i < bloco.length; i++) {
+                bloco[i] = entrada.readDouble();
+            }
+        }
+        restaurarEstado(entrada, fluxo);
+        if (entrada.readInt() != getNumFinalidades()) {
+            throw new IOException("Checkpoint gravado com outra separação de fluxos por finalidade");
+        }
+        for (int i = 0; i < getNumFinalidades(); i++) {
+            finalidades[i] = null;
+            if (entrada.readBoolean()) {
+                finalidades[i] = fluxo.fluxoFinalidade(i);
+                restaurarEstado(entrada, finalidades[i]);
+            }
+        }
+        contador = contadorGravado;
+    }
 }
\ No newline at end of file
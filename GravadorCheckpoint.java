@@ -0,0 +1,183 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Classe GravadorCheckpoint - grava periodicamente o estado completo de uma
+ * simulação longa, que pode ser retomada depois de uma falha com os mesmos
+ * resultados de uma execução sem interrupção.
+ *
+ * O estado é serializado em memória na thread da simulação (um instantâneo
+ * consistente entre dois eventos, de poucos kilobytes) e entregue a uma
+ * thread de gravação, que escreve um arquivo temporário e o renomeia sobre o
+ * checkpoint anterior; assim o laço de eventos não espera pelo disco e o
+ * arquivo nunca fica pela metade. Se a gravação anterior ainda não começou,
+ * o instantâneo pendente é substituído pelo mais novo.
+ *
+ * Formato (big-endian, DataOutputStream):
+ *   magia "CKPT", versão, estado do Escalonador (relógio, calendário, filas e
+ *   gerador) e CRC32 do conteúdo anterior
+ */
+public class GravadorCheckpoint implements AutoCloseable {
+    public static final int MAGIA = 0x434B5054; // "CKPT"
+    public static final int VERSAO = 3;
+    public static final long INTERVALO_PADRAO = 10_000_000L;
+    
+    private final Path arquivo;
+    private final Path temporario;
+    private final long intervaloEventos;
+    private final ExecutorService executor;
+    private final AtomicReference<byte[]> pendente = new AtomicReference<>();
+    private volatile IOException erro;
+    private volatile long gravados;
+    private long substituidos;
+    
+    /**
+     * @param arquivo Caminho do checkpoint (sobrescrito a cada gravação)
+     * @param intervaloEventos Número de eventos entre checkpoints
+     */
+    public GravadorCheckpoint(String arquivo, long intervaloEventos) {
+        if (intervaloEventos <= 0) {
+            throw new IllegalArgumentException("Intervalo de checkpoint inválido: " + intervaloEventos);
+        }
+        this.arquivo = Paths.get(arquivo);
+        this.temporario = Paths.get(arquivo + ".tmp");
+        this.intervaloEventos = intervaloEventos;
+        this.executor = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "gravador-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Serializa o estado atual da simulação
+     * @param escalonador Escalonador parado entre dois eventos
+     * @return Conteúdo do checkpoint
+     */
+    public static byte[] capturar(Escalonador escalonador) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeInt(MAGIA);
+        saida.writeInt(VERSAO);
+        escalonador.salvarEstado(saida);
+        saida.flush();
+        
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        saida.writeLong(crc.getValue());
+        saida.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Captura o estado e agenda a sua gravação, sem esperar pelo disco
+     * @param escalonador Escalonador parado entre dois eventos
+     */
+    public void gravar(Escalonador escalonador) throws IOException {
+        if (erro != null) {
+            throw erro;
+        }
+        if (pendente.getAndSet(capturar(escalonador)) == null) {
+            executor.execute(this::gravarPendente);
+        } else {
+            substituidos++;
+        }
+    }
+    
+    /**
+     * Executada na thread de gravação: escreve o instantâneo mais recente
+     */
+    private void gravarPendente() {
+        byte[] dados = pendente.getAndSet(null);
+        if (dados == null) {
+            return;
+        }
+        try {
+            Files.write(temporario, dados);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            gravados++;
+        } catch (IOException e) {
+            erro = e;
+        }
+    }
+    
+    /**
+     * Restaura um checkpoint em um escalonador recém-criado com a mesma rede,
+     * o mesmo tipo de gerador e o mesmo tamanho de bloco
+     * @param arquivo Caminho do checkpoint
+     * @param escalonador Escalonador que ainda não foi inicializado
+     * @throws IOException Se o arquivo não puder ser lido, estiver corrompido
+     *                     ou não corresponder à simulação
+     */
+    public static void restaurar(String arquivo, Escalonador escalonador) throws IOException {
+        byte[] dados = Files.readAllBytes(Paths.get(arquivo));
+        if (dados.length < 16) {
+            throw new IOException("Checkpoint truncado: " + arquivo);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(dados, 0, dados.length - 8);
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados));
+        if (entrada.readInt() != MAGIA) {
+            throw new IOException("Arquivo não é um checkpoint: " + arquivo);
+        }
+        int versao = entrada.readInt();
+        if (versao != VERSAO) {
+            throw new IOException("Versão de checkpoint não suportada: " + versao);
+        }
+        long crcGravado = new DataInputStream(new ByteArrayInputStream(dados, dados.length - 8, 8)).readLong();
+        if (crcGravado != crc.getValue()) {
+            throw new IOException("Checkpoint corrompido: " + arquivo);
+        }
+        escalonador.restaurarEstado(entrada);
+    }
+    
+    /**
+     * @return Número de eventos entre checkpoints
+     */
+    public long getIntervaloEventos() {
+        return intervaloEventos;
+    }
+    
+    /**
+     * @return Checkpoints efetivamente gravados em disco
+     */
+    public long getGravados() {
+        return gravados;
+    }
+    
+    /**
+     * @return Instantâneos descartados por um mais novo antes de serem gravados
+     */
+    public long getSubstituidos() {
+        return substituidos;
+    }
+    
+    /**
+     * Espera a gravação pendente terminar e encerra a thread de gravação
+     * @throws IOException Se alguma gravação falhou
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (erro != null) {
+            throw erro;
+        }
+    }
+}
\ No newline at end of file
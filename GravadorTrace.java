@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Classe GravadorTrace - grava cada evento processado pelo Escalonador como um
+ * registro binário de tamanho fixo em um arquivo mapeado em memória. O arquivo
+ * funciona como buffer circular: ao atingir a capacidade, os registros mais
+ * antigos são sobrescritos, de modo que o trace guarda sempre os últimos
+ * eventos da execução (os que interessam quando algo dá errado no fim).
+ *
+ * Formato (little-endian):
+ *   Cabeçalho (32 bytes): magia "TRCE", versão, tamanho do registro,
+ *                         capacidade em registros, total de registros gravados
+ *   Registro (40 bytes):  tempo (double), número do evento (long), tipo,
+ *                         origem, destino, população da origem, população do
+ *                         destino (-1 quando não se aplica) e aleatórios
+ *                         consumidos até o evento (int)
+ *
+ * A gravação é feita por escritas absolutas no buffer mapeado, sem chamadas
+ * ao sistema operacional por evento; o sistema grava as páginas em disco.
+ * O total do cabeçalho é atualizado a cada INTERVALO_TOTAL registros e a
+ * cada volta do buffer, de modo que o trace de uma execução interrompida
+ * continua legível (o LeitorTrace recupera os registros gravados depois).
+ */
+public class GravadorTrace implements AutoCloseable {
+    public static final int MAGIA = 0x45435254; // "TRCE" em little-endian
+    public static final int VERSAO = 1;
+    public static final int TAMANHO_CABECALHO = 32;
+    public static final int TAMANHO_REGISTRO = 40;
+    public static final int CAPACIDADE_PADRAO = 1 << 20;
+    static final int INTERVALO_TOTAL = 1 << 12; // Potência de 2
+    
+    // Posições dos campos no cabeçalho
+    static final int POS_VERSAO = 4;
+    static final int POS_TAMANHO_REGISTRO = 8;
+    static final int POS_CAPACIDADE = 16;
+    static final int POS_TOTAL = 24;
+    
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final long capacidade;
+    private long total;
+    private int proximaPosicao;
+    
+    /**
+     * Cria (ou sobrescreve) o arquivo de trace
+     * @param arquivo Caminho do arquivo
+     * @param capacidade Número máximo de registros mantidos (buffer circular)
+     * @throws IOException Se o arquivo não puder ser criado ou mapeado
+     */
+    public GravadorTrace(String arquivo, int capacidade) throws IOException {
+        long tamanho = TAMANHO_CABECALHO + (long) capacidade * TAMANHO_REGISTRO;
+        if (capacidade <= 0 || tamanho > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidade do trace inválida: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIA);
+        buffer.putInt(POS_VERSAO, VERSAO);
+        buffer.putInt(POS_TAMANHO_REGISTRO, TAMANHO_REGISTRO);
+        buffer.putLong(POS_CAPACIDADE, capacidade);
+        buffer.putLong(POS_TOTAL, 0L);
+        this.proximaPosicao = TAMANHO_CABECALHO;
+    }
+    
+    /**
+     * Grava um registro na próxima posição do buffer circular
+     */
+    public void registrar(double tempo, long numero, int tipo, int origem, int destino,
+                          int populacaoOrigem, int populacaoDestino, int aleatorios) {
+        int p = proximaPosicao;
+        buffer.putDouble(p, tempo);
+        buffer.putLong(p + 8, numero);
+        buffer.putInt(p + 16, tipo);
+        buffer.putInt(p + 20, origem);
+        buffer.putInt(p + 24, destino);
+        buffer.putInt(p + 28, populacaoOrigem);
+        buffer.putInt(p + 32, populacaoDestino);
+        buffer.putInt(p + 36, aleatorios);
+        
+        total++;
+        p += TAMANHO_REGISTRO;
+        if (p == buffer.capacity()) {
+            p = TAMANHO_CABECALHO;
+            buffer.putLong(POS_TOTAL, total);
+        } else if ((total & (INTERVALO_TOTAL - 1)) == 0) {
+            buffer.putLong(POS_TOTAL, total);
+        }
+        proximaPosicao = p;
+    }
+    
+    /**
+     * @return Total de registros gravados (inclusive os já sobrescritos)
+     */
+    public long getTotal() {
+        return total;
+    }
+    
+    public long getCapacidade() {
+        return capacidade;
+    }
+    
+    /**
+     * Atualiza o total no cabeçalho, força a gravação em disco e fecha o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.putLong(POS_TOTAL, total);
+        buffer.force();
+        canal.close();
+    }
+}
\ No newline at end of file
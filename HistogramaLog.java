@@ -0,0 +1,141 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Classe HistogramaLog - histograma log-linear para quantis de valores não
+ * negativos, no estilo do HdrHistogram: cada oitava (potência de 2) é dividida
+ * em 32 faixas de mesma largura, o que limita o erro relativo dos quantis a
+ * cerca de 1,6%. A faixa é obtida direto dos bits do double (expoente e os 5
+ * bits mais altos da mantissa), de modo que registrar um valor custa uma
+ * contagem. O array cobre apenas as oitavas já observadas; a memória depende
+ * da amplitude dos valores, e não do número de observações.
+ */
+public class HistogramaLog {
+    private static final int BITS_FAIXAS = 5;
+    private static final int FAIXAS_POR_OITAVA = 1 << BITS_FAIXAS;
+    
+    private int[] contagens = new int[0];
+    private int primeiraOitava; // Expoente (com viés) da posição 0 do array
+    private long zeros;         // Valores nulos (ou abaixo do menor double normal)
+    private long total;
+    
+    public HistogramaLog() {
+    }
+    
+    private HistogramaLog(HistogramaLog outro) {
+        this.contagens = outro.contagens.clone();
+        this.primeiraOitava = outro.primeiraOitava;
+        this.zeros = outro.zeros;
+        this.total = outro.total;
+    }
+    
+    /**
+     * @return Cópia independente do estado atual
+     */
+    public HistogramaLog copiar() {
+        return new HistogramaLog(this);
+    }
+    
+    /**
+     * @param x Valor não negativo
+     */
+    public void adicionar(double x) {
+        total++;
+        if (!(x >= Double.MIN_NORMAL)) {
+            zeros++;
+            return;
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        int oitava = (int) (bits >>> 52);
+        int indice = ((oitava - primeiraOitava) << BITS_FAIXAS) | (int) (bits >>> (52 - BITS_FAIXAS)) & (FAIXAS_POR_OITAVA - 1);
+        if (indice < 0 || indice >= contagens.length) {
+            expandir(oitava);
+            indice = ((oitava - primeiraOitava) << BITS_FAIXAS) | (int) (bits >>> (52 - BITS_FAIXAS)) & (FAIXAS_POR_OITAVA - 1);
+        }
+        contagens[indice]++;
+    }
+    
+    /**
+     * Amplia o array para incluir a oitava indicada
+     */
+    private void expandir(int oitava) {
+        if (contagens.length == 0) {
+            primeiraOitava = oitava;
+            contagens = new int[FAIXAS_POR_OITAVA];
+            return;
+        }
+        int ultimaOitava = primeiraOitava + contagens.length / FAIXAS_POR_OITAVA - 1;
+        int novaPrimeira = Math.min(primeiraOitava, oitava);
+        int novaUltima = Math.max(ultimaOitava, oitava);
+        int[] novas = new int[(novaUltima - novaPrimeira + 1) * FAIXAS_POR_OITAVA];
+        System.arraycopy(contagens, 0, novas, (primeiraOitava - novaPrimeira) * FAIXAS_POR_OITAVA, contagens.length);
+        contagens = novas;
+        primeiraOitava = novaPrimeira;
+    }
+    
+    /**
+     * Descarta todas as observações, mantendo o array já alocado
+     */
+    public void reiniciar() {
+        Arrays.fill(contagens, 0);
+        zeros = 0;
+        total = 0;
+    }
+    
+    public long getTotal() { return total; }
+    
+    /**
+     * Grava as contagens para um checkpoint
+     * @param saida Destino do checkpoint
+     */
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(primeiraOitava);
+        saida.writeLong(zeros);
+        saida.writeLong(total);
+        saida.writeInt(contagens.length);
+        for (int contagem : contagens) {
+            saida.writeInt(contagem);
+        }
+    }
+    
+    /**
+     * Substitui as contagens pelas gravadas por salvar()
+     * @param entrada Origem do checkpoint
+     */
+    public void restaurar(DataInputStream entrada) throws IOException {
+        primeiraOitava = entrada.readInt();
+        zeros = entrada.readLong();
+        total = entrada.readLong();
+        contagens = new int[entrada.readInt()];
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = entrada.readInt();
+        }
+    }
+    
+    /**
+     * @param p Probabilidade do quantil, em [0, 1]
+     * @return Ponto médio da faixa que contém o quantil (NaN sem observações)
+     */
+    public double getQuantil(double p) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long posto = Math.max(1, (long) Math.ceil(p * total));
+        long acumulado = zeros;
+        if (acumulado >= posto) {
+            return 0.0;
+        }
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= posto) {
+                int oitava = primeiraOitava + (i >> BITS_FAIXAS);
+                int faixa = i & (FAIXAS_POR_OITAVA - 1);
+                double base = Double.longBitsToDouble((long) oitava << 52);
+                return base * (1.0 + (faixa + 0.5) / FAIXAS_POR_OITAVA);
+            }
+        }
+        return Double.NaN; // Inalcançável: o total inclui todas as contagens
+    }
+}
\ No newline at end of file
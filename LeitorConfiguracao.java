@@ -0,0 +1,659 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Classe LeitorConfiguracao - lê o arquivo de configuração da rede em uma
+ * única passada. O texto é lido do canal em blocos e separado em campos por
+ * um analisador próprio, byte a byte, sem criar uma String por linha; os
+ * números são convertidos direto dos bytes (inteiros e decimais de até 15
+ * dígitos significativos sem passar por Double.parseDouble, com o mesmo
+ * resultado).
+ *
+ * A configuração é validada durante a leitura: número de campos de cada
+ * linha, filas e servidores, índices das rotas dentro da rede,
+ * probabilidades entre 0 e 1 e, para cada origem com rotas, soma igual a 1
+ * (a saída do sistema é o destino 0). Os erros são lançados como
+ * ConfiguracaoInvalidaException, com o arquivo e a linha.
+ *
+ * Também lê (e grava) um formato binário para topologias muito grandes,
+ * reconhecido pelos primeiros bytes; todos os valores são little-endian:
+ *   cabeçalho: magia, versão, número de filas, número de rotas (int)
+ *   cada fila: capacidade, servidores (int), chegada e atendimento
+ *              (ver Distribuicao.gravar)
+ *   cada rota: origem, destino (int), probabilidade (double)
+ */
+public class LeitorConfiguracao {
+    public static final int MAGIA = 0x47464352; // "RCFG" em little-endian
+    public static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 16;
+    static final int TAMANHO_ROTA = 16;
+    
+    /**
+     * Diferença máxima entre a soma das probabilidades de uma origem e 1
+     */
+    public static final double TOLERANCIA_SOMA = 1e-6;
+    
+    private static final int TAMANHO_BLOCO = 1 << 16;
+    
+    // Potências de dez representadas exatamente em double
+    private static final double[] POTENCIAS_DEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    private final ReadableByteChannel canal; // Nulo se todo o texto já está no buffer
+    private final ByteBuffer buffer;
+    private final String nome;
+    private final Path diretorio;
+    private final Path raiz; // Nulo: arquivos das empíricas em qualquer lugar
+    private byte[] campo = new byte[64];
+    private int tamanhoCampo;
+    private int linha = 1;
+    
+    private LeitorConfiguracao(ReadableByteChannel canal, ByteBuffer buffer, String nome, Path diretorio,
+                               Path raiz) {
+        this.canal = canal;
+        this.buffer = buffer;
+        this.nome = nome;
+        this.diretorio = diretorio;
+        this.raiz = raiz;
+    }
+    
+    /**
+     * Lê um arquivo de configuração, no formato texto ou no binário
+     * @param arquivo Caminho do arquivo
+     * @return Configuração lida
+     * @throws IOException Se o arquivo não puder ser lido
+     * @throws ConfiguracaoInvalidaException Se o conteúdo tiver erros
+     */
+    public static ConfiguracaoRede ler(Path arquivo) throws IOException {
+        return ler(arquivo, null);
+    }
+    
+    /**
+     * Lê um arquivo de configuração cujas distribuições empíricas só podem
+     * vir de arquivos dentro de um diretório (para configurações de terceiros)
+     * @param arquivo Caminho do arquivo
+     * @param raiz Diretório permitido, ou null para qualquer um
+     * @return Configuração lida
+     * @throws IOException Se o arquivo não puder ser lido
+     * @throws ConfiguracaoInvalidaException Se o conteúdo tiver erros
+     */
+    public static ConfiguracaoRede ler(Path arquivo, Path raiz) throws IOException {
+        String nome = arquivo.toString();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() >= TAMANHO_CABECALHO) {
+                ByteBuffer inicio = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                canal.read(inicio, 0);
+                if (inicio.getInt(0) == MAGIA) {
+                    if (canal.size() > Integer.MAX_VALUE) {
+                        throw new ConfiguracaoInvalidaException(nome, 0, "arquivo binário grande demais");
+                    }
+                    return lerBinario(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()), nome);
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BLOCO);
+            buffer.limit(0);
+            return new LeitorConfiguracao(canal, buffer, nome, arquivo.toAbsolutePath().getParent(), raiz).lerTexto();
+        }
+    }
+    
+    /**
+     * Interpreta uma configuração já carregada em memória, no formato texto ou no binário
+     * @param conteudo Bytes da configuração
+     * @param nome Nome usado nas mensagens de erro (pode ser null)
+     * @param diretorio Diretório de referência dos arquivos das distribuições empíricas
+     * @return Configuração lida
+     * @throws ConfiguracaoInvalidaException Se o conteúdo tiver erros
+     */
+    public static ConfiguracaoRede interpretar(byte[] conteudo, String nome, Path diretorio) {
+        return interpretar(conteudo, nome, diretorio, null);
+    }
+    
+    /**
+     * Interpreta uma configuração em memória cujas distribuições empíricas só
+     * podem vir de arquivos dentro de um diretório
+     * @param conteudo Bytes da configuração
+     * @param nome Nome usado nas mensagens de erro (pode ser null)
+     * @param diretorio Diretório de referência dos arquivos das distribuições empíricas
+     * @param raiz Diretório permitido, ou null para qualquer um
+     * @return Configuração lida
+     * @throws ConfiguracaoInvalidaException Se o conteúdo tiver erros
+     */
+    public static ConfiguracaoRede interpretar(byte[] conteudo, String nome, Path diretorio, Path raiz) {
+        ByteBuffer buffer = ByteBuffer.wrap(conteudo);
+        if (conteudo.length >= TAMANHO_CABECALHO && buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(0) == MAGIA) {
+            return lerBinario(buffer, nome);
+        }
+        try {
+            return new LeitorConfiguracao(null, buffer, nome, diretorio, raiz).lerTexto();
+        } catch (IOException e) {
+            throw new IllegalStateException("Leitura de memória não deveria falhar", e);
+        }
+    }
+    
+    // ------------------------------------------------------------------
+    // Formato texto
+    // ------------------------------------------------------------------
+    
+    private ConfiguracaoRede lerTexto() throws IOException {
+        if (!proximaLinha()) {
+            throw erro("configuração vazia: falta o número de filas");
+        }
+        int numFilas = inteiro("número de filas");
+        if (numFilas < 1) {
+            throw erro("número de filas deve ser positivo: " + numFilas);
+        }
+        exigirFimLinha();
+        
+        int[] capacidades = new int[numFilas];
+        int[] servidores = new int[numFilas];
+        Distribuicao[] chegadas = new Distribuicao[numFilas];
+        Distribuicao[] atendimentos = new Distribuicao[numFilas];
+        for (int i = 0; i < numFilas; i++) {
+            if (!proximaLinha()) {
+                throw erro("esperadas " + numFilas + " filas, encontradas " + i);
+            }
+            if (campoTexto()) {
+                try {
+                    capacidades[i] = ConfiguracaoRede.lerCapacidade(textoCampo());
+                } catch (NumberFormatException e) {
+                    throw erro("capacidade inválida: '" + textoCampo() + "'");
+                }
+            } else {
+                int capacidade = inteiro("capacidade");
+                capacidades[i] = capacidade < 0 ? Fila.CAPACIDADE_INFINITA : capacidade;
+            }
+            exigirCampo("número de servidores");
+            servidores[i] = inteiro("número de servidores");
+            if (servidores[i] < 1) {
+                throw erro("a fila " + (i + 1) + " deve ter ao menos um servidor: " + servidores[i]);
+            }
+            chegadas[i] = lerDistribuicao("chegada");
+            atendimentos[i] = lerDistribuicao("atendimento");
+            exigirFimLinha();
+        }
+        
+        // Rotas: origem destino probabilidade
+        ListaArestas arestas = new ListaArestas();
+        int[] linhaOrigem = new int[numFilas + 1];
+        while (proximaLinha()) {
+            int origem = inteiro("origem");
+            exigirCampo("destino");
+            int destino = inteiro("destino");
+            exigirCampo("probabilidade");
+            double probabilidade = real("probabilidade");
+            exigirFimLinha();
+            if (origem < 0 || origem > numFilas || destino < 0 || destino > numFilas) {
+                throw erro(String.format("rota %d -> %d fora da rede (filas 0 a %d)", origem, destino, numFilas));
+            }
+            if (!(probabilidade >= 0.0 && probabilidade <= 1.0)) {
+                throw erro("probabilidade fora de [0, 1]: " + probabilidade);
+            }
+            if (linhaOrigem[origem] == 0) {
+                linhaOrigem[origem] = linha;
+            }
+            arestas.adicionar(origem, destino, probabilidade);
+        }
+        
+        return validarRoteamento(new ConfiguracaoRede(capacidades, servidores, chegadas, atendimentos, arestas),
+                                 linhaOrigem, nome);
+    }
+    
+    /**
+     * Lê uma distribuição: um termo tipo:parametros (ver Distribuicao.interpretar)
+     * ou, como no formato original, dois números que definem uma uniforme
+     */
+    private Distribuicao lerDistribuicao(String descricao) throws IOException {
+        exigirCampo("distribuição de " + descricao);
+        if (campoTexto()) {
+            String termo = textoCampo();
+            try {
+                return Distribuicao.interpretar(termo, diretorio, raiz);
+            } catch (IllegalArgumentException e) {
+                throw erro(e.getMessage());
+            }
+        }
+        double minimo = real("mínimo de " + descricao);
+        exigirCampo("máximo de " + descricao);
+        double maximo = real("máximo de " + descricao);
+        if (!(minimo >= 0.0) || !(maximo >= minimo) || Double.isInfinite(maximo)) {
+            throw erro(String.format("intervalo de %s inválido: %s ... %s", descricao, minimo, maximo));
+        }
+        return Distribuicao.uniforme(minimo, maximo);
+    }
+    
+    /**
+     * Confere se um caminho fica dentro de um diretório, depois de resolver
+     * "..", e links simbólicos quando o arquivo existe
+     * @param arquivo Caminho
+     * @param raiz Diretório
+     * @return true se o arquivo está dentro do diretório
+     */
+    static boolean dentroDe(Path arquivo, Path raiz) {
+        Path normalizado = arquivo.toAbsolutePath().normalize();
+        Path raizNormalizada = raiz.toAbsolutePath().normalize();
+        if (!normalizado.startsWith(raizNormalizada)) {
+            return false;
+        }
+        try {
+            return normalizado.toRealPath().startsWith(raizNormalizada.toRealPath());
+        } catch (IOException e) {
+            return true; // Não existe: a leitura é que vai falhar
+        }
+    }
+    
+    /**
+     * Confere uma configuração montada em memória (como os cenários de uma
+     * varredura) com as mesmas regras da leitura: servidores, intervalos das
+     * distribuições uniformes, probabilidades das rotas e soma de cada origem
+     * @param config Configuração
+     * @param nome Identificação usada nas mensagens de erro
+     * @return A própria configuração
+     * @throws ConfiguracaoInvalidaException Se alguma regra não for atendida
+     */
+    static ConfiguracaoRede validar(ConfiguracaoRede config, String nome) {
+        int numFilas = config.getNumFilas();
+        for (int i = 0; i < numFilas; i++) {
+            if (config.getServidores(i) < 1) {
+                throw new ConfiguracaoInvalidaException(nome, 0,
+                    "a fila " + (i + 1) + " deve ter ao menos um servidor: " + config.getServidores(i));
+            }
+            validarUniforme(config.getChegada(i), "chegada", i, nome);
+            validarUniforme(config.getAtendimento(i), "atendimento", i, nome);
+        }
+        ListaArestas arestas = config.getArestas();
+        int[] linhaOrigem = new int[numFilas + 1];
+        for (int k = 0; k < arestas.tamanho(); k++) {
+            int origem = arestas.getOrigem(k);
+            int destino = arestas.getDestino(k);
+            double probabilidade = arestas.getProbabilidade(k);
+            if (origem < 0 || origem > numFilas || destino < 0 || destino > numFilas
+                || !(probabilidade >= 0.0 && probabilidade <= 1.0)) {
+                throw new ConfiguracaoInvalidaException(nome, 0, String.format(
+                    "rota %d -> %d inválida, com probabilidade %s", origem, destino, probabilidade));
+            }
+            linhaOrigem[origem] = -1;
+        }
+        return validarRoteamento(config, linhaOrigem, nome);
+    }
+    
+    private static void validarUniforme(Distribuicao distribuicao, String descricao, int fila, String nome) {
+        if (!distribuicao.isUniforme()) {
+            return; // As demais são conferidas ao serem criadas
+        }
+        double minimo = distribuicao.getMinimo();
+        double maximo = distribuicao.getMaximo();
+        if (!(minimo >= 0.0) || !(maximo >= minimo) || Double.isInfinite(maximo)) {
+            throw new ConfiguracaoInvalidaException(nome, 0, String.format(
+                "intervalo de %s da fila %d inválido: %s ... %s", descricao, fila + 1, minimo, maximo));
+        }
+    }
+    
+    /**
+     * Confere a soma das probabilidades de cada fila que tem rotas. As rotas
+     * da origem 0 são aceitas, mas não são usadas nem conferidas: as chegadas
+     * externas vêm dos intervalos de chegada de cada fila.
+     * @param linhaOrigem Linha da primeira rota de cada origem (0: sem rotas;
+     *                    negativo: com rotas, sem linha, como no formato binário)
+     */
+    private static ConfiguracaoRede validarRoteamento(ConfiguracaoRede config, int[] linhaOrigem, String nome) {
+        TabelaRoteamento tabela = config.getTabelaRoteamento();
+        for (int origem = 1; origem < linhaOrigem.length; origem++) {
+            double soma = tabela.getSoma(origem);
+            if (linhaOrigem[origem] != 0 && Math.abs(soma - 1.0) > TOLERANCIA_SOMA) {
+                throw new ConfiguracaoInvalidaException(nome, Math.max(linhaOrigem[origem], 0), String.format(
+                    "as rotas da fila %d somam %s, e não 1 (a saída do sistema é o destino 0)", origem, soma));
+            }
+        }
+        return config;
+    }
+    
+    // ------------------------------------------------------------------
+    // Analisador de campos
+    // ------------------------------------------------------------------
+    
+    /**
+     * Próximo byte sem consumi-lo
+     * @return Byte (0 a 255), ou -1 no fim do texto
+     */
+    private int espiar() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (canal == null) {
+                return -1;
+            }
+            buffer.clear();
+            int lidos;
+            do {
+                lidos = canal.read(buffer);
+            } while (lidos == 0);
+            buffer.flip();
+            if (lidos < 0) {
+                return -1;
+            }
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+    
+    /**
+     * Avança até o primeiro campo da próxima linha com dados, pulando
+     * linhas em branco e comentários (# até o fim da linha), e o lê
+     * @return false no fim do texto
+     */
+    private boolean proximaLinha() throws IOException {
+        int c;
+        while ((c = espiar()) >= 0) {
+            if (c == '\n') {
+                linha++;
+                buffer.get();
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                buffer.get();
+            } else if (c == '#') {
+                pularComentario();
+            } else {
+                lerCampo();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Lê o próximo campo da linha atual
+     * @return false se a linha terminou
+     */
+    private boolean proximoCampo() throws IOException {
+        int c;
+        while ((c = espiar()) == ' ' || c == '\t' || c == '\r') {
+            buffer.get();
+        }
+        if (c == '#') {
+            pularComentario();
+            return false;
+        }
+        if (c < 0 || c == '\n') {
+            return false;
+        }
+        lerCampo();
+        return true;
+    }
+    
+    private void pularComentario() throws IOException {
+        int c;
+        while ((c = espiar()) >= 0 && c != '\n') {
+            buffer.get();
+        }
+    }
+    
+    /**
+     * Copia os bytes do campo (até o próximo espaço ou fim de linha)
+     */
+    private void lerCampo() throws IOException {
+        tamanhoCampo = 0;
+        int c;
+        while ((c = espiar()) > ' ') {
+            if (tamanhoCampo == campo.length) {
+                campo = Arrays.copyOf(campo, 2 * tamanhoCampo);
+            }
+            campo[tamanhoCampo++] = buffer.get();
+        }
+    }
+    
+    private void exigirCampo(String descricao) throws IOException {
+        if (!proximoCampo()) {
+            throw erro("falta o campo " + descricao);
+        }
+    }
+    
+    private void exigirFimLinha() throws IOException {
+        if (proximoCampo()) {
+            throw erro("campo a mais: '" + textoCampo() + "'");
+        }
+    }
+    
+    /**
+     * @return true se o campo não começa como um número (termo de distribuição ou "inf")
+     */
+    private boolean campoTexto() {
+        byte c = campo[0];
+        return !(c >= '0' && c <= '9') && c != '-' && c != '+' && c != '.';
+    }
+    
+    private String textoCampo() {
+        return new String(campo, 0, tamanhoCampo, StandardCharsets.UTF_8);
+    }
+    
+    private int inteiro(String descricao) {
+        int i = 0;
+        boolean negativo = campo[0] == '-';
+        if (negativo || campo[0] == '+') {
+            i++;
+        }
+        if (i == tamanhoCampo || tamanhoCampo - i > 10) {
+            throw erro(descricao + " deve ser um número inteiro: '" + textoCampo() + "'");
+        }
+        long valor = 0;
+        for (; i < tamanhoCampo; i++) {
+            int digito = campo[i] - '0';
+            if (digito < 0 || digito > 9) {
+                throw erro(descricao + " deve ser um número inteiro: '" + textoCampo() + "'");
+            }
+            valor = 10 * valor + digito;
+        }
+        if (negativo) {
+            valor = -valor;
+        }
+        if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+            throw erro(descricao + " fora do intervalo de um inteiro: " + textoCampo());
+        }
+        return (int) valor;
+    }
+    
+    /**
+     * Converte o campo em double. Com até 15 dígitos significativos e
+     * expoente decimal de até 22, mantissa e potência de dez são exatas em
+     * double e uma única multiplicação ou divisão dá o valor corretamente
+     * arredondado (o caminho rápido de Clinger); os demais casos ficam com
+     * Double.parseDouble
+     */
+    private double real(String descricao) {
+        int i = 0;
+        boolean negativo = campo[0] == '-';
+        if (negativo || campo[0] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int significativos = 0;
+        int expoente = 0;
+        boolean temDigito = false;
+        boolean ponto = false;
+        for (; i < tamanhoCampo; i++) {
+            byte c = campo[i];
+            if (c >= '0' && c <= '9') {
+                temDigito = true;
+                if (mantissa != 0 || c != '0') {
+                    mantissa = 10 * mantissa + (c - '0');
+                    significativos++;
+                }
+                if (ponto) {
+                    expoente--;
+                }
+                if (significativos > 15) {
+                    return realLento(descricao);
+                }
+            } else if (c == '.' && !ponto) {
+                ponto = true;
+            } else {
+                break;
+            }
+        }
+        if (i < tamanhoCampo && temDigito && (campo[i] == 'e' || campo[i] == 'E')) {
+            i++;
+            boolean expoenteNegativo = i < tamanhoCampo && campo[i] == '-';
+            if (i < tamanhoCampo && (campo[i] == '-' || campo[i] == '+')) {
+                i++;
+            }
+            int valorExpoente = 0;
+            int inicioExpoente = i;
+            for (; i < tamanhoCampo && campo[i] >= '0' && campo[i] <= '9' && i - inicioExpoente < 4; i++) {
+                valorExpoente = 10 * valorExpoente + (campo[i] - '0');
+            }
+            if (i == inicioExpoente) {
+                return realLento(descricao);
+            }
+            expoente += expoenteNegativo ? -valorExpoente : valorExpoente;
+        }
+        if (i < tamanhoCampo || !temDigito || expoente < -22 || expoente > 22) {
+            return realLento(descricao);
+        }
+        double valor = expoente >= 0 ? mantissa * POTENCIAS_DEZ[expoente] : mantissa / POTENCIAS_DEZ[-expoente];
+        return negativo ? -valor : valor;
+    }
+    
+    private double realLento(String descricao) {
+        try {
+            return Double.parseDouble(textoCampo());
+        } catch (NumberFormatException e) {
+            throw erro(descricao + " deve ser um número: '" + textoCampo() + "'");
+        }
+    }
+    
+    private ConfiguracaoInvalidaException erro(String mensagem) {
+        return new ConfiguracaoInvalidaException(nome, linha, mensagem);
+    }
+    
+    // ------------------------------------------------------------------
+    // Formato binário
+    // ------------------------------------------------------------------
+    
+    private static ConfiguracaoRede lerBinario(ByteBuffer dados, String nome) {
+        dados.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            dados.getInt(); // Magia, já conferida
+            int versao = dados.getInt();
+            if (versao != VERSAO) {
+                throw new ConfiguracaoInvalidaException(nome, 0, "versão do formato binário não suportada: " + versao);
+            }
+            int numFilas = dados.getInt();
+            int numRotas = dados.getInt();
+            if (numFilas < 1 || numRotas < 0 || (long) numRotas * TAMANHO_ROTA > dados.remaining()) {
+                throw new ConfiguracaoInvalidaException(nome, 0, "cabeçalho do formato binário corrompido");
+            }
+            
+            int[] capacidades = new int[numFilas];
+            int[] servidores = new int[numFilas];
+            Distribuicao[] chegadas = new Distribuicao[numFilas];
+            Distribuicao[] atendimentos = new Distribuicao[numFilas];
+            for (int i = 0; i < numFilas; i++) {
+                capacidades[i] = dados.getInt();
+                servidores[i] = dados.getInt();
+                if (servidores[i] < 1) {
+                    throw new ConfiguracaoInvalidaException(nome, 0,
+                        "a fila " + (i + 1) + " deve ter ao menos um servidor: " + servidores[i]);
+                }
+                try {
+                    chegadas[i] = Distribuicao.ler(dados);
+                    atendimentos[i] = Distribuicao.ler(dados);
+                } catch (IllegalArgumentException e) {
+                    throw new ConfiguracaoInvalidaException(nome, 0, "fila " + (i + 1) + ": " + e.getMessage());
+                }
+            }
+            if (dados.remaining() != (long) numRotas * TAMANHO_ROTA) {
+                throw new ConfiguracaoInvalidaException(nome, 0, "tamanho da seção de rotas não confere");
+            }
+            
+            ListaArestas arestas = new ListaArestas(Math.max(numRotas, 1));
+            int[] linhaOrigem = new int[numFilas + 1];
+            for (int k = 0; k < numRotas; k++) {
+                int origem = dados.getInt();
+                int destino = dados.getInt();
+                double probabilidade = dados.getDouble();
+                if (origem < 0 || origem > numFilas || destino < 0 || destino > numFilas
+                    || !(probabilidade >= 0.0 && probabilidade <= 1.0)) {
+                    throw new ConfiguracaoInvalidaException(nome, 0, String.format(
+                        "rota %d inválida: %d -> %d com probabilidade %s", k + 1, origem, destino, probabilidade));
+                }
+                linhaOrigem[origem] = -1;
+                arestas.adicionar(origem, destino, probabilidade);
+            }
+            return validarRoteamento(new ConfiguracaoRede(capacidades, servidores, chegadas, atendimentos, arestas),
+                                     linhaOrigem, nome);
+        } catch (BufferUnderflowException e) {
+            throw new ConfiguracaoInvalidaException(nome, 0, "arquivo binário truncado");
+        }
+    }
+    
+    /**
+     * Grava a configuração no formato binário
+     * @param config Configuração
+     * @param arquivo Arquivo de saída (sobrescrito)
+     * @throws IOException Se o arquivo não puder ser gravado
+     */
+    public static void gravarBinario(ConfiguracaoRede config, Path arquivo) throws IOException {
+        ListaArestas arestas = config.getArestas();
+        long tamanho = TAMANHO_CABECALHO + (long) arestas.tamanho() * TAMANHO_ROTA;
+        for (int i = 0; i < config.getNumFilas(); i++) {
+            tamanho += 8 + config.getChegada(i).tamanhoBinario() + config.getAtendimento(i).tamanhoBinario();
+        }
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Configuração grande demais para o formato binário: " + tamanho + " bytes");
+        }
+        
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                  StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer saida = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            saida.order(ByteOrder.LITTLE_ENDIAN);
+            saida.putInt(MAGIA).putInt(VERSAO).putInt(config.getNumFilas()).putInt(arestas.tamanho());
+            for (int i = 0; i < config.getNumFilas(); i++) {
+                saida.putInt(config.getCapacidade(i)).putInt(config.getServidores(i));
+                config.getChegada(i).gravar(saida);
+                config.getAtendimento(i).gravar(saida);
+            }
+            for (int k = 0; k < arestas.tamanho(); k++) {
+                saida.putInt(arestas.getOrigem(k)).putInt(arestas.getDestino(k))
+                     .putDouble(arestas.getProbabilidade(k));
+            }
+            saida.force();
+        }
+    }
+    
+    /**
+     * Valida uma configuração e, opcionalmente, converte para o formato binário
+     * Uso: java LeitorConfiguracao <arquivo> [arquivo_binario]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Uso: java LeitorConfiguracao <arquivo> [arquivo_binario]");
+            System.exit(1);
+        }
+        
+        try {
+            long inicio = System.nanoTime();
+            ConfiguracaoRede config = ler(Paths.get(args[0]));
+            System.out.printf("%s: %d filas, %d rotas, lida em %.1f ms%n", args[0], config.getNumFilas(),
+                              config.getArestas().tamanho(), (System.nanoTime() - inicio) / 1e6);
+            if (args.length > 1) {
+                gravarBinario(config, Paths.get(args[1]));
+                inicio = System.nanoTime();
+                ler(Paths.get(args[1]));
+                System.out.printf("%s: gravada; lida em %.1f ms%n", args[1], (System.nanoTime() - inicio) / 1e6);
+            }
+        } catch (ConfiguracaoInvalidaException e) {
+            System.err.println("Configuração inválida: " + e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler ou gravar a configuração: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classe LeitorTrace - lê os arquivos gravados pelo GravadorTrace. Percorre
+ * os registros em ordem cronológica (desfazendo a volta do buffer circular),
+ * com filtros por tipo, fila e intervalo de tempo, e reproduz a evolução das
+ * populações para conferir a consistência dos eventos.
+ */
+public class LeitorTrace {
+    private final ByteBuffer buffer;
+    private final long capacidade;
+    private final long total;
+    
+    /**
+     * Registro corrente, reaproveitado a cada leitura
+     */
+    public static class Registro {
+        public double tempo;
+        public long numero;
+        public int tipo;
+        public int origem;
+        public int destino;
+        public int populacaoOrigem;
+        public int populacaoDestino;
+        public int aleatorios;
+        
+        @Override
+        public String toString() {
+            String origemTexto = origem == 0 ? "Ext" : String.valueOf(origem);
+            String destinoTexto = destino == -1 ? "-" : (destino == 0 ? "Ext" : String.valueOf(destino));
+            return String.format("#%d %.4f %-8s %s->%s pop[%d,%d] rnd=%d", numero, tempo,
+                                 Evento.nomeTipo(tipo), origemTexto, destinoTexto,
+                                 populacaoOrigem, populacaoDestino, aleatorios);
+        }
+    }
+    
+    /**
+     * Recebe os registros durante o percurso
+     */
+    public interface Visitante {
+        void visitar(Registro registro);
+    }
+    
+    /**
+     * Abre um arquivo de trace
+     * @param arquivo Caminho do arquivo
+     * @throws IOException Se o arquivo não puder ser lido ou não for um trace
+     */
+    public LeitorTrace(String arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.READ)) {
+            this.buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < GravadorTrace.TAMANHO_CABECALHO || buffer.getInt(0) != GravadorTrace.MAGIA) {
+            throw new IOException("Arquivo não é um trace do simulador: " + arquivo);
+        }
+        if (buffer.getInt(GravadorTrace.POS_VERSAO) != GravadorTrace.VERSAO
+            || buffer.getInt(GravadorTrace.POS_TAMANHO_REGISTRO) != GravadorTrace.TAMANHO_REGISTRO) {
+            throw new IOException("Versão de trace não suportada: " + buffer.getInt(GravadorTrace.POS_VERSAO));
+        }
+        this.capacidade = buffer.getLong(GravadorTrace.POS_CAPACIDADE);
+        if (capacidade <= 0 || GravadorTrace.TAMANHO_CABECALHO + capacidade * GravadorTrace.TAMANHO_REGISTRO
+                                > buffer.capacity()) {
+            throw new IOException("Trace truncado: " + arquivo);
+        }
+        this.total = recuperarTotal(buffer.getLong(GravadorTrace.POS_TOTAL));
+    }
+    
+    /**
+     * Conta os registros gravados depois da última atualização do total no
+     * cabeçalho (execução interrompida antes do fechamento). Os números de
+     * evento crescem a cada registro, então um registro posterior ao último
+     * contado tem número maior que o dele; uma posição ainda não gravada
+     * tem número zero, e uma da volta anterior, número menor.
+     * @param totalCabecalho Total gravado no cabeçalho
+     * @return Total de registros gravados
+     */
+    private long recuperarTotal(long totalCabecalho) {
+        long contados = totalCabecalho;
+        long anterior = contados > 0 ? numero(contados - 1) : 0;
+        for (long i = 0; i < capacidade; i++) {
+            long numero = numero(contados);
+            if (numero <= anterior) {
+                break;
+            }
+            anterior = numero;
+            contados++;
+        }
+        return contados;
+    }
+    
+    /**
+     * @return Número do evento do registro de ordem indicada (na sua posição do buffer circular)
+     */
+    private long numero(long registro) {
+        return buffer.getLong(posicao(registro) + 8);
+    }
+    
+    private int posicao(long registro) {
+        return GravadorTrace.TAMANHO_CABECALHO + (int) (registro % capacidade) * GravadorTrace.TAMANHO_REGISTRO;
+    }
+    
+    /**
+     * @return Total de eventos gravados na execução (recuperado dos registros,
+     *         se a execução foi interrompida antes de fechar o trace)
+     */
+    public long getTotal() { return total; }
+    
+    /**
+     * @return Registros disponíveis (os últimos, se o buffer deu a volta)
+     */
+    public long getDisponiveis() { return Math.min(total, capacidade); }
+    
+    /**
+     * Percorre os registros disponíveis em ordem cronológica
+     * @param visitante Recebe cada registro (o objeto é reaproveitado)
+     */
+    public void percorrer(Visitante visitante) {
+        Registro registro = new Registro();
+        long disponiveis = getDisponiveis();
+        long primeiro = total - disponiveis;
+        for (long i = 0; i < disponiveis; i++) {
+            int p = posicao(primeiro + i);
+            registro.tempo = buffer.getDouble(p);
+            registro.numero = buffer.getLong(p + 8);
+            registro.tipo = buffer.getInt(p + 16);
+            registro.origem = buffer.getInt(p + 20);
+            registro.destino = buffer.getInt(p + 24);
+            registro.populacaoOrigem = buffer.getInt(p + 28);
+            registro.populacaoDestino = buffer.getInt(p + 32);
+            registro.aleatorios = buffer.getInt(p + 36);
+            visitante.visitar(registro);
+        }
+    }
+    
+    /**
+     * Reproduz a evolução das populações: a cada saída a fila de origem perde
+     * um cliente, e a cada chegada a fila de destino ganha um (ou mantém a
+     * população, se o cliente foi perdido). Também confere a ordem dos tempos.
+     * @param saida Destino das inconsistências encontradas
+     * @return Número de inconsistências
+     */
+    public int reproduzir(PrintStream saida) {
+        Map<Integer, Integer> populacoes = new HashMap<>();
+        int[] inconsistencias = new int[1];
+        double[] tempoAnterior = { Double.NEGATIVE_INFINITY };
+        percorrer(r -> {
+            if (r.tempo < tempoAnterior[0]) {
+                inconsistencias[0]++;
+                saida.println("Tempo fora de ordem: " + r);
+            }
+            tempoAnterior[0] = r.tempo;
+            
+            int fila = r.tipo == Evento.TIPO_SAIDA ? r.origem : r.destino;
+            int populacao = r.tipo == Evento.TIPO_SAIDA ? r.populacaoOrigem : r.populacaoDestino;
+            Integer anterior = populacoes.put(fila, populacao);
+            if (anterior == null) {
+                return; // Primeira aparição da fila (o trace pode ter dado a volta)
+            }
+            boolean coerente = r.tipo == Evento.TIPO_SAIDA ? populacao == anterior - 1
+                                                           : populacao == anterior || populacao == anterior + 1;
+            if (!coerente) {
+                inconsistencias[0]++;
+                saida.printf("População incoerente na fila %d (antes %d): %s\n", fila, anterior, r);
+            }
+        });
+        return inconsistencias[0];
+    }
+    
+    /**
+     * Método principal
+     * @param args arquivo_trace [--tipo CHEGADA|SAIDA] [--fila N] [--de tempo] [--ate tempo]
+     *             [--limite N] [--reproduzir]
+     */
+    public static void main(String[] args) {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "reproduzir");
+        if (opcoes.numPosicionais() < 1) {
+            System.out.println("Uso: java LeitorTrace <arquivo_trace> [--tipo CHEGADA|SAIDA] [--fila N]");
+            System.out.println("       [--de tempo] [--ate tempo] [--limite N] [--reproduzir]");
+            System.exit(1);
+        }
+        
+        LeitorTrace leitor;
+        try {
+            leitor = new LeitorTrace(opcoes.posicional(0));
+        } catch (IOException e) {
+            System.err.println("Erro ao ler trace: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        System.out.printf("Trace: %d events recorded, %d available\n", leitor.getTotal(), leitor.getDisponiveis());
+        
+        if (opcoes.tem("reproduzir")) {
+            int inconsistencias = leitor.reproduzir(System.out);
+            System.out.println(inconsistencias == 0 ? "Replay consistent."
+                                                    : "Replay found " + inconsistencias + " inconsistencies.");
+            return;
+        }
+        
+        int tipo = opcoes.tem("tipo") ? Evento.codigoTipo(opcoes.get("tipo", "").toUpperCase()) : -1;
+        int fila = opcoes.getInt("fila", -1);
+        double de = opcoes.getDouble("de", Double.NEGATIVE_INFINITY);
+        double ate = opcoes.getDouble("ate", Double.POSITIVE_INFINITY);
+        long limite = opcoes.getLong("limite", Long.MAX_VALUE);
+        long[] impressos = new long[1];
+        leitor.percorrer(r -> {
+            if (impressos[0] >= limite || r.tempo < de || r.tempo > ate
+                || (tipo >= 0 && r.tipo != tipo) || (fila >= 0 && r.origem != fila && r.destino != fila)) {
+                return;
+            }
+            System.out.println(r);
+            impressos[0]++;
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * Classe ListaArestas - lista de arestas de roteamento (origem, destino,
+ * probabilidade) guardada em arrays primitivos que crescem sob demanda.
+ * Representa a rede de forma esparsa: a memória é proporcional ao número de
+ * rotas, e não ao quadrado do número de filas.
+ */
+public class ListaArestas {
+    private int[] origens;
+    private int[] destinos;
+    private double[] probabilidades;
+    private int tamanho;
+    
+    public ListaArestas() {
+        this(16);
+    }
+    
+    /**
+     * @param capacidadeInicial Número de arestas esperado
+     */
+    public ListaArestas(int capacidadeInicial) {
+        int capacidade = Math.max(1, capacidadeInicial);
+        this.origens = new int[capacidade];
+        this.destinos = new int[capacidade];
+        this.probabilidades = new double[capacidade];
+    }
+    
+    /**
+     * Acrescenta uma aresta ao fim da lista
+     * @param origem Fila de origem (0 = mundo externo)
+     * @param destino Fila de destino (0 = saída do sistema)
+     * @param probabilidade Probabilidade da rota
+     */
+    public void adicionar(int origem, int destino, double probabilidade) {
+        if (tamanho == origens.length) {
+            int capacidade = origens.length * 2;
+            origens = Arrays.copyOf(origens, capacidade);
+            destinos = Arrays.copyOf(destinos, capacidade);
+            probabilidades = Arrays.copyOf(probabilidades, capacidade);
+        }
+        origens[tamanho] = origem;
+        destinos[tamanho] = destino;
+        probabilidades[tamanho] = probabilidade;
+        tamanho++;
+    }
+    
+    public int tamanho() { return tamanho; }
+    public int getOrigem(int i) { return origens[i]; }
+    public int getDestino(int i) { return destinos[i]; }
+    public double getProbabilidade(int i) { return probabilidades[i]; }
+    
+    /**
+     * Converte uma matriz densa de roteamento, ignorando as posições nulas
+     * @param matrizRoteamento Matriz (n+1)x(n+1), onde o índice 0 é o mundo externo
+     * @return Lista com uma aresta por posição não nula
+     */
+    public static ListaArestas daMatriz(double[][] matrizRoteamento) {
+        ListaArestas arestas = new ListaArestas();
+        for (int origem = 0; origem < matrizRoteamento.length; origem++) {
+            for (int destino = 0; destino < matrizRoteamento[origem].length; destino++) {
+                if (matrizRoteamento[origem][destino] != 0) {
+                    arestas.adicionar(origem, destino, matrizRoteamento[origem][destino]);
+                }
+            }
+        }
+        return arestas;
+    }
+}
\ No newline at end of file
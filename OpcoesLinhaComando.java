@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe OpcoesLinhaComando - separa os argumentos posicionais das opções
+ * no formato "--nome valor" ou "--nome=valor". As opções declaradas sem
+ * valor (indicadores, ou opções de valor opcional como --cache[=diretorio])
+ * nunca consomem o argumento seguinte, que continua posicional; só recebem
+ * um valor na forma "--nome=valor".
+ */
+public class OpcoesLinhaComando {
+    private final List<String> posicionais;
+    private final Map<String, String> opcoes;
+    
+    /**
+     * @param args Argumentos do programa
+     * @param semValor Nomes (sem "--") das opções que não consomem o argumento seguinte
+     */
+    public OpcoesLinhaComando(String[] args, String... semValor) {
+        this.posicionais = new ArrayList<>();
+        this.opcoes = new HashMap<>();
+        List<String> indicadores = Arrays.asList(semValor);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                String nome = args[i].substring(2);
+                int igual = nome.indexOf('=');
+                if (igual >= 0) {
+                    opcoes.put(nome.substring(0, igual), nome.substring(igual + 1));
+                    continue;
+                }
+                boolean temValor = !indicadores.contains(nome)
+                    && i + 1 < args.length && !args[i + 1].startsWith("--");
+                opcoes.put(nome, temValor ? args[++i] : "true");
+            } else {
+                posicionais.add(args[i]);
+            }
+        }
+    }
+    
+    public int numPosicionais() { return posicionais.size(); }
+    public String posicional(int indice) { return posicionais.get(indice); }
+    
+    public boolean tem(String nome) {
+        return opcoes.containsKey(nome);
+    }
+    
+    public String get(String nome, String padrao) {
+        return opcoes.getOrDefault(nome, padrao);
+    }
+    
+    public int getInt(String nome, int padrao) {
+        return opcoes.containsKey(nome) ? Integer.parseInt(opcoes.get(nome)) : padrao;
+    }
+    
+    public long getLong(String nome, long padrao) {
+        return opcoes.containsKey(nome) ? Long.parseLong(opcoes.get(nome)) : padrao;
+    }
+    
+    public double getDouble(String nome, double padrao) {
+        return opcoes.containsKey(nome) ? Double.parseDouble(opcoes.get(nome)) : padrao;
+    }
+}
\ No newline at end of file
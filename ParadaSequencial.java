@@ -0,0 +1,213 @@
+import java.util.List;
+
+/**
+ * Classe ParadaSequencial - regra de parada sequencial por médias de lotes
+ * (batch means). A simulação avança em lotes de eventos; ao fim de cada lote
+ * são registrados os valores acumulados de cada fila, e a execução para
+ * quando a meia-largura do IC de 95% da utilização, da população média e da
+ * taxa de perda de todas as filas fica abaixo da precisão relativa pedida.
+ * Métricas muito próximas de zero (como perdas raras) também são aceitas
+ * quando a meia-largura absoluta fica abaixo de uma tolerância.
+ *
+ * São usados de 20 a 40 lotes: ao chegar a 40, lotes vizinhos são agrupados
+ * dois a dois e o tamanho do lote dobra, o que reduz a correlação entre lotes
+ * à medida que a execução se alonga.
+ */
+public class ParadaSequencial {
+    public static final double CONFIANCA = 0.95;
+    public static final int LOTES_MINIMOS = 20;
+    public static final long TAMANHO_LOTE_MINIMO = 1000;
+    public static final double TOLERANCIA_ABSOLUTA_PADRAO = 1e-4;
+    
+    // Métricas controladas
+    public static final int UTILIZACAO = 0;
+    public static final int POPULACAO = 1;
+    public static final int TAXA_PERDA = 2;
+    public static final int NUM_METRICAS = 3;
+    private static final String[] NOMES_METRICAS = { "Utilization", "Avg population", "Loss rate" };
+    
+    private final double precisaoRelativa;
+    private final double toleranciaAbsoluta;
+    
+    // Valores acumulados em cada fronteira de lote, por fila
+    private final double[] temposFronteira = new double[2 * LOTES_MINIMOS + 1];
+    private final double[][] ocupado = new double[2 * LOTES_MINIMOS + 1][];
+    private final double[][] area = new double[2 * LOTES_MINIMOS + 1][];
+    private final long[][] perdas = new long[2 * LOTES_MINIMOS + 1][];
+    private final long[][] chegadas = new long[2 * LOTES_MINIMOS + 1][];
+    private int numFronteiras;
+    
+    private long tamanhoLote;
+    private boolean convergiu;
+    private long eventosProcessados;
+    private int aleatoriosUsados;
+    private double[][] medias;
+    private double[][] meiasLarguras;
+    
+    /**
+     * @param precisaoRelativa Meia-largura máxima relativa à média (ex.: 0.05 para 5%)
+     */
+    public ParadaSequencial(double precisaoRelativa) {
+        this(precisaoRelativa, TOLERANCIA_ABSOLUTA_PADRAO);
+    }
+    
+    /**
+     * @param precisaoRelativa Meia-largura máxima relativa à média (ex.: 0.05 para 5%)
+     * @param toleranciaAbsoluta Meia-largura abaixo da qual a métrica é aceita qualquer que seja a média
+     */
+    public ParadaSequencial(double precisaoRelativa, double toleranciaAbsoluta) {
+        if (!(precisaoRelativa > 0)) {
+            throw new IllegalArgumentException("Precisão relativa inválida: " + precisaoRelativa);
+        }
+        if (!(toleranciaAbsoluta >= 0)) {
+            throw new IllegalArgumentException("Tolerância absoluta inválida: " + toleranciaAbsoluta);
+        }
+        this.precisaoRelativa = precisaoRelativa;
+        this.toleranciaAbsoluta = toleranciaAbsoluta;
+    }
+    
+    /**
+     * Executa a simulação até atingir a precisão ou esgotar os aleatórios.
+     * Os intervalos de estado das filas não são fechados ao final.
+     * @param escalonador Escalonador já inicializado (e aquecido, se for o caso)
+     * @param filas Filas simuladas pelo escalonador
+     * @param gerador Gerador usado pelo escalonador
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @return true se a precisão foi atingida
+     */
+    public boolean executar(Escalonador escalonador, List<Fila> filas, GeradorAleatorio gerador, int maxAleatorios) {
+        int numFilas = filas.size();
+        medias = new double[NUM_METRICAS][numFilas];
+        meiasLarguras = new double[NUM_METRICAS][numFilas];
+        tamanhoLote = Math.max(TAMANHO_LOTE_MINIMO, 10L * numFilas);
+        numFronteiras = 0;
+        convergiu = false;
+        
+        registrarFronteira(escalonador, filas);
+        boolean continua = true;
+        while (continua) {
+            continua = escalonador.executarEventos(tamanhoLote, maxAleatorios);
+            registrarFronteira(escalonador, filas);
+            
+            int lotes = numFronteiras - 1;
+            if (lotes >= LOTES_MINIMOS && calcular(numFilas)) {
+                convergiu = true;
+                break;
+            }
+            if (lotes == 2 * LOTES_MINIMOS) {
+                agruparLotes();
+            }
+        }
+        if (!convergiu) {
+            calcular(numFilas);
+        }
+        
+        eventosProcessados = escalonador.getEventosProcessados();
+        aleatoriosUsados = gerador.getContador();
+        return convergiu;
+    }
+    
+    /**
+     * Registra os valores acumulados das filas no tempo atual. Só lê os
+     * acumuladores de cada fila, sem percorrer as tabelas de estados.
+     */
+    private void registrarFronteira(Escalonador escalonador, List<Fila> filas) {
+        double tempo = escalonador.getTempoAtual();
+        int k = numFronteiras++;
+        int numFilas = filas.size();
+        if (ocupado[k] == null) {
+            ocupado[k] = new double[numFilas];
+            area[k] = new double[numFilas];
+            perdas[k] = new long[numFilas];
+            chegadas[k] = new long[numFilas];
+        }
+        
+        temposFronteira[k] = tempo;
+        for (int i = 0; i < numFilas; i++) {
+            Fila fila = filas.get(i);
+            ocupado[k][i] = fila.getTempoOcupado(tempo);
+            area[k][i] = fila.getAreaPopulacao(tempo);
+            perdas[k][i] = fila.getPerdidos();
+            chegadas[k][i] = fila.getChegadas();
+        }
+    }
+    
+    /**
+     * Agrupa os lotes dois a dois (mantém as fronteiras pares) e dobra o tamanho do lote
+     */
+    private void agruparLotes() {
+        int mantidas = (numFronteiras + 1) / 2;
+        for (int k = 1; k < mantidas; k++) {
+            // Troca as referências para reaproveitar os arrays descartados
+            trocar(ocupado, k, 2 * k);
+            trocar(area, k, 2 * k);
+            trocar(perdas, k, 2 * k);
+            trocar(chegadas, k, 2 * k);
+            temposFronteira[k] = temposFronteira[2 * k];
+        }
+        numFronteiras = mantidas;
+        tamanhoLote *= 2;
+    }
+    
+    private static <T> void trocar(T[] array, int i, int j) {
+        T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+    
+    /**
+     * Calcula médias e meias-larguras das métricas de cada fila
+     * @return true se todas atingiram a precisão relativa
+     */
+    private boolean calcular(int numFilas) {
+        int lotes = numFronteiras - 1;
+        double[] valores = new double[lotes];
+        boolean todas = true;
+        for (int metrica = 0; metrica < NUM_METRICAS; metrica++) {
+            for (int i = 0; i < numFilas; i++) {
+                for (int k = 0; k < lotes; k++) {
+                    valores[k] = valorLote(metrica, i, k);
+                }
+                double media = Estatistica.media(valores);
+                double meiaLargura = Estatistica.meiaLargura(valores, CONFIANCA);
+                medias[metrica][i] = media;
+                meiasLarguras[metrica][i] = meiaLargura;
+                todas &= meiaLargura <= Math.max(precisaoRelativa * Math.abs(media), toleranciaAbsoluta);
+            }
+        }
+        return todas;
+    }
+    
+    /**
+     * Valor da métrica no lote k (entre as fronteiras k e k+1)
+     */
+    private double valorLote(int metrica, int fila, int k) {
+        double duracao = temposFronteira[k + 1] - temposFronteira[k];
+        switch (metrica) {
+            case UTILIZACAO:
+                return duracao > 0 ? (ocupado[k + 1][fila] - ocupado[k][fila]) / duracao : 0.0;
+            case POPULACAO:
+                return duracao > 0 ? (area[k + 1][fila] - area[k][fila]) / duracao : 0.0;
+            default:
+                long chegadasLote = chegadas[k + 1][fila] - chegadas[k][fila];
+                return chegadasLote > 0 ? (double) (perdas[k + 1][fila] - perdas[k][fila]) / chegadasLote : 0.0;
+        }
+    }
+    
+    /**
+     * @param metrica UTILIZACAO, POPULACAO ou TAXA_PERDA
+     * @return Nome da métrica nos relatórios
+     */
+    public static String getNomeMetrica(int metrica) { return NOMES_METRICAS[metrica]; }
+    
+    public double getPrecisaoRelativa() { return precisaoRelativa; }
+    public double getToleranciaAbsoluta() { return toleranciaAbsoluta; }
+    public boolean isConvergiu() { return convergiu; }
+    public int getNumLotes() { return numFronteiras - 1; }
+    public long getTamanhoLote() { return tamanhoLote; }
+    public long getEventosProcessados() { return eventosProcessados; }
+    public int getAleatoriosUsados() { return aleatoriosUsados; }
+    public double getMedia(int metrica, int fila) { return medias[metrica][fila]; }
+    public double getMeiaLargura(int metrica, int fila) { return meiasLarguras[metrica][fila]; }
+    public int getNumFilas() { return medias[0].length; }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe ParametroVarredura - uma dimensão de uma varredura de parâmetros:
+ * qual parâmetro da rede muda e quais valores ele assume.
+ *
+ * Formato: nome.fila=valores, com nome entre servidores, capacidade,
+ * chegada_min, chegada_max, atendimento_min e atendimento_max, ou
+ * rota.origem-destino=valores para uma probabilidade de roteamento (as demais
+ * rotas da origem são reescaladas para manter a soma da linha). Servidores
+ * são pelo menos 1, tempos não são negativos e probabilidades ficam em [0, 1];
+ * o mínimo não passar do máximo é conferido em cada cenário completo, já que
+ * duas dimensões podem mover os dois limites. Os valores
+ * são uma lista separada por vírgulas (ex.: 5,10,inf) ou um intervalo
+ * inicio:fim[:passo], com passo 1 por padrão (ex.: 0.5:0.9:0.1).
+ */
+public class ParametroVarredura {
+    public static final String SERVIDORES = "servidores";
+    public static final String CAPACIDADE = "capacidade";
+    public static final String CHEGADA_MIN = "chegada_min";
+    public static final String CHEGADA_MAX = "chegada_max";
+    public static final String ATENDIMENTO_MIN = "atendimento_min";
+    public static final String ATENDIMENTO_MAX = "atendimento_max";
+    public static final String ROTA = "rota";
+    
+    private final String nome;
+    private final String tipo;
+    private final int fila;    // Fila alterada (a partir de 1), ou origem da rota
+    private final int destino; // Destino da rota (0 = saída do sistema)
+    private final String[] valores;
+    
+    private ParametroVarredura(String nome, String tipo, int fila, int destino, String[] valores) {
+        this.nome = nome;
+        this.tipo = tipo;
+        this.fila = fila;
+        this.destino = destino;
+        this.valores = valores;
+    }
+    
+    /**
+     * Interpreta uma dimensão no formato da linha de comando
+     * @param texto Ex.: "servidores.2=1:4", "capacidade.3=5,10,inf", "rota.1-2=0.6:0.9:0.1"
+     * @return Dimensão da varredura
+     */
+    public static ParametroVarredura interpretar(String texto) {
+        int igual = texto.indexOf('=');
+        int ponto = texto.indexOf('.');
+        if (igual < 0 || ponto < 0 || ponto > igual) {
+            throw new IllegalArgumentException("Parâmetro de varredura inválido: " + texto);
+        }
+        String nome = texto.substring(0, igual);
+        String tipo = texto.substring(0, ponto);
+        String alvo = texto.substring(ponto + 1, igual);
+        
+        int fila;
+        int destino = -1;
+        try {
+            if (tipo.equals(ROTA)) {
+                int traco = alvo.indexOf('-');
+                if (traco < 0) {
+                    throw new IllegalArgumentException("Rota deve ser origem-destino: " + texto);
+                }
+                fila = Integer.parseInt(alvo.substring(0, traco));
+                destino = Integer.parseInt(alvo.substring(traco + 1));
+            } else {
+                fila = Integer.parseInt(alvo);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Fila inválida no parâmetro de varredura: " + texto);
+        }
+        
+        boolean inteiro;
+        switch (tipo) {
+            case SERVIDORES:
+            case CAPACIDADE:
+                inteiro = true;
+                break;
+            case CHEGADA_MIN:
+            case CHEGADA_MAX:
+            case ATENDIMENTO_MIN:
+            case ATENDIMENTO_MAX:
+            case ROTA:
+                inteiro = false;
+                break;
+            default:
+                throw new IllegalArgumentException("Parâmetro de varredura desconhecido: " + tipo);
+        }
+        
+        String[] valores = expandir(texto.substring(igual + 1), inteiro);
+        for (String valor : valores) {
+            validar(tipo, valor);
+        }
+        return new ParametroVarredura(nome, tipo, fila, destino, valores);
+    }
+    
+    /**
+     * Expande uma lista ou um intervalo inicio:fim[:passo] em valores
+     */
+    private static String[] expandir(String especificacao, boolean inteiro) {
+        if (especificacao.indexOf(':') < 0) {
+            return especificacao.split(",");
+        }
+        String[] partes = especificacao.split(":");
+        if (partes.length < 2 || partes.length > 3) {
+            throw new IllegalArgumentException("Intervalo inválido: " + especificacao);
+        }
+        double inicio = Double.parseDouble(partes[0]);
+        double fim = Double.parseDouble(partes[1]);
+        double passo = partes.length == 3 ? Double.parseDouble(partes[2]) : 1.0;
+        if (!(passo > 0) || fim < inicio) {
+            throw new IllegalArgumentException("Intervalo inválido: " + especificacao);
+        }
+        
+        // Cada valor é calculado a partir do início, sem acumular erro de arredondamento
+        List<String> valores = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            double valor = inicio + i * passo;
+            if (valor > fim + 1e-9 * passo) {
+                break;
+            }
+            valores.add(inteiro ? Long.toString(Math.round(valor))
+                                : Double.toString(Math.round(valor * 1e10) / 1e10));
+        }
+        return valores.toArray(new String[0]);
+    }
+    
+    private static void validar(String tipo, String valor) {
+        boolean valido;
+        try {
+            switch (tipo) {
+                case SERVIDORES:
+                    valido = Integer.parseInt(valor) >= 1;
+                    break;
+                case CAPACIDADE:
+                    ConfiguracaoRede.lerCapacidade(valor);
+                    valido = true;
+                    break;
+                case ROTA:
+                    double probabilidade = Double.parseDouble(valor);
+                    valido = probabilidade >= 0.0 && probabilidade <= 1.0;
+                    break;
+                default:
+                    double tempo = Double.parseDouble(valor);
+                    valido = tempo >= 0.0 && !Double.isInfinite(tempo);
+            }
+        } catch (NumberFormatException e) {
+            valido = false;
+        }
+        if (!valido) {
+            throw new IllegalArgumentException("Valor inválido para " + tipo + ": " + valor);
+        }
+    }
+    
+    /**
+     * Aplica um dos valores à configuração
+     * @param config Configuração de partida
+     * @param indice Índice do valor
+     * @return Nova configuração com o parâmetro alterado
+     */
+    public ConfiguracaoRede aplicar(ConfiguracaoRede config, int indice) {
+        String valor = valores[indice];
+        if (tipo.equals(ROTA)) {
+            if (fila < 0 || fila > config.getNumFilas() || destino < 0 || destino > config.getNumFilas()) {
+                throw new IllegalArgumentException("Rota fora da rede: " + nome);
+            }
+            if (fila == 0) {
+                throw new IllegalArgumentException("As rotas da origem 0 não são usadas: " + nome);
+            }
+            return config.comRota(fila, destino, Double.parseDouble(valor));
+        }
+        
+        int i = fila - 1;
+        if (i < 0 || i >= config.getNumFilas()) {
+            throw new IllegalArgumentException("Fila fora da rede: " + nome);
+        }
+        int capacidade = config.getCapacidade(i);
+        int servidores = config.getServidores(i);
+        Distribuicao chegada = config.getChegada(i);
+        Distribuicao atendimento = config.getAtendimento(i);
+        switch (tipo) {
+            case SERVIDORES:
+                servidores = Integer.parseInt(valor);
+                break;
+            case CAPACIDADE:
+                capacidade = ConfiguracaoRede.lerCapacidade(valor);
+                break;
+            case CHEGADA_MIN:
+                chegada = Distribuicao.uniforme(Double.parseDouble(valor), uniforme(chegada).getMaximo());
+                break;
+            case CHEGADA_MAX:
+                chegada = Distribuicao.uniforme(uniforme(chegada).getMinimo(), Double.parseDouble(valor));
+                break;
+            case ATENDIMENTO_MIN:
+                atendimento = Distribuicao.uniforme(Double.parseDouble(valor), uniforme(atendimento).getMaximo());
+                break;
+            default:
+                atendimento = Distribuicao.uniforme(uniforme(atendimento).getMinimo(), Double.parseDouble(valor));
+        }
+        return config.comFila(i, capacidade, servidores, chegada, atendimento);
+    }
+    
+    /**
+     * Os parâmetros de mínimo e máximo só existem em distribuições uniformes
+     */
+    private Distribuicao uniforme(Distribuicao distribuicao) {
+        if (!distribuicao.isUniforme()) {
+            throw new IllegalArgumentException(nome + " exige tempos uniformes na fila, não " + distribuicao);
+        }
+        return distribuicao;
+    }
+    
+    /**
+     * @return Nome do parâmetro, usado como coluna do resultado (ex.: "servidores.2")
+     */
+    public String getNome() { return nome; }
+    public int numValores() { return valores.length; }
+    public String getValor(int indice) { return valores[indice]; }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+/**
+ * Classe PeriodoAquecimento - define como termina o período de aquecimento
+ * (warm-up) da simulação, cujas estatísticas são descartadas: por tempo de
+ * simulação, por número de eventos ou automaticamente pela regra MSER-5,
+ * aplicada a uma execução piloto com a mesma sequência de números aleatórios.
+ */
+public class PeriodoAquecimento {
+    private static final PeriodoAquecimento NENHUM = new PeriodoAquecimento(0.0, 0L, false, 0);
+    /**
+     * Fração (1/N) do limite de aleatórios usada pelo piloto quando o tamanho
+     * não é indicado: o piloto custa até 25% a mais que a execução
+     */
+    public static final int DIVISOR_PILOTO_PADRAO = 4;
+    
+    private final double tempo;
+    private final long eventos;
+    private final boolean automatico;
+    private final int aleatoriosPiloto;
+    
+    private PeriodoAquecimento(double tempo, long eventos, boolean automatico, int aleatoriosPiloto) {
+        this.tempo = tempo;
+        this.eventos = eventos;
+        this.automatico = automatico;
+        this.aleatoriosPiloto = aleatoriosPiloto;
+    }
+    
+    /**
+     * @return Sem aquecimento: as estatísticas são coletadas desde o tempo zero
+     */
+    public static PeriodoAquecimento nenhum() {
+        return NENHUM;
+    }
+    
+    /**
+     * @param tempo Tempo de simulação descartado
+     */
+    public static PeriodoAquecimento porTempo(double tempo) {
+        if (!(tempo >= 0)) {
+            throw new IllegalArgumentException("Tempo de aquecimento inválido: " + tempo);
+        }
+        return new PeriodoAquecimento(tempo, 0L, false, 0);
+    }
+    
+    /**
+     * @param eventos Número de eventos descartados
+     */
+    public static PeriodoAquecimento porEventos(long eventos) {
+        if (eventos < 0) {
+            throw new IllegalArgumentException("Número de eventos de aquecimento inválido: " + eventos);
+        }
+        return new PeriodoAquecimento(0.0, eventos, false, 0);
+    }
+    
+    /**
+     * @return Aquecimento detectado pela regra MSER-5, com piloto de 1/DIVISOR_PILOTO_PADRAO
+     *         dos aleatórios da execução
+     */
+    public static PeriodoAquecimento automatico() {
+        return automatico(0);
+    }
+    
+    /**
+     * @param aleatoriosPiloto Limite de aleatórios da execução piloto (0 = 1/DIVISOR_PILOTO_PADRAO dos da execução)
+     * @return Aquecimento detectado pela regra MSER-5
+     */
+    public static PeriodoAquecimento automatico(int aleatoriosPiloto) {
+        if (aleatoriosPiloto < 0) {
+            throw new IllegalArgumentException("Tamanho do piloto inválido: " + aleatoriosPiloto);
+        }
+        return new PeriodoAquecimento(0.0, 0L, true, aleatoriosPiloto);
+    }
+    
+    /**
+     * Interpreta a opção de linha de comando
+     * @param texto "mser5" (ou "auto"), "mser5:N" (piloto com N aleatórios),
+     *              "eventos:N" ou um tempo de simulação
+     * @return Período correspondente
+     */
+    public static PeriodoAquecimento interpretar(String texto) {
+        if (texto.equals("mser5") || texto.equals("auto")) {
+            return automatico();
+        }
+        if (texto.startsWith("mser5:")) {
+            return automatico(Integer.parseInt(texto.substring("mser5:".length())));
+        }
+        if (texto.startsWith("eventos:")) {
+            return porEventos(Long.parseLong(texto.substring("eventos:".length())));
+        }
+        return porTempo(Double.parseDouble(texto.startsWith("tempo:") ? texto.substring("tempo:".length()) : texto));
+    }
+    
+    public boolean isNenhum() { return !automatico && tempo == 0.0 && eventos == 0L; }
+    public boolean isAutomatico() { return automatico; }
+    public double getTempo() { return tempo; }
+    public long getEventos() { return eventos; }
+    public int getAleatoriosPiloto() { return aleatoriosPiloto; }
+    
+    @Override
+    public String toString() {
+        if (automatico) {
+            return aleatoriosPiloto > 0 ? "mser5:" + aleatoriosPiloto : "mser5";
+        }
+        return eventos > 0 ? "eventos:" + eventos : String.valueOf(tempo);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+import java.io.IOException;
+
+/**
+ * Interface Relatorio - formato de saída do relatório de uma simulação.
+ * Todos os formatos são escritos a partir do mesmo DadosRelatorio e
+ * gravam numa SaidaRelatorio, que envia o texto em blocos.
+ */
+public interface Relatorio {
+    
+    /**
+     * Cria um formato pelo nome usado na linha de comando
+     * @param nome "texto" (relatório completo, como o do arquivo), "csv" (uma
+     *             linha de métricas por fila), "csv-estados" (uma linha por
+     *             estado de cada fila) ou "json"
+     * @return Formato
+     */
+    static Relatorio criar(String nome) {
+        switch (nome) {
+            case "texto":
+                return new RelatorioTexto(true);
+            case "csv":
+                return new RelatorioCsv(false);
+            case "csv-estados":
+                return new RelatorioCsv(true);
+            case "json":
+                return new RelatorioJson();
+            default:
+                throw new IllegalArgumentException("Formato de relatório desconhecido: " + nome);
+        }
+    }
+    
+    /**
+     * Escreve o relatório; a saída não é descarregada ao final
+     * @param dados Conteúdo do relatório
+     * @param saida Destino
+     * @throws IOException Se o destino falhar
+     */
+    void escrever(DadosRelatorio dados, SaidaRelatorio saida) throws IOException;
+    
+    /**
+     * @return Tipo MIME do formato (para o serviço HTTP)
+     */
+    String getTipoConteudo();
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+import java.io.IOException;
+
+/**
+ * Classe RelatorioCsv - relatório em CSV (separador vírgula, ponto decimal),
+ * em uma de duas tabelas: uma linha de métricas por fila, com as mesmas
+ * colunas da Varredura onde coincidem, ou uma linha por estado de cada
+ * fila (faixas agrupadas vão de estado a estado_final).
+ *
+ * Com parada sequencial, as duas tabelas ganham as colunas do consumo da
+ * execução (repetidas em cada linha), e a de métricas também as meias-larguras
+ * do IC de 95% das métricas controladas.
+ */
+public class RelatorioCsv implements Relatorio {
+    private final boolean estados;
+    
+    /**
+     * @param estados true para a tabela de estados, false para a de métricas
+     */
+    public RelatorioCsv(boolean estados) {
+        this.estados = estados;
+    }
+    
+    @Override
+    public void escrever(DadosRelatorio dados, SaidaRelatorio saida) throws IOException {
+        if (estados) {
+            escreverEstados(dados, saida);
+        } else {
+            escreverMetricas(dados, saida);
+        }
+    }
+    
+    private static void escreverMetricas(DadosRelatorio dados, SaidaRelatorio saida) throws IOException {
+        ResultadoSimulacao resultado = dados.getResultado();
+        ConfiguracaoRede config = dados.getConfig();
+        ParadaSequencial parada = dados.getParadaSequencial();
+        saida.texto("fila,servidores,capacidade,chegada,atendimento,perdas,utilizacao,populacao_media,vazao,"
+                    + "espera_media,espera_desvio,espera_p50,espera_p95,espera_p99,"
+                    + "resposta_media,resposta_desvio,resposta_p50,resposta_p95,resposta_p99,clientes");
+        if (parada != null) {
+            saida.texto(",utilizacao_ic,populacao_media_ic,taxa_perda,taxa_perda_ic");
+        }
+        cabecalhoParada(saida, parada);
+        for (int i = 0; i < dados.getNumFilas(); i++) {
+            saida.inteiro(i + 1).caractere(',').inteiro(config.getServidores(i)).caractere(',');
+            if (config.getCapacidade(i) != Fila.CAPACIDADE_INFINITA) {
+                saida.inteiro(config.getCapacidade(i));
+            }
+            saida.caractere(',');
+            if (dados.temChegadasExternas(i)) {
+                saida.csv(config.getChegada(i).toString());
+            }
+            saida.caractere(',').csv(config.getAtendimento(i).toString())
+                 .caractere(',').inteiro(resultado.getPerdas(i));
+            numero(saida, resultado.getUtilizacao(i));
+            numero(saida, resultado.getPopulacaoMedia(i));
+            numero(saida, resultado.getVazao(i));
+            tempos(saida, resultado.getTempoEspera(i));
+            tempos(saida, resultado.getTempoResposta(i));
+            saida.caractere(',').inteiro(resultado.getTempoResposta(i).getN());
+            if (parada != null) {
+                numero(saida, parada.getMeiaLargura(ParadaSequencial.UTILIZACAO, i));
+                numero(saida, parada.getMeiaLargura(ParadaSequencial.POPULACAO, i));
+                numero(saida, parada.getMedia(ParadaSequencial.TAXA_PERDA, i));
+                numero(saida, parada.getMeiaLargura(ParadaSequencial.TAXA_PERDA, i));
+            }
+            colunasParada(saida, parada);
+        }
+    }
+    
+    private static void escreverEstados(DadosRelatorio dados, SaidaRelatorio saida) throws IOException {
+        ParadaSequencial parada = dados.getParadaSequencial();
+        saida.texto("fila,estado,estado_final,tempo,probabilidade");
+        cabecalhoParada(saida, parada);
+        double tempoColeta = dados.getTempoColeta();
+        for (int i = 0; i < dados.getNumFilas(); i++) {
+            int numEstados = dados.getResultado().getTemposEstado(i).length;
+            for (int j = 0, fim; j < numEstados; j = fim + 1) {
+                fim = dados.fimFaixa(i, j);
+                double tempo = dados.tempoFaixa(i, j, fim);
+                saida.inteiro(i + 1).caractere(',').inteiro(j).caractere(',').inteiro(fim);
+                numero(saida, tempo);
+                numero(saida, tempo / tempoColeta);
+                colunasParada(saida, parada);
+            }
+        }
+    }
+    
+    /**
+     * Termina o cabeçalho, com as colunas do consumo da parada sequencial se houve
+     */
+    private static void cabecalhoParada(SaidaRelatorio saida, ParadaSequencial parada) throws IOException {
+        if (parada != null) {
+            saida.texto(",precisao_atingida,lotes,eventos,aleatorios");
+        }
+        saida.linha();
+    }
+    
+    /**
+     * Termina a linha, com o consumo da parada sequencial se houve
+     */
+    private static void colunasParada(SaidaRelatorio saida, ParadaSequencial parada) throws IOException {
+        if (parada != null) {
+            saida.caractere(',').texto(String.valueOf(parada.isConvergiu()))
+                 .caractere(',').inteiro(parada.getNumLotes())
+                 .caractere(',').inteiro(parada.getEventosProcessados())
+                 .caractere(',').inteiro(parada.getAleatoriosUsados());
+        }
+        saida.linha();
+    }
+    
+    /**
+     * Média, desvio padrão e quantis; campos vazios sem clientes
+     */
+    private static void tempos(SaidaRelatorio saida, EstatisticaOnline tempos) throws IOException {
+        if (tempos.getN() == 0) {
+            saida.texto(",,,,,");
+            return;
+        }
+        numero(saida, tempos.getMedia());
+        numero(saida, tempos.getDesvioPadrao());
+        numero(saida, tempos.getQuantil(0.5));
+        numero(saida, tempos.getQuantil(0.95));
+        numero(saida, tempos.getQuantil(0.99));
+    }
+    
+    /**
+     * Vírgula e o valor com seis casas (vazio se não for finito)
+     */
+    private static void numero(SaidaRelatorio saida, double valor) throws IOException {
+        saida.caractere(',');
+        if (!Double.isNaN(valor) && !Double.isInfinite(valor)) {
+            saida.decimal(valor, 6);
+        }
+    }
+    
+    @Override
+    public String getTipoConteudo() { return "text/csv; charset=utf-8"; }
+}
\ No newline at end of file
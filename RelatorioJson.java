@@ -0,0 +1,142 @@
+import java.io.IOException;
+
+/**
+ * Classe RelatorioJson - relatório em JSON, com o mesmo conteúdo do
+ * relatório completo em texto. Faixas de estados agrupados levam o campo
+ * "ate" com o último estado; números não finitos são escritos como null.
+ * Com parada sequencial, o objeto "paradaSequencial" traz o alvo, o consumo
+ * e a média e a meia-largura de cada métrica controlada por fila.
+ */
+public class RelatorioJson implements Relatorio {
+    // Campos das métricas da parada sequencial, na ordem de ParadaSequencial
+    private static final String[] CAMPOS_METRICAS = { "utilizacao", "populacaoMedia", "taxaPerda" };
+    
+    @Override
+    public void escrever(DadosRelatorio dados, SaidaRelatorio saida) throws IOException {
+        ResultadoSimulacao resultado = dados.getResultado();
+        ConfiguracaoRede config = dados.getConfig();
+        double tempoColeta = dados.getTempoColeta();
+        int numFilas = dados.getNumFilas();
+        saida.linha("{").linha("  \"filas\": [");
+        for (int i = 0; i < numFilas; i++) {
+            saida.linha("    {");
+            saida.texto("      \"fila\": ").inteiro(i + 1).linha(",");
+            saida.texto("      \"servidores\": ").inteiro(config.getServidores(i)).linha(",");
+            saida.texto("      \"capacidade\": ");
+            if (config.getCapacidade(i) == Fila.CAPACIDADE_INFINITA) {
+                saida.texto("null");
+            } else {
+                saida.inteiro(config.getCapacidade(i));
+            }
+            saida.linha(",");
+            saida.texto("      \"chegada\": ");
+            if (dados.temChegadasExternas(i)) {
+                saida.json(config.getChegada(i).toString());
+            } else {
+                saida.texto("null");
+            }
+            saida.linha(",");
+            saida.texto("      \"atendimento\": ").json(config.getAtendimento(i).toString()).linha(",");
+            
+            saida.linha("      \"estados\": [");
+            int numEstados = resultado.getTemposEstado(i).length;
+            for (int j = 0, fim; j < numEstados; j = fim + 1) {
+                fim = dados.fimFaixa(i, j);
+                double tempo = dados.tempoFaixa(i, j, fim);
+                saida.texto("        {\"estado\": ").inteiro(j);
+                if (fim > j) {
+                    saida.texto(", \"ate\": ").inteiro(fim);
+                }
+                saida.texto(", \"tempo\": ");
+                numero(saida, tempo, 4);
+                saida.texto(", \"probabilidade\": ");
+                numero(saida, tempo / tempoColeta, 6);
+                saida.linha(fim < numEstados - 1 ? "}," : "}");
+            }
+            saida.linha("      ],");
+            saida.texto("      \"perdas\": ").inteiro(resultado.getPerdas(i)).linha(",");
+            saida.texto("      \"utilizacao\": ");
+            numero(saida, resultado.getUtilizacao(i), 6).linha(",");
+            saida.texto("      \"populacaoMedia\": ");
+            numero(saida, resultado.getPopulacaoMedia(i), 6).linha(",");
+            saida.texto("      \"vazao\": ");
+            numero(saida, resultado.getVazao(i), 6).linha(",");
+            saida.texto("      \"tempoEspera\": ");
+            tempos(saida, resultado.getTempoEspera(i)).linha(",");
+            saida.texto("      \"tempoResposta\": ");
+            tempos(saida, resultado.getTempoResposta(i)).linha();
+            saida.linha(i < numFilas - 1 ? "    }," : "    }");
+        }
+        saida.linha("  ],");
+        saida.texto("  \"tempoSimulacao\": ");
+        numero(saida, dados.getTempoSimulacao(), 4).linha(",");
+        saida.texto("  \"aquecimentoDescartado\": ");
+        numero(saida, dados.getTempoSimulacao() - tempoColeta, 4).linha(",");
+        saida.texto("  \"eventosAquecimento\": ").inteiro(dados.getEventosAquecimento()).linha(",");
+        saida.texto("  \"aleatoriosUsados\": ").inteiro(resultado.getAleatoriosUsados());
+        if (dados.getParadaSequencial() != null) {
+            saida.linha(",");
+            escreverParada(saida, dados.getParadaSequencial());
+        }
+        saida.linha();
+        saida.linha("}");
+    }
+    
+    /**
+     * Alvo, consumo e intervalos de confiança da parada sequencial
+     */
+    private static void escreverParada(SaidaRelatorio saida, ParadaSequencial parada) throws IOException {
+        saida.linha("  \"paradaSequencial\": {");
+        saida.texto("    \"precisaoRelativa\": ").texto(String.valueOf(parada.getPrecisaoRelativa())).linha(",");
+        saida.texto("    \"toleranciaAbsoluta\": ").texto(String.valueOf(parada.getToleranciaAbsoluta())).linha(",");
+        saida.texto("    \"precisaoAtingida\": ").texto(String.valueOf(parada.isConvergiu())).linha(",");
+        saida.texto("    \"lotes\": ").inteiro(parada.getNumLotes()).linha(",");
+        saida.texto("    \"tamanhoLote\": ").inteiro(parada.getTamanhoLote()).linha(",");
+        saida.texto("    \"eventos\": ").inteiro(parada.getEventosProcessados()).linha(",");
+        saida.texto("    \"aleatorios\": ").inteiro(parada.getAleatoriosUsados()).linha(",");
+        saida.linha("    \"filas\": [");
+        for (int i = 0; i < parada.getNumFilas(); i++) {
+            saida.texto("      {\"fila\": ").inteiro(i + 1);
+            for (int metrica = 0; metrica < ParadaSequencial.NUM_METRICAS; metrica++) {
+                saida.texto(", \"").texto(CAMPOS_METRICAS[metrica]).texto("\": {\"media\": ");
+                numero(saida, parada.getMedia(metrica, i), 6).texto(", \"meiaLargura\": ");
+                numero(saida, parada.getMeiaLargura(metrica, i), 6).texto("}");
+            }
+            saida.linha(i < parada.getNumFilas() - 1 ? "}," : "}");
+        }
+        saida.linha("    ]");
+        saida.texto("  }");
+    }
+    
+    /**
+     * Média, desvio padrão e quantis dos tempos, ou null sem clientes
+     */
+    private static SaidaRelatorio tempos(SaidaRelatorio saida, EstatisticaOnline tempos) throws IOException {
+        if (tempos.getN() == 0) {
+            return saida.texto("null");
+        }
+        saida.texto("{\"media\": ");
+        numero(saida, tempos.getMedia(), 6).texto(", \"desvioPadrao\": ");
+        numero(saida, tempos.getDesvioPadrao(), 6).texto(", \"p50\": ");
+        numero(saida, tempos.getQuantil(0.5), 6).texto(", \"p95\": ");
+        numero(saida, tempos.getQuantil(0.95), 6).texto(", \"p99\": ");
+        numero(saida, tempos.getQuantil(0.99), 6).texto(", \"clientes\": ");
+        return saida.inteiro(tempos.getN()).texto("}");
+    }
+    
+    private static SaidaRelatorio numero(SaidaRelatorio saida, double valor, int casas) throws IOException {
+        return Double.isNaN(valor) || Double.isInfinite(valor) ? saida.texto("null") : saida.decimal(valor, casas);
+    }
+    
+    /**
+     * @return Texto entre aspas, com os caracteres especiais do JSON escapados
+     */
+    static String textoJson(String texto) {
+        StringBuilder json = new StringBuilder(texto.length() + 2);
+        SaidaRelatorio.escaparJson(json, texto);
+        return json.toString();
+    }
+    
+    @Override
+    public String getTipoConteudo() { return "application/json; charset=utf-8"; }
+}
\ No newline at end of file
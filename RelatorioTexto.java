@@ -0,0 +1,147 @@
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Classe RelatorioTexto - relatório legível, no formato original da
+ * disciplina. O completo (o do arquivo) inclui as métricas de desempenho de
+ * cada fila; o resumido (o do console) mostra apenas as tabelas de estados
+ * e as perdas. Ambos terminam com o resumo da parada sequencial, se houve.
+ * Os números seguem o locale padrão, como nos printf de antes.
+ */
+public class RelatorioTexto implements Relatorio {
+    private static final String LINHA_DUPLA = "=========================================================";
+    private static final String LINHA_ESTRELAS = "*********************************************************";
+    private static final String ESPACOS_ESTADO = "           "; // Entre o estado e o tempo
+    
+    private final boolean completo;
+    
+    /**
+     * @param completo true para incluir as métricas de desempenho
+     */
+    public RelatorioTexto(boolean completo) {
+        this.completo = completo;
+    }
+    
+    @Override
+    public void escrever(DadosRelatorio dados, SaidaRelatorio saida) throws IOException {
+        saida.setLocale(Locale.getDefault(Locale.Category.FORMAT));
+        saida.linha(LINHA_DUPLA)
+             .linha("=================    END OF SIMULATION   ================")
+             .linha(LINHA_DUPLA)
+             .linha(LINHA_DUPLA)
+             .linha("======================    REPORT   ======================")
+             .linha(LINHA_DUPLA);
+        
+        ResultadoSimulacao resultado = dados.getResultado();
+        double tempoColeta = dados.getTempoColeta();
+        for (int i = 0; i < dados.getNumFilas(); i++) {
+            saida.linha(LINHA_ESTRELAS);
+            saida.texto("Queue:   ").linha(dados.getNome(i));
+            if (dados.temChegadasExternas(i)) {
+                saida.texto("Arrival: ").linha(dados.getConfig().getChegada(i).toString());
+            }
+            saida.texto("Service: ").linha(dados.getConfig().getAtendimento(i).toString());
+            saida.linha(LINHA_ESTRELAS);
+            
+            // Tabela de estados
+            saida.linha("   State               Time               Probability");
+            int numEstados = resultado.getTemposEstado(i).length;
+            for (int j = 0, fim; j < numEstados; j = fim + 1) {
+                fim = dados.fimFaixa(i, j);
+                double tempo = dados.tempoFaixa(i, j, fim);
+                saida.texto("      ").inteiro(j);
+                int largura = 0; // Largura do rótulo além do primeiro estado
+                if (fim > j) {
+                    saida.caractere('-').inteiro(fim);
+                    largura = 1 + Integer.toString(fim).length();
+                }
+                // Uma faixa ocupa parte dos espaços, para o tempo ficar na coluna das demais linhas
+                saida.texto(ESPACOS_ESTADO.substring(Math.min(largura, ESPACOS_ESTADO.length() - 1)))
+                     .decimal(tempo, 4, 10)
+                     .texto("                ").decimal(tempo / tempoColeta * 100, 2, 5).caractere('%').linha();
+            }
+            saida.texto("Number of losses: ").inteiro(resultado.getPerdas(i)).linha();
+            
+            if (completo) {
+                saida.linha(LINHA_ESTRELAS);
+                saida.linha("Performance Metrics:");
+                saida.texto("Utilization: ").decimal(resultado.getUtilizacao(i) * 100, 2, 5).linha("%");
+                saida.texto("Average Population: ").decimal(resultado.getPopulacaoMedia(i), 2, 5).linha(" clients");
+                saida.texto("Throughput: ").decimal(resultado.getVazao(i), 4).linha(" clients/minute");
+                escreverTempos(saida, "Waiting Time", resultado.getTempoEspera(i));
+                escreverTempos(saida, "Response Time", resultado.getTempoResposta(i));
+                saida.linha(LINHA_ESTRELAS);
+            }
+        }
+        
+        saida.linha(LINHA_DUPLA);
+        saida.texto("Simulation average time: ").decimal(dados.getTempoSimulacao(), 4).linha();
+        if (tempoColeta != dados.getTempoSimulacao()) {
+            saida.texto("Warm-up discarded: ").decimal(dados.getTempoSimulacao() - tempoColeta, 4)
+                 .texto(" (").inteiro(dados.getEventosAquecimento()).linha(" events)");
+        }
+        saida.linha(LINHA_DUPLA);
+        if (dados.getParadaSequencial() != null) {
+            escreverParada(saida, dados.getParadaSequencial());
+        }
+    }
+    
+    /**
+     * Alvo, consumo e intervalos de confiança da parada sequencial
+     */
+    private static void escreverParada(SaidaRelatorio saida, ParadaSequencial parada) throws IOException {
+        saida.linha(LINHA_DUPLA)
+             .linha("===============    SEQUENTIAL STOPPING   ================")
+             .linha(LINHA_DUPLA);
+        saida.texto("Target: relative half-width <= ").decimal(parada.getPrecisaoRelativa() * 100, 2)
+             .texto("% or absolute <= ").texto(String.valueOf(parada.getToleranciaAbsoluta()))
+             .linha(" (95% confidence)");
+        saida.linha(parada.isConvergiu() ? "Status: target reached"
+                                         : "Status: random number limit reached before the target");
+        saida.texto("Batches: ").inteiro(parada.getNumLotes()).texto(" x ").inteiro(parada.getTamanhoLote())
+             .linha(" events");
+        saida.texto("Events processed: ").inteiro(parada.getEventosProcessados()).linha();
+        saida.texto("Random numbers used: ").inteiro(parada.getAleatoriosUsados()).linha();
+        saida.linha(LINHA_ESTRELAS);
+        saida.linha("Queue  Metric               Mean     +/-        Relative");
+        for (int i = 0; i < parada.getNumFilas(); i++) {
+            for (int metrica = 0; metrica < ParadaSequencial.NUM_METRICAS; metrica++) {
+                double media = parada.getMedia(metrica, i);
+                double meiaLargura = parada.getMeiaLargura(metrica, i);
+                String nome = ParadaSequencial.getNomeMetrica(metrica);
+                saida.inteiro(i + 1, 5).texto("  ").texto(nome);
+                for (int c = nome.length(); c < 15; c++) {
+                    saida.caractere(' ');
+                }
+                saida.caractere(' ').decimal(media, 4, 10).texto("  ").decimal(meiaLargura, 4, 9).texto("  ");
+                if (media != 0) {
+                    saida.decimal(100 * meiaLargura / Math.abs(media), 2, 7).caractere('%').linha();
+                } else {
+                    saida.linha("       -");
+                }
+            }
+        }
+        saida.linha(LINHA_DUPLA);
+    }
+    
+    /**
+     * Média, desvio padrão e quantis de tempos medidos por cliente
+     */
+    private static void escreverTempos(SaidaRelatorio saida, String rotulo, EstatisticaOnline tempos)
+            throws IOException {
+        saida.texto("Average ").texto(rotulo);
+        if (tempos.getN() == 0) {
+            saida.linha(": - (no clients)");
+            return;
+        }
+        saida.texto(": ").decimal(tempos.getMedia(), 2, 5)
+             .texto(" minutes (sd ").decimal(tempos.getDesvioPadrao(), 2)
+             .texto("; p50 ").decimal(tempos.getQuantil(0.5), 2)
+             .texto(", p95 ").decimal(tempos.getQuantil(0.95), 2)
+             .texto(", p99 ").decimal(tempos.getQuantil(0.99), 2)
+             .texto("; ").inteiro(tempos.getN()).linha(" clients)");
+    }
+    
+    @Override
+    public String getTipoConteudo() { return "text/plain; charset=utf-8"; }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Classe Replicador - executa replicações independentes de uma mesma rede
+ * em paralelo, cada uma com seu próprio gerador, filas e escalonador.
+ *
+ * Cada replicação usa o subfluxo de mesmo índice do fluxo raiz criado a partir
+ * da semente mestre (por padrão MRG32k3a, cujos subfluxos não se sobrepõem),
+ * e os resultados são agregados na ordem dos índices; assim o resumo é o
+ * mesmo para qualquer número de threads.
+ *
+ * Com replicações antitéticas, as replicações 2k e 2k+1 usam o mesmo subfluxo
+ * k, a segunda com os complementos 1 - U (FluxoAntitetico), e o resumo trata
+ * cada par como uma observação.
+ */
+public class Replicador {
+    private final ConfiguracaoRede config;
+    private final int maxAleatorios;
+    private final FluxoAleatorio fluxoRaiz;
+    private final PeriodoAquecimento aquecimento;
+    private boolean fluxosPorFinalidade;
+    private boolean antitetico;
+    private CacheResultados cache; // Nulo: sem cache
+    
+    /**
+     * Construtor com fluxos MRG32k3a
+     * @param config Configuração da rede, compartilhada (somente leitura) entre as replicações
+     * @param maxAleatorios Número máximo de aleatórios por replicação
+     * @param sementeMestre Semente do fluxo raiz
+     */
+    public Replicador(ConfiguracaoRede config, int maxAleatorios, long sementeMestre) {
+        this(config, maxAleatorios, new FluxoMRG32k3a(sementeMestre));
+    }
+    
+    /**
+     * Construtor com fluxo raiz explícito
+     * @param config Configuração da rede, compartilhada (somente leitura) entre as replicações
+     * @param maxAleatorios Número máximo de aleatórios por replicação
+     * @param fluxoRaiz Fluxo do qual cada replicação recebe um subfluxo
+     */
+    public Replicador(ConfiguracaoRede config, int maxAleatorios, FluxoAleatorio fluxoRaiz) {
+        this(config, maxAleatorios, fluxoRaiz, PeriodoAquecimento.nenhum());
+    }
+    
+    /**
+     * Construtor com período de aquecimento
+     * @param config Configuração da rede, compartilhada (somente leitura) entre as replicações
+     * @param maxAleatorios Número máximo de aleatórios por replicação
+     * @param fluxoRaiz Fluxo do qual cada replicação recebe um subfluxo
+     * @param aquecimento Aquecimento descartado em cada replicação
+     */
+    public Replicador(ConfiguracaoRede config, int maxAleatorios, FluxoAleatorio fluxoRaiz,
+                      PeriodoAquecimento aquecimento) {
+        this.config = config;
+        this.maxAleatorios = maxAleatorios;
+        this.fluxoRaiz = fluxoRaiz;
+        this.aquecimento = aquecimento;
+    }
+    
+    /**
+     * Executa as replicações em um ForkJoinPool
+     * @param numReplicacoes Número de replicações
+     * @param paralelismo Número de threads de trabalho
+     * @return Resumo com médias e intervalos de confiança
+     */
+    public ResumoReplicacoes executar(int numReplicacoes, int paralelismo) {
+        if (antitetico && numReplicacoes % 2 != 0) {
+            throw new IllegalArgumentException("Replicações antitéticas exigem um número par de replicações: "
+                                               + numReplicacoes);
+        }
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<ForkJoinTask<ResultadoSimulacao>> tarefas = new ArrayList<>(numReplicacoes);
+            for (int i = 0; i < numReplicacoes; i++) {
+                final int indice = i;
+                tarefas.add(pool.submit(() -> executarReplicacao(indice)));
+            }
+            
+            ResultadoSimulacao[] resultados = new ResultadoSimulacao[numReplicacoes];
+            for (int i = 0; i < numReplicacoes; i++) {
+                resultados[i] = tarefas.get(i).get();
+            }
+            return new ResumoReplicacoes(config, resultados, antitetico);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replicações interrompidas", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma replicação", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Executa uma única replicação
+     * @param indice Índice da replicação (0 a n-1)
+     * @return Estatísticas finais da replicação
+     */
+    public ResultadoSimulacao executarReplicacao(int indice) {
+        FluxoAleatorio fluxo;
+        if (antitetico) {
+            fluxo = fluxoRaiz.subfluxo(indice / 2);
+            if (indice % 2 == 1) {
+                fluxo = new FluxoAntitetico(fluxo);
+            }
+        } else {
+            fluxo = fluxoRaiz.subfluxo(indice);
+        }
+        Simulador simulador = new Simulador(config, maxAleatorios, fluxo, new CalendarioHeap());
+        simulador.setAquecimento(aquecimento);
+        simulador.setFluxosPorFinalidade(fluxosPorFinalidade);
+        simulador.setCache(cache);
+        return simulador.simular();
+    }
+    
+    /**
+     * Usa, em cada replicação, fluxos separados para chegadas, atendimento e
+     * roteamento de cada fila (números aleatórios comuns entre configurações)
+     * @param ativo true para um fluxo por finalidade
+     */
+    public void setFluxosPorFinalidade(boolean ativo) {
+        this.fluxosPorFinalidade = ativo;
+    }
+    
+    /**
+     * Executa as replicações em pares antitéticos: a replicação ímpar usa os
+     * complementos dos números da replicação par anterior. Combinado com
+     * fluxos por finalidade, cada sorteio do par é feito com o mesmo número
+     * complementado mesmo quando os eventos saem em outra ordem.
+     * @param ativo true para pares antitéticos (exige número par de replicações)
+     */
+    public void setAntitetico(boolean ativo) {
+        this.antitetico = ativo;
+    }
+    
+    /**
+     * Reaproveita replicações já executadas com a mesma configuração, subfluxo e opções
+     * @param cache Cache de resultados, ou null para desativar
+     */
+    public void setCache(CacheResultados cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Método principal
+     * @param args arquivo_entrada, num_aleatorios, replicacoes [, semente_mestre [, threads [, gerador]]]
+     *             [--aquecimento tempo|eventos:N|mser5] [--fluxos-por-finalidade]
+     *             [--antitetico] [--variaveis-controle]
+     */
+    public static void main(String[] args) {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "fluxos-por-finalidade", "antitetico", "variaveis-controle", "cache");
+        if (opcoes.numPosicionais() < 3) {
+            System.out.println("Uso: java Replicador <arquivo_entrada> <num_aleatorios> <replicacoes> [semente_mestre] [threads] [mrg32k3a|xoshiro|lcg]");
+            System.out.println("       [--aquecimento tempo|eventos:N|mser5] [--fluxos-por-finalidade]");
+            System.out.println("       [--antitetico] [--variaveis-controle] [--cache[=diretorio] [--cache-mb N]]");
+            System.exit(1);
+        }
+        
+        int n = opcoes.numPosicionais();
+        ConfiguracaoRede config = ConfiguracaoRede.carregarOuSair(opcoes.posicional(0));
+        int numAleatorios = Integer.parseInt(opcoes.posicional(1));
+        int numReplicacoes = Integer.parseInt(opcoes.posicional(2));
+        long sementeMestre = n > 3 ? Long.parseLong(opcoes.posicional(3)) : Simulador.SEMENTE_PADRAO;
+        int threads = n > 4 ? Integer.parseInt(opcoes.posicional(4)) : Runtime.getRuntime().availableProcessors();
+        FluxoAleatorio fluxoRaiz = FluxoAleatorio.criar(n > 5 ? opcoes.posicional(5) : "mrg32k3a", sementeMestre);
+        PeriodoAquecimento aquecimento = PeriodoAquecimento.interpretar(opcoes.get("aquecimento", "0"));
+        if (opcoes.tem("antitetico") && numReplicacoes % 2 != 0) {
+            System.err.println("--antitetico exige um número par de replicações");
+            System.exit(1);
+        }
+        
+        Replicador replicador = new Replicador(config, numAleatorios, fluxoRaiz, aquecimento);
+        replicador.setFluxosPorFinalidade(opcoes.tem("fluxos-por-finalidade"));
+        replicador.setAntitetico(opcoes.tem("antitetico"));
+        CacheResultados cache = CacheResultados.daLinhaComando(opcoes, "cache");
+        replicador.setCache(cache);
+        ResumoReplicacoes resumo = replicador.executar(numReplicacoes, threads);
+        resumo.gerarRelatorio(System.out);
+        if (opcoes.tem("antitetico") || opcoes.tem("variaveis-controle")) {
+            resumo.gerarRelatorioReducao(System.out, opcoes.tem("variaveis-controle"));
+        }
+        if (cache != null) {
+            System.out.println(cache);
+        }
+    }
+}
\ No newline at end of file
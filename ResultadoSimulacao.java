@@ -0,0 +1,170 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Classe ResultadoSimulacao - estatísticas finais de uma execução, copiadas
+ * das filas ao término da simulação. Independe das instâncias de Fila, de
+ * modo que pode ser agregada, comparada ou armazenada após a execução.
+ */
+public class ResultadoSimulacao {
+    private final double tempoSimulacao;
+    private final double[][] temposEstado;
+    private final int[] perdas;
+    private final int aleatoriosUsados;
+    private final long[] atendidos;
+    private final EstatisticaOnline[] temposEspera;
+    private final EstatisticaOnline[] temposResposta;
+    private final double[] mediasAtendimento;
+    
+    public ResultadoSimulacao(double tempoSimulacao, double[][] temposEstado,
+                              int[] perdas, int aleatoriosUsados, long[] atendidos,
+                              EstatisticaOnline[] temposEspera, EstatisticaOnline[] temposResposta,
+                              double[] mediasAtendimento) {
+        this.tempoSimulacao = tempoSimulacao;
+        this.temposEstado = temposEstado;
+        this.perdas = perdas;
+        this.aleatoriosUsados = aleatoriosUsados;
+        this.atendidos = atendidos;
+        this.temposEspera = temposEspera;
+        this.temposResposta = temposResposta;
+        this.mediasAtendimento = mediasAtendimento;
+    }
+    
+    /**
+     * Copia as estatísticas das filas ao final de uma execução
+     * @param filas Filas simuladas
+     * @param tempoSimulacao Tempo total da simulação
+     * @param aleatoriosUsados Quantidade de números aleatórios consumidos
+     * @return Resultado da execução
+     */
+    public static ResultadoSimulacao capturar(List<Fila> filas, double tempoSimulacao, int aleatoriosUsados) {
+        int numFilas = filas.size();
+        double[][] temposEstado = new double[numFilas][];
+        int[] perdas = new int[numFilas];
+        long[] atendidos = new long[numFilas];
+        EstatisticaOnline[] temposEspera = new EstatisticaOnline[numFilas];
+        EstatisticaOnline[] temposResposta = new EstatisticaOnline[numFilas];
+        double[] mediasAtendimento = new double[numFilas];
+        for (int i = 0; i < numFilas; i++) {
+            Fila fila = filas.get(i);
+            temposEstado[i] = fila.getTemposEstado().clone();
+            perdas[i] = fila.getPerdidos();
+            atendidos[i] = fila.getAtendidos();
+            temposEspera[i] = fila.getTempoEspera().copiar();
+            temposResposta[i] = fila.getTempoResposta().copiar();
+            mediasAtendimento[i] = fila.getMediaAtendimento();
+        }
+        return new ResultadoSimulacao(tempoSimulacao, temposEstado, perdas, aleatoriosUsados,
+                                      atendidos, temposEspera, temposResposta, mediasAtendimento);
+    }
+    
+    /**
+     * Grava o resultado em formato binário (usado pelo cache de resultados)
+     * @param saida Destino dos dados
+     */
+    public void salvar(DataOutputStream saida) throws IOException {
+        saida.writeInt(temposEstado.length);
+        saida.writeDouble(tempoSimulacao);
+        saida.writeInt(aleatoriosUsados);
+        for (int i = 0; i < temposEstado.length; i++) {
+            saida.writeInt(temposEstado[i].length);
+            for (double tempo : temposEstado[i]) {
+                saida.writeDouble(tempo);
+            }
+            saida.writeInt(perdas[i]);
+            saida.writeLong(atendidos[i]);
+            temposEspera[i].salvar(saida);
+            temposResposta[i].salvar(saida);
+            saida.writeDouble(mediasAtendimento[i]);
+        }
+    }
+    
+    /**
+     * Lê um resultado gravado por salvar()
+     * @param entrada Origem dos dados
+     * @return Resultado lido
+     */
+    public static ResultadoSimulacao ler(DataInputStream entrada) throws IOException {
+        int numFilas = entrada.readInt();
+        double tempoSimulacao = entrada.readDouble();
+        int aleatoriosUsados = entrada.readInt();
+        double[][] temposEstado = new double[numFilas][];
+        int[] perdas = new int[numFilas];
+        long[] atendidos = new long[numFilas];
+        EstatisticaOnline[] temposEspera = new EstatisticaOnline[numFilas];
+        EstatisticaOnline[] temposResposta = new EstatisticaOnline[numFilas];
+        double[] mediasAtendimento = new double[numFilas];
+        for (int i = 0; i < numFilas; i++) {
+            temposEstado[i] = new double[entrada.readInt()];
+            for (int j = 0; j < temposEstado[i].length; j++) {
+                temposEstado[i][j] = entrada.readDouble();
+            }
+            perdas[i] = entrada.readInt();
+            atendidos[i] = entrada.readLong();
+            temposEspera[i] = EstatisticaOnline.ler(entrada);
+            temposResposta[i] = EstatisticaOnline.ler(entrada);
+            mediasAtendimento[i] = entrada.readDouble();
+        }
+        return new ResultadoSimulacao(tempoSimulacao, temposEstado, perdas, aleatoriosUsados,
+                                      atendidos, temposEspera, temposResposta, mediasAtendimento);
+    }
+    
+    public int getNumFilas() { return temposEstado.length; }
+    public double getTempoSimulacao() { return tempoSimulacao; }
+    public int getAleatoriosUsados() { return aleatoriosUsados; }
+    public double[] getTemposEstado(int fila) { return temposEstado[fila]; }
+    public int getPerdas(int fila) { return perdas[fila]; }
+    public long getAtendidos(int fila) { return atendidos[fila]; }
+    
+    /**
+     * Tempos de espera (da chegada ao início do atendimento) medidos por cliente
+     */
+    public EstatisticaOnline getTempoEspera(int fila) { return temposEspera[fila]; }
+    
+    /**
+     * Tempos de resposta (da chegada à saída da fila) medidos por cliente
+     */
+    public EstatisticaOnline getTempoResposta(int fila) { return temposResposta[fila]; }
+    
+    /**
+     * Média dos tempos de atendimento sorteados (NaN se nenhum atendimento
+     * começou); sua média teórica é conhecida, o que a torna uma variável de controle
+     */
+    public double getMediaAtendimento(int fila) { return mediasAtendimento[fila]; }
+    
+    /**
+     * @return Vazão: clientes atendidos por unidade de tempo
+     */
+    public double getVazao(int fila) {
+        return atendidos[fila] / tempoSimulacao;
+    }
+    
+    /**
+     * @return Probabilidade (0-1) de a fila estar no estado indicado
+     */
+    public double getProbabilidade(int fila, int estado) {
+        double[] tempos = temposEstado[fila];
+        return estado < tempos.length ? tempos[estado] / tempoSimulacao : 0.0;
+    }
+    
+    /**
+     * @return Utilização (0-1): fração do tempo com pelo menos um cliente
+     */
+    public double getUtilizacao(int fila) {
+        return 1.0 - temposEstado[fila][0] / tempoSimulacao;
+    }
+    
+    /**
+     * @return População média da fila
+     */
+    public double getPopulacaoMedia(int fila) {
+        double[] tempos = temposEstado[fila];
+        double soma = 0.0;
+        for (int i = 0; i < tempos.length; i++) {
+            soma += i * tempos[i];
+        }
+        return soma / tempoSimulacao;
+    }
+}
\ No newline at end of file
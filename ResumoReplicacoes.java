@@ -0,0 +1,229 @@
+import java.io.PrintStream;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Classe ResumoReplicacoes - agrega os resultados de replicações independentes
+ * em médias com intervalos de confiança de 95% (t de Student).
+ *
+ * Com replicações antitéticas, as replicações 2k e 2k+1 formam um par e as
+ * observações independentes são as médias dos pares. O relatório de redução
+ * de variância compara essas estimativas, e as corrigidas pela variável de
+ * controle, com a média simples das replicações.
+ */
+public class ResumoReplicacoes {
+    public static final double CONFIANCA = 0.95;
+    
+    private final ConfiguracaoRede config;
+    private final ResultadoSimulacao[] resultados;
+    private final boolean antitetico;
+    
+    public ResumoReplicacoes(ConfiguracaoRede config, ResultadoSimulacao[] resultados) {
+        this(config, resultados, false);
+    }
+    
+    /**
+     * @param config Configuração da rede simulada
+     * @param resultados Resultados na ordem das replicações
+     * @param antitetico true se as replicações 2k e 2k+1 formam um par antitético
+     */
+    public ResumoReplicacoes(ConfiguracaoRede config, ResultadoSimulacao[] resultados, boolean antitetico) {
+        if (antitetico && resultados.length % 2 != 0) {
+            throw new IllegalArgumentException("Replicações antitéticas exigem um número par de replicações");
+        }
+        this.config = config;
+        this.resultados = resultados;
+        this.antitetico = antitetico;
+    }
+    
+    public int getNumReplicacoes() { return resultados.length; }
+    public boolean isAntitetico() { return antitetico; }
+    public ResultadoSimulacao getResultado(int replicacao) { return resultados[replicacao]; }
+    
+    /**
+     * Extrai uma métrica de cada replicação, na ordem das replicações
+     * @param metrica Função que lê a métrica de um resultado
+     * @return Valores da métrica
+     */
+    public double[] valores(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        double[] valores = new double[resultados.length];
+        for (int i = 0; i < resultados.length; i++) {
+            valores[i] = metrica.applyAsDouble(resultados[i]);
+        }
+        return valores;
+    }
+    
+    /**
+     * Observações independentes de uma métrica: o valor de cada replicação ou,
+     * com pares antitéticos, a média de cada par
+     * @param metrica Função que lê a métrica de um resultado
+     * @return Observações da métrica
+     */
+    public double[] observacoes(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        double[] valores = valores(metrica);
+        if (!antitetico) {
+            return valores;
+        }
+        double[] pares = new double[valores.length / 2];
+        for (int k = 0; k < pares.length; k++) {
+            pares[k] = (valores[2 * k] + valores[2 * k + 1]) / 2.0;
+        }
+        return pares;
+    }
+    
+    public double media(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        return Estatistica.media(observacoes(metrica));
+    }
+    
+    public double meiaLargura(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        return Estatistica.meiaLargura(observacoes(metrica), CONFIANCA);
+    }
+    
+    /**
+     * Fator de redução de variância dos pares antitéticos: variância da média
+     * das replicações tratadas como independentes dividida pela variância da
+     * média dos pares (1 sem pares antitéticos)
+     */
+    public double fatorAntitetico(ToDoubleFunction<ResultadoSimulacao> metrica) {
+        if (!antitetico) {
+            return 1.0;
+        }
+        double[] valores = valores(metrica);
+        double[] pares = observacoes(metrica);
+        double varianciaPares = Estatistica.variancia(pares) / pares.length;
+        return varianciaPares > 0.0 ? Estatistica.variancia(valores) / valores.length / varianciaPares
+                                    : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Estimativa de uma métrica corrigida pela variável de controle da fila:
+     * a média dos tempos de atendimento sorteados, cuja média teórica é a da
+     * distribuição de atendimento da fila
+     * @param metrica Função que lê a métrica de um resultado
+     * @param fila Índice da fila (a partir de 0) que fornece o controle
+     * @return Estimativa com controle, ou null se a fila não atendeu ninguém em alguma replicação
+     */
+    public VariavelControle controle(ToDoubleFunction<ResultadoSimulacao> metrica, int fila) {
+        double[] controles = observacoes(r -> r.getMediaAtendimento(fila));
+        for (double c : controles) {
+            if (Double.isNaN(c)) {
+                return null;
+            }
+        }
+        return VariavelControle.estimar(observacoes(metrica), controles, config.getAtendimento(fila).getMedia(),
+                                        CONFIANCA);
+    }
+    
+    /**
+     * Gera o relatório com média +/- meia-largura do IC de 95% de cada métrica
+     * @param saida Destino do relatório
+     */
+    public void gerarRelatorio(PrintStream saida) {
+        saida.println("=========================================================");
+        saida.println("==============    REPLICATIONS REPORT   ================");
+        saida.println("=========================================================");
+        saida.printf("Replications: %d (mean +/- 95%% confidence half-width)\n", resultados.length);
+        
+        for (int i = 0; i < config.getNumFilas(); i++) {
+            final int fila = i;
+            saida.println("*********************************************************");
+            if (config.getCapacidade(fila) == Fila.CAPACIDADE_INFINITA) {
+                saida.printf("Queue:   FILA%d (G/G/%d)\n", fila + 1, config.getServidores(fila));
+            } else {
+                saida.printf("Queue:   FILA%d (G/G/%d/%d)\n", fila + 1,
+                             config.getServidores(fila), config.getCapacidade(fila));
+            }
+            saida.println("*********************************************************");
+            saida.println("   State               Probability");
+            
+            // Filas infinitas: estados até o maior observado em alguma replicação
+            int numEstados = 0;
+            for (ResultadoSimulacao resultado : resultados) {
+                numEstados = Math.max(numEstados, resultado.getTemposEstado(fila).length);
+            }
+            for (int j = 0; j < numEstados; j++) {
+                final int estado = j;
+                ToDoubleFunction<ResultadoSimulacao> probabilidade = r -> r.getProbabilidade(fila, estado) * 100;
+                saida.printf("      %d           %6.2f%% +/- %5.2f%%\n",
+                             estado, media(probabilidade), meiaLargura(probabilidade));
+            }
+            
+            ToDoubleFunction<ResultadoSimulacao> perdas = r -> r.getPerdas(fila);
+            ToDoubleFunction<ResultadoSimulacao> utilizacao = r -> r.getUtilizacao(fila) * 100;
+            ToDoubleFunction<ResultadoSimulacao> populacao = r -> r.getPopulacaoMedia(fila);
+            saida.printf("Number of losses: %.2f +/- %.2f\n", media(perdas), meiaLargura(perdas));
+            saida.printf("Utilization: %5.2f%% +/- %5.2f%%\n", media(utilizacao), meiaLargura(utilizacao));
+            saida.printf("Average Population: %5.2f +/- %5.2f clients\n", media(populacao), meiaLargura(populacao));
+            
+            ToDoubleFunction<ResultadoSimulacao> vazao = r -> r.getVazao(fila);
+            ToDoubleFunction<ResultadoSimulacao> espera = r -> r.getTempoEspera(fila).getMedia();
+            ToDoubleFunction<ResultadoSimulacao> resposta = r -> r.getTempoResposta(fila).getMedia();
+            saida.printf("Throughput: %.4f +/- %.4f clients/minute\n", media(vazao), meiaLargura(vazao));
+            saida.printf("Average Waiting Time: %5.2f +/- %5.2f minutes\n", media(espera), meiaLargura(espera));
+            saida.printf("Average Response Time: %5.2f +/- %5.2f minutes\n", media(resposta), meiaLargura(resposta));
+        }
+        
+        ToDoubleFunction<ResultadoSimulacao> tempo = ResultadoSimulacao::getTempoSimulacao;
+        saida.println("=========================================================");
+        saida.printf("Simulation average time: %.4f +/- %.4f\n", media(tempo), meiaLargura(tempo));
+        saida.println("=========================================================");
+    }
+    
+    /**
+     * Gera o relatório de redução de variância: para as principais métricas de
+     * cada fila, a média simples das replicações, a estimativa por pares
+     * antitéticos (se houver) e a corrigida pela variável de controle, cada
+     * uma com a meia-largura do IC de 95% e o fator de redução em relação à
+     * média simples
+     * @param saida Destino do relatório
+     * @param comControle true para incluir as estimativas com variável de controle
+     */
+    public void gerarRelatorioReducao(PrintStream saida, boolean comControle) {
+        saida.println("=========================================================");
+        saida.println("=============   VARIANCE REDUCTION REPORT   =============");
+        saida.println("=========================================================");
+        saida.printf("Replications: %d%s\n", resultados.length,
+                     antitetico ? String.format(" (%d antithetic pairs)", resultados.length / 2) : "");
+        saida.println("Mean +/- 95% half-width; factor = variance of the plain mean / variance");
+        saida.println("of the estimator (control: mean service time of the queue)");
+        
+        for (int i = 0; i < config.getNumFilas(); i++) {
+            final int fila = i;
+            saida.println("*********************************************************");
+            saida.printf("Queue:   FILA%d\n", fila + 1);
+            saida.print("  Metric                     Plain");
+            if (antitetico) {
+                saida.print("               Antithetic  factor");
+            }
+            if (comControle) {
+                saida.print("                  Control  factor");
+            }
+            saida.println();
+            imprimirReducao(saida, "Utilization", r -> r.getUtilizacao(fila), fila, comControle);
+            imprimirReducao(saida, "Avg population", r -> r.getPopulacaoMedia(fila), fila, comControle);
+            imprimirReducao(saida, "Throughput", r -> r.getVazao(fila), fila, comControle);
+            imprimirReducao(saida, "Avg response", r -> r.getTempoResposta(fila).getMedia(), fila, comControle);
+        }
+        saida.println("=========================================================");
+    }
+    
+    private void imprimirReducao(PrintStream saida, String rotulo, ToDoubleFunction<ResultadoSimulacao> metrica,
+                                 int fila, boolean comControle) {
+        double[] valores = valores(metrica);
+        saida.printf("  %-14s %9.4f +/- %8.4f", rotulo,
+                     Estatistica.media(valores), Estatistica.meiaLargura(valores, CONFIANCA));
+        double fator = fatorAntitetico(metrica);
+        if (antitetico) {
+            saida.printf("  %9.4f +/- %8.4f %7.2f", media(metrica), meiaLargura(metrica), fator);
+        }
+        if (comControle) {
+            VariavelControle controle = controle(metrica, fila);
+            if (controle != null) {
+                saida.printf("  %9.4f +/- %8.4f %7.2f", controle.getMedia(), controle.getMeiaLargura(),
+                             fator * controle.getFatorReducao());
+            } else {
+                saida.printf("  %24s %7s", "-", "-");
+            }
+        }
+        saida.println();
+    }
+}
\ No newline at end of file
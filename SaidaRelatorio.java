@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Classe SaidaRelatorio - destino dos relatórios. O texto é montado em um
+ * StringBuilder reaproveitado e, a cada bloco (ou no fim), codificado em
+ * UTF-8 num ByteBuffer também reaproveitado e gravado de uma vez; assim um
+ * relatório pequeno sai numa única escrita e o de uma rede grande é enviado
+ * em partes, sem ser montado inteiro na memória.
+ *
+ * Os números são escritos direto no StringBuilder, sem Formatter. decimal()
+ * produz exatamente o texto de String.format("%.Nf"): o arredondamento é
+ * feito em aritmética inteira e, nos raros valores próximos de um empate,
+ * delegado ao próprio String.format.
+ */
+public class SaidaRelatorio implements AutoCloseable {
+    private static final int TAMANHO_BLOCO = 1 << 16; // Caracteres por escrita
+    private static final long[] POTENCIAS_DEZ = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+    
+    private final OutputStream destino;
+    private final StringBuilder texto = new StringBuilder(TAMANHO_BLOCO + 1024);
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocate(4 * TAMANHO_BLOCO);
+    private char separadorDecimal = '.';
+    private Locale locale = Locale.ROOT;
+    
+    /**
+     * @param destino Fluxo de saída (não é fechado por close())
+     */
+    public SaidaRelatorio(OutputStream destino) {
+        this.destino = destino;
+        codificador.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    
+    /**
+     * Usa o separador decimal de um locale (o relatório em texto segue o
+     * locale padrão, como os printf que ele substitui; CSV e JSON usam o ponto)
+     */
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+        this.separadorDecimal = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+    }
+    
+    public SaidaRelatorio texto(String valor) throws IOException {
+        texto.append(valor);
+        return descarregarSeCheio();
+    }
+    
+    public SaidaRelatorio caractere(char valor) throws IOException {
+        texto.append(valor);
+        return descarregarSeCheio();
+    }
+    
+    public SaidaRelatorio linha() throws IOException {
+        texto.append('\n');
+        return descarregarSeCheio();
+    }
+    
+    public SaidaRelatorio linha(String valor) throws IOException {
+        texto.append(valor).append('\n');
+        return descarregarSeCheio();
+    }
+    
+    public SaidaRelatorio inteiro(long valor) throws IOException {
+        texto.append(valor);
+        return descarregarSeCheio();
+    }
+    
+    /**
+     * Inteiro alinhado à direita, como "%Nd"
+     */
+    public SaidaRelatorio inteiro(long valor, int largura) throws IOException {
+        int inicio = texto.length();
+        texto.append(valor);
+        return alinhar(inicio, largura);
+    }
+    
+    /**
+     * Número com casas decimais fixas, como "%.Nf"
+     * @param valor Valor
+     * @param casas Casas decimais (0 a 9)
+     */
+    public SaidaRelatorio decimal(double valor, int casas) throws IOException {
+        anexarDecimal(valor, casas);
+        return descarregarSeCheio();
+    }
+    
+    /**
+     * Número com casas decimais fixas, alinhado à direita, como "%L.Nf"
+     */
+    public SaidaRelatorio decimal(double valor, int casas, int largura) throws IOException {
+        int inicio = texto.length();
+        anexarDecimal(valor, casas);
+        return alinhar(inicio, largura);
+    }
+    
+    /**
+     * Texto entre aspas, com os caracteres especiais do JSON escapados
+     */
+    public SaidaRelatorio json(String valor) throws IOException {
+        escaparJson(texto, valor);
+        return descarregarSeCheio();
+    }
+    
+    /**
+     * Acrescenta o texto entre aspas, com os caracteres especiais do JSON escapados
+     */
+    static void escaparJson(StringBuilder destino, String valor) {
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                destino.append('\\').append(c);
+            } else if (c < 0x20) {
+                destino.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                destino.append(c);
+            }
+        }
+        destino.append('"');
+    }
+    
+    /**
+     * Campo de CSV, entre aspas apenas se contiver vírgula, aspas ou quebra de linha
+     */
+    public SaidaRelatorio csv(String valor) throws IOException {
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            return texto(valor);
+        }
+        texto.append('"').append(valor.replace("\"", "\"\"")).append('"');
+        return descarregarSeCheio();
+    }
+    
+    private SaidaRelatorio alinhar(int inicio, int largura) throws IOException {
+        int faltam = largura - (texto.length() - inicio);
+        if (faltam > 0) {
+            texto.insert(inicio, "                                ", 0, Math.min(faltam, 32));
+            for (faltam -= 32; faltam > 0; faltam--) {
+                texto.insert(inicio, ' ');
+            }
+        }
+        return descarregarSeCheio();
+    }
+    
+    private void anexarDecimal(double valor, int casas) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            texto.append(valor < 0 ? "-Infinity" : (valor > 0 ? "Infinity" : "NaN"));
+            return;
+        }
+        double absoluto = Math.abs(valor);
+        double escalado = absoluto * POTENCIAS_DEZ[casas];
+        double folga = escalado * 1e-14 + 1e-9; // Erro possível do produto e do valor decimal mais curto
+        if (escalado < 1e15) {
+            long inteiro = (long) escalado;
+            double fracao = escalado - inteiro;
+            if (Math.abs(fracao - 0.5) > folga) {
+                long arredondado = fracao > 0.5 ? inteiro + 1 : inteiro;
+                if (Double.doubleToRawLongBits(valor) < 0) {
+                    texto.append('-'); // Inclusive -0.0, como no Formatter
+                }
+                texto.append(arredondado / POTENCIAS_DEZ[casas]);
+                if (casas > 0) {
+                    texto.append(separadorDecimal);
+                    long parteFracionaria = arredondado % POTENCIAS_DEZ[casas];
+                    for (int c = casas - 1; c > 0 && parteFracionaria < POTENCIAS_DEZ[c]; c--) {
+                        texto.append('0');
+                    }
+                    texto.append(parteFracionaria);
+                }
+                return;
+            }
+        }
+        texto.append(String.format(locale, "%." + casas + "f", valor));
+    }
+    
+    private SaidaRelatorio descarregarSeCheio() throws IOException {
+        if (texto.length() >= TAMANHO_BLOCO) {
+            descarregar();
+        }
+        return this;
+    }
+    
+    /**
+     * Grava o texto acumulado
+     * @throws IOException Se o destino falhar
+     */
+    public void descarregar() throws IOException {
+        CharBuffer caracteres = CharBuffer.wrap(texto);
+        codificador.reset();
+        CoderResult resultado = codificador.encode(caracteres, bytes, true);
+        while (resultado.isOverflow()) {
+            gravarBytes();
+            resultado = codificador.encode(caracteres, bytes, true);
+        }
+        while (codificador.flush(bytes).isOverflow()) {
+            gravarBytes();
+        }
+        gravarBytes();
+        texto.setLength(0);
+        destino.flush();
+    }
+    
+    private void gravarBytes() throws IOException {
+        destino.write(bytes.array(), 0, bytes.position());
+        bytes.clear();
+    }
+    
+    /**
+     * Grava o que falta; o destino continua aberto
+     */
+    @Override
+    public void close() throws IOException {
+        descarregar();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,335 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe ServicoSimulacao - serviço HTTP local (apenas loopback) que executa
+ * simulações sob demanda numa JVM já aquecida, sem o custo de iniciar um
+ * processo e reler a configuração a cada execução.
+ *
+ *   POST /simular?aleatorios=N&semente=S&gerador=lcg&calendario=heap&aquecimento=...&formato=json&limiar=p
+ *                &precisao=r&tolerancia=a
+ *        corpo: texto da configuração, no formato do arquivo de entrada
+ *   GET  /simular?arquivo=config.txt&aleatorios=N...
+ *        configuração lida de um arquivo do servidor (relativo ao diretório do serviço,
+ *        sem sair dele; o mesmo vale para os arquivos das distribuições empíricas)
+ *   GET  /estado
+ *
+ * A resposta de /simular é o relatório da simulação em JSON (ou no formato
+ * pedido: texto, csv ou csv-estados, ver Relatorio), enviado em blocos à
+ * medida que é formatado. Cada requisição roda em uma thread virtual quando a JVM
+ * as oferece (Java 21+), ou em um pool de threads comum; o número de
+ * simulações executando ao mesmo tempo é limitado por permissões de CPU, e
+ * as demais esperam. As configurações interpretadas ficam em um cache LRU,
+ * indexado pelo SHA-256 do texto (ou pelo arquivo e sua data de
+ * modificação), e os resultados de execuções idênticas vêm do cache de
+ * resultados, sem simular.
+ */
+public class ServicoSimulacao {
+    private static final int TAMANHO_MAXIMO_CORPO = 16 << 20; // Bytes
+    private static final int FILA_CONEXOES = 1024; // Conexões aguardando aceitação
+    
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+    private final Semaphore permissoes;
+    private final int numPermissoes;
+    private final CacheConfiguracoes cache;
+    private final CacheResultados resultados;
+    private final Path diretorio;
+    private final AtomicLong simulacoes = new AtomicLong();
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    
+    /**
+     * @param porta Porta TCP no endereço de loopback (0 para uma porta livre)
+     * @param numPermissoes Número máximo de simulações executando ao mesmo tempo
+     * @param tamanhoCache Número de configurações mantidas no cache
+     * @param diretorio Diretório dos arquivos de configuração e das distribuições empíricas
+     * @param resultados Cache de resultados das simulações
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public ServicoSimulacao(int porta, int numPermissoes, int tamanhoCache, Path diretorio,
+                            CacheResultados resultados) throws IOException {
+        if (numPermissoes < 1) {
+            throw new IllegalArgumentException("Número de permissões inválido: " + numPermissoes);
+        }
+        this.numPermissoes = numPermissoes;
+        this.permissoes = new Semaphore(numPermissoes, true);
+        this.cache = new CacheConfiguracoes(tamanhoCache);
+        this.diretorio = diretorio.toAbsolutePath();
+        this.resultados = resultados;
+        
+        ExecutorService virtual = criarExecutorVirtual();
+        this.threadsVirtuais = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "servico-simulacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta),
+                                          FILA_CONEXOES);
+        servidor.setExecutor(executor);
+        servidor.createContext("/simular", this::responderSimulacao);
+        servidor.createContext("/estado", this::responderEstado);
+    }
+    
+    /**
+     * Executor com uma thread virtual por tarefa, obtido por reflexão para que
+     * o serviço também compile e rode em JVMs sem threads virtuais
+     * @return Executor, ou null se a JVM não oferece threads virtuais
+     */
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    public void iniciar() {
+        servidor.start();
+    }
+    
+    /**
+     * Para de aceitar requisições e encerra as threads
+     * @param segundos Tempo máximo de espera pelas requisições em andamento
+     */
+    public void parar(int segundos) {
+        servidor.stop(segundos);
+        executor.shutdownNow();
+    }
+    
+    public int getPorta() { return servidor.getAddress().getPort(); }
+    public boolean isThreadsVirtuais() { return threadsVirtuais; }
+    public long getSimulacoes() { return simulacoes.get(); }
+    
+    /**
+     * Executa uma simulação e devolve o relatório em JSON
+     */
+    private void responderSimulacao(HttpExchange troca) throws IOException {
+        try {
+            String metodo = troca.getRequestMethod();
+            if (!metodo.equals("POST") && !metodo.equals("GET")) {
+                responderErro(troca, 405, "Método não suportado: " + metodo);
+                return;
+            }
+            Map<String, String> parametros = lerParametros(troca.getRequestURI().getRawQuery());
+            Simulador simulador;
+            Relatorio relatorio;
+            try {
+                ConfiguracaoRede config = metodo.equals("POST")
+                    ? configuracaoDoCorpo(lerCorpo(troca.getRequestBody()))
+                    : configuracaoDoArquivo(parametros.get("arquivo"));
+                int maxAleatorios = Integer.parseInt(parametros.getOrDefault("aleatorios", "100000"));
+                if (maxAleatorios < 1) {
+                    throw new IllegalArgumentException("Número de aleatórios inválido: " + maxAleatorios);
+                }
+                long semente = Long.parseLong(parametros.getOrDefault("semente", String.valueOf(Simulador.SEMENTE_PADRAO)));
+                simulador = new Simulador(config, maxAleatorios,
+                                          FluxoAleatorio.criar(parametros.getOrDefault("gerador", "lcg"), semente),
+                                          CalendarioEventos.criar(parametros.getOrDefault("calendario", "heap")));
+                simulador.setAquecimento(PeriodoAquecimento.interpretar(parametros.getOrDefault("aquecimento", "0")));
+                simulador.setCache(resultados);
+                simulador.setLimiarEstados(Double.parseDouble(parametros.getOrDefault("limiar", "0")));
+                if (parametros.containsKey("precisao")) {
+                    simulador.setParadaSequencial(new ParadaSequencial(Double.parseDouble(parametros.get("precisao")),
+                        Double.parseDouble(parametros.getOrDefault("tolerancia",
+                                                                   String.valueOf(ParadaSequencial.TOLERANCIA_ABSOLUTA_PADRAO)))));
+                }
+                relatorio = Relatorio.criar(parametros.getOrDefault("formato", "json"));
+            } catch (IOException e) {
+                responderErro(troca, 404, "Arquivo não encontrado: " + parametros.get("arquivo"));
+                return;
+            } catch (ConfiguracaoInvalidaException e) {
+                // O conteúdo de um arquivo do servidor não é repetido na resposta, só a linha
+                responderErro(troca, 400, metodo.equals("POST") ? "Configuração inválida: " + e.getMessage()
+                    : "Configuração inválida em " + parametros.get("arquivo")
+                      + (e.getLinha() > 0 ? ", linha " + e.getLinha() : ""));
+                return;
+            } catch (RuntimeException e) {
+                responderErro(troca, 400, "Configuração ou parâmetros inválidos: " + e);
+                return;
+            }
+            
+            // A simulação ocupa uma permissão; o envio da resposta não
+            permissoes.acquire();
+            emAndamento.incrementAndGet();
+            try {
+                simulador.simular();
+            } finally {
+                emAndamento.decrementAndGet();
+                permissoes.release();
+            }
+            simulacoes.incrementAndGet();
+            
+            troca.getResponseHeaders().set("Content-Type", relatorio.getTipoConteudo());
+            troca.sendResponseHeaders(200, 0);
+            try (OutputStream corpo = troca.getResponseBody()) {
+                simulador.gerarRelatorio(relatorio, corpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            responderErro(troca, 503, "Serviço encerrando");
+        } catch (RuntimeException e) {
+            responderErro(troca, 500, "Falha na simulação: " + e);
+        } finally {
+            troca.close();
+        }
+    }
+    
+    /**
+     * Mostra o estado do serviço
+     */
+    private void responderEstado(HttpExchange troca) throws IOException {
+        try {
+            String json = String.format(Locale.ROOT,
+                "{\"simulacoes\": %d, \"emAndamento\": %d, \"permissoes\": %d, \"configuracoesEmCache\": %d,"
+                + " \"threadsVirtuais\": %b, \"acertosCacheMemoria\": %d, \"acertosCacheDisco\": %d,"
+                + " \"faltasCache\": %d}\n",
+                simulacoes.get(), emAndamento.get(), numPermissoes, cache.tamanho(), threadsVirtuais,
+                resultados.getAcertosMemoria(), resultados.getAcertosDisco(), resultados.getFaltas());
+            enviar(troca, 200, json);
+        } finally {
+            troca.close();
+        }
+    }
+    
+    /**
+     * Configuração enviada no corpo, em texto ou no formato binário
+     */
+    private ConfiguracaoRede configuracaoDoCorpo(byte[] corpo) {
+        String chave = "corpo:" + CacheResultados.chave(corpo); // O corpo em si não fica no cache
+        ConfiguracaoRede config = cache.obter(chave);
+        if (config == null) {
+            config = LeitorConfiguracao.interpretar(corpo, null, diretorio, diretorio);
+            cache.guardar(chave, config);
+        }
+        return config;
+    }
+    
+    private ConfiguracaoRede configuracaoDoArquivo(String nome) throws IOException {
+        if (nome == null) {
+            throw new IllegalArgumentException("Informe o parâmetro arquivo ou envie a configuração por POST");
+        }
+        Path arquivo = diretorio.resolve(nome).normalize();
+        if (!LeitorConfiguracao.dentroDe(arquivo, diretorio)) {
+            throw new IllegalArgumentException("Arquivo fora do diretório do serviço: " + nome);
+        }
+        String chave = "arquivo:" + arquivo + ":" + Files.getLastModifiedTime(arquivo).toMillis();
+        ConfiguracaoRede config = cache.obter(chave);
+        if (config == null) {
+            config = LeitorConfiguracao.ler(arquivo, diretorio);
+            cache.guardar(chave, config);
+        }
+        return config;
+    }
+    
+    private static byte[] lerCorpo(InputStream entrada) throws IOException {
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int lidos;
+        while ((lidos = entrada.read(buffer)) > 0) {
+            corpo.write(buffer, 0, lidos);
+            if (corpo.size() > TAMANHO_MAXIMO_CORPO) {
+                throw new IllegalArgumentException("Configuração maior que " + TAMANHO_MAXIMO_CORPO + " bytes");
+            }
+        }
+        return corpo.toByteArray();
+    }
+    
+    private static Map<String, String> lerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nome, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+    
+    private static void responderErro(HttpExchange troca, int codigo, String mensagem) throws IOException {
+        enviar(troca, codigo, "{\"erro\": " + RelatorioJson.textoJson(mensagem) + "}\n");
+    }
+    
+    private static void enviar(HttpExchange troca, int codigo, String json) throws IOException {
+        byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(codigo, corpo.length);
+        troca.getResponseBody().write(corpo);
+    }
+    
+    /**
+     * Cache LRU das configurações interpretadas, compartilhado pelas requisições
+     */
+    private static final class CacheConfiguracoes {
+        private final LinkedHashMap<String, ConfiguracaoRede> entradas;
+        
+        CacheConfiguracoes(int capacidade) {
+            this.entradas = new LinkedHashMap<String, ConfiguracaoRede>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ConfiguracaoRede> maisAntiga) {
+                    return size() > capacidade;
+                }
+            };
+        }
+        
+        synchronized ConfiguracaoRede obter(String chave) {
+            return entradas.get(chave);
+        }
+        
+        synchronized void guardar(String chave, ConfiguracaoRede config) {
+            entradas.put(chave, config);
+        }
+        
+        synchronized int tamanho() {
+            return entradas.size();
+        }
+    }
+    
+    /**
+     * Método principal
+     * @param args [--porta 8080] [--permissoes N] [--cache N] [--diretorio dir]
+     *             [--cache-resultados[=diretorio] [--cache-mb N]] [--cache-memoria N]
+     */
+    public static void main(String[] args) throws IOException {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "cache-resultados");
+        CacheResultados resultados = CacheResultados.daLinhaComando(opcoes, "cache-resultados");
+        if (resultados == null) {
+            resultados = new CacheResultados(opcoes.getInt("cache-memoria", CacheResultados.ENTRADAS_MEMORIA_PADRAO),
+                                             null, 0);
+        }
+        ServicoSimulacao servico = new ServicoSimulacao(opcoes.getInt("porta", 8080),
+                                                        opcoes.getInt("permissoes", Runtime.getRuntime().availableProcessors()),
+                                                        opcoes.getInt("cache", 64),
+                                                        Paths.get(opcoes.get("diretorio", ".")), resultados);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> servico.parar(1)));
+        servico.iniciar();
+        System.out.printf("Serviço de simulação em http://127.0.0.1:%d/simular (%s, %d permissões)\n",
+                          servico.getPorta(), servico.isThreadsVirtuais() ? "threads virtuais" : "pool de threads",
+                          servico.numPermissoes);
+    }
+}
\ No newline at end of file
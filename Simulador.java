@@ -1,21 +1,38 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
  * Classe Simulador - classe principal que coordena a simulação da rede de filas
  */
 public class Simulador {
+    public static final long SEMENTE_PADRAO = 123456789L; // Semente fixa para reprodutibilidade
+    
     private final int MAX_ALEATORIOS;
+    private final ConfiguracaoRede config;
     private final List<Fila> filas;
     private final GeradorAleatorio gerador;
     private final Escalonador escalonador;
-    private final double[][] matrizRoteamento;
     private double tempoSimulacao;
+    private double tempoColeta; // Tempo observado após o aquecimento
+    private PeriodoAquecimento aquecimento = PeriodoAquecimento.nenhum();
+    private ParadaSequencial parada; // Nula: executa até MAX_ALEATORIOS
+    private GravadorCheckpoint checkpoint; // Nulo: sem checkpoints
+    private boolean retomada; // Estado restaurado de um checkpoint
+    private boolean comTrace;
+    private ResultadoSimulacao resultado;
+    private long eventosAquecimento;
+    private CacheResultados cache; // Nulo: sem cache
+    private double limiarEstados;
+    private final String identidadeFluxo;
+    private final String nomeCalendario;
     
     /**
      * Construtor
@@ -23,312 +40,420 @@ public class Simulador {
      * @param maxAleatorios Número máximo de aleatórios a serem usados
      */
     public Simulador(String arquivoEntrada, int maxAleatorios) {
+        this(arquivoEntrada, maxAleatorios, new CalendarioHeap());
+    }
+    
+    /**
+     * Construtor com calendário de eventos explícito
+     * @param arquivoEntrada Nome do arquivo de configuração
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @param calendario Implementação da agenda de eventos usada pelo escalonador
+     */
+    public Simulador(String arquivoEntrada, int maxAleatorios, CalendarioEventos calendario) {
+        this(ConfiguracaoRede.carregar(arquivoEntrada), maxAleatorios, SEMENTE_PADRAO, calendario);
+    }
+    
+    /**
+     * Construtor a partir de uma configuração já carregada
+     * @param config Configuração da rede; as filas são criadas a partir dela
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @param semente Semente do gerador de números aleatórios
+     * @param calendario Implementação da agenda de eventos usada pelo escalonador
+     */
+    public Simulador(ConfiguracaoRede config, int maxAleatorios, long semente, CalendarioEventos calendario) {
+        this(config, maxAleatorios, new FluxoLCG(semente), calendario);
+    }
+    
+    /**
+     * Construtor com fluxo de números aleatórios explícito
+     * @param config Configuração da rede; as filas são criadas a partir dela
+     * @param maxAleatorios Número máximo de aleatórios a serem usados
+     * @param fluxo Fonte dos números aleatórios (LCG, MRG32k3a, xoshiro...)
+     * @param calendario Implementação da agenda de eventos usada pelo escalonador
+     */
+    public Simulador(ConfiguracaoRede config, int maxAleatorios, FluxoAleatorio fluxo, CalendarioEventos calendario) {
         this.MAX_ALEATORIOS = maxAleatorios;
-        this.filas = new ArrayList<>();
-        this.gerador = new GeradorAleatorio(123456789L); // Semente fixa para reprodutibilidade
+        this.config = config;
+        this.filas = config.criarFilas();
+        this.gerador = new GeradorAleatorio(fluxo, GeradorAleatorio.TAMANHO_BLOCO_PADRAO);
         this.tempoSimulacao = 0.0;
-        
-        // Carrega a configuração do arquivo
-        int numFilas = carregarEntrada(arquivoEntrada);
-        this.matrizRoteamento = new double[numFilas + 1][numFilas + 1];
-        carregarMatrizRoteamento(arquivoEntrada, numFilas);
+        this.identidadeFluxo = fluxo.identidade();
+        this.nomeCalendario = calendario.getClass().getSimpleName();
         
         // Cria o escalonador
-        this.escalonador = new Escalonador(filas, matrizRoteamento, gerador);
+        this.escalonador = new Escalonador(filas, config.getTabelaRoteamento(), gerador, calendario);
     }
     /**
- * Gera o relatório da simulação em um arquivo de texto
- * @param nomeArquivo Nome do arquivo de saída
- */
-public void gerarRelatorioArquivo(String nomeArquivo) {
-    try (PrintWriter writer = new PrintWriter(new FileWriter(nomeArquivo))) {
-        writer.println("=========================================================");
-        writer.println("=================    END OF SIMULATION   ================");
-        writer.println("=========================================================");
-        writer.println("=========================================================");
-        writer.println("======================    REPORT   ======================");
-        writer.println("=========================================================");
+     * Gera o relatório completo da simulação em um arquivo de texto
+     * @param nomeArquivo Nome do arquivo de saída
+     */
+    public void gerarRelatorioArquivo(String nomeArquivo) {
+        try (OutputStream arquivo = Files.newOutputStream(Paths.get(nomeArquivo))) {
+            gerarRelatorio(new RelatorioTexto(true), arquivo);
+            System.out.println("Relatório gerado com sucesso no arquivo: " + nomeArquivo);
+        } catch (IOException e) {
+            System.err.println("Erro ao gerar relatório: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Escreve o relatório da última execução em um formato
+     * @param relatorio Formato (ver Relatorio.criar)
+     * @param destino Fluxo de saída, que continua aberto
+     * @throws IOException Se o destino falhar
+     */
+    public void gerarRelatorio(Relatorio relatorio, OutputStream destino) throws IOException {
+        SaidaRelatorio saida = new SaidaRelatorio(destino);
+        relatorio.escrever(getDadosRelatorio(), saida);
+        saida.close();
+    }
+    
+    /**
+     * @return Conteúdo do relatório da última execução
+     */
+    public DadosRelatorio getDadosRelatorio() {
+        DadosRelatorio dados = new DadosRelatorio(config, resultado, tempoSimulacao, eventosAquecimento);
+        dados.setLimiarEstados(limiarEstados);
+        dados.setParadaSequencial(parada);
+        return dados;
+    }
+    
+    /**
+     * Executa a simulação
+     */
+    public void executar() {
+        simular();
         
-        for (int i = 0; i < filas.size(); i++) {
-            Fila fila = filas.get(i);
-            writer.println("*********************************************************");
-            
-            // Nome da fila e caracterização usando notação de Kendall
-            // Formato: G/G/m/K onde m é número de servidores e K é capacidade
-            String nomeConfig = String.format("FILA%d (G/G/%d/%d)", 
-                                             i+1, 
-                                             fila.Servers(), 
-                                             fila.Capacity());
-            
-            // Caso especial para fila sem capacidade finita (G/G/m)
-            if (fila.Capacity() == Integer.MAX_VALUE) {
-                nomeConfig = String.format("FILA%d (G/G/%d)", i+1, fila.Servers());
+        // Gera o relatório
+        gerarRelatorio();
+    }
+    
+    /**
+     * Executa a simulação sem gerar relatório
+     * @return Estatísticas finais da execução
+     */
+    public ResultadoSimulacao simular() {
+        String chave = chaveCache();
+        if (chave != null) {
+            byte[] salvo = cache.obter(chave);
+            if (salvo != null) {
+                try {
+                    DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(salvo));
+                    tempoSimulacao = entrada.readDouble();
+                    eventosAquecimento = entrada.readLong();
+                    resultado = ResultadoSimulacao.ler(entrada);
+                    tempoColeta = resultado.getTempoSimulacao();
+                    return resultado;
+                } catch (IOException e) {
+                    System.err.println("Resultado inválido no cache, simulando novamente: " + e.getMessage());
+                }
             }
+        }
+        
+        // Numa retomada, o aquecimento já foi feito na execução original
+        if (!retomada) {
+            // Inicializa o escalonador
+            escalonador.inicializar(2.0); // Primeiro cliente chega no tempo 2.0
             
-            writer.println("Queue:   " + nomeConfig);
-            
-            // Só imprime os tempos de chegada para filas que têm chegadas externas
-            if (fila.getMinChegada() > 0 || fila.getMaxChegada() > 0) {
-                writer.printf("Arrival: %.1f ... %.1f\n", fila.getMinChegada(), fila.getMaxChegada());
+            // Descarta o transiente inicial, se configurado
+            if (!aquecimento.isNenhum()) {
+                double tempoLimite = aquecimento.isAutomatico() ? detectarAquecimento()
+                    : (aquecimento.getEventos() > 0 ? Double.POSITIVE_INFINITY : aquecimento.getTempo());
+                long eventosLimite = aquecimento.getEventos() > 0 ? aquecimento.getEventos() : Long.MAX_VALUE;
+                escalonador.aquecer(tempoLimite, eventosLimite, MAX_ALEATORIOS);
             }
-            
-            writer.printf("Service: %.1f ... %.1f\n", fila.getMinAtendimento(), fila.getMaxAtendimento());
-            writer.println("*********************************************************");
-            
-            // Tabela de estados
-            writer.println("   State               Time               Probability");
-            
-            double[] temposEstado = fila.getTemposEstado();
-            for (int j = 0; j < temposEstado.length; j++) {
-                double probabilidade = (temposEstado[j] / tempoSimulacao) * 100;
-                writer.printf("      %d           %10.4f                %5.2f%%\n", 
-                             j, temposEstado[j], probabilidade);
+        }
+        
+        // Executa a simulação, até a precisão pedida ou até MAX_ALEATORIOS
+        if (parada != null) {
+            parada.executar(escalonador, filas, gerador, MAX_ALEATORIOS);
+            tempoSimulacao = escalonador.encerrar();
+        } else if (checkpoint != null) {
+            // Em lotes de eventos, com um checkpoint entre cada lote
+            while (escalonador.executarEventos(checkpoint.getIntervaloEventos(), MAX_ALEATORIOS)) {
+                try {
+                    checkpoint.gravar(escalonador);
+                } catch (IOException e) {
+                    System.err.println("Erro ao gravar checkpoint: " + e.getMessage());
+                    checkpoint = null;
+                    escalonador.executar(MAX_ALEATORIOS);
+                    break;
+                }
             }
-            
-            // Número de perdas
-            writer.println("Number of losses: " + fila.getPerdidos());
-            
-            // Calcular e mostrar índices de desempenho adicionais
-            double utilizacao = calcularUtilizacao(fila, temposEstado);
-            double populacaoMedia = calcularPopulacaoMedia(temposEstado);
-            double tempoMedioSistema = estimarTempoMedioNoSistema(fila, populacaoMedia);
-            
-            writer.println("*********************************************************");
-            writer.println("Performance Metrics:");
-            writer.printf("Utilization: %5.2f%%\n", utilizacao * 100);
-            writer.printf("Average Population: %5.2f clients\n", populacaoMedia);
-            writer.printf("Estimated Average Response Time: %5.2f minutes\n", tempoMedioSistema);
-            writer.println("*********************************************************");
+            tempoSimulacao = escalonador.encerrar();
+        } else {
+            tempoSimulacao = escalonador.executar(MAX_ALEATORIOS);
         }
+        tempoColeta = tempoSimulacao - escalonador.getTempoInicioColeta();
         
-        writer.println("=========================================================");
-        writer.printf("Simulation average time: %.4f\n", tempoSimulacao);
-        writer.println("=========================================================");
+        resultado = ResultadoSimulacao.capturar(filas, tempoColeta, gerador.getContador());
+        eventosAquecimento = escalonador.getEventosAquecimento();
         
-        System.out.println("Relatório gerado com sucesso no arquivo: " + nomeArquivo);
-    } catch (IOException e) {
-        System.err.println("Erro ao gerar relatório: " + e.getMessage());
+        if (chave != null) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream saida = new DataOutputStream(bytes);
+                saida.writeDouble(tempoSimulacao);
+                saida.writeLong(eventosAquecimento);
+                resultado.salvar(saida);
+                saida.flush();
+                cache.guardar(chave, bytes.toByteArray());
+            } catch (IOException e) {
+                System.err.println("Erro ao guardar resultado no cache: " + e.getMessage());
+            }
+        }
+        return resultado;
     }
-}
-
-/**
- * Calcula a utilização dos servidores com base nos tempos dos estados
- * @param fila A fila analisada
- * @param temposEstado Array com os tempos em cada estado
- * @return Taxa de utilização (0-1)
- */
-private double calcularUtilizacao(Fila fila, double[] temposEstado) {
-    double tempoTotalDesocupado = temposEstado[0];
-    return 1.0 - (tempoTotalDesocupado / tempoSimulacao);
-}
-
-/**
- * Calcula a população média com base nos tempos dos estados
- * @param temposEstado Array com os tempos em cada estado
- * @return População média
- */
-private double calcularPopulacaoMedia(double[] temposEstado) {
-    double soma = 0.0;
-    for (int i = 0; i < temposEstado.length; i++) {
-        soma += i * temposEstado[i];
+    
+    /**
+     * Chave da execução no cache: configuração, fluxo (tipo, semente e
+     * finalidades), limite de aleatórios, aquecimento e calendário
+     * @return Chave, ou null se não há cache ou se a execução não pode ser
+     *         reaproveitada (retomada, checkpoints, trace ou parada sequencial)
+     */
+    private String chaveCache() {
+        if (cache == null || retomada || checkpoint != null || comTrace || parada != null) {
+            return null;
+        }
+        return CacheResultados.chave("simulador", config.textoCanonico(), identidadeFluxo,
+                                     "finalidades=" + gerador.getNumFinalidades(), "aleatorios=" + MAX_ALEATORIOS,
+                                     "aquecimento=" + aquecimento, "calendario=" + nomeCalendario);
     }
-    return soma / tempoSimulacao;
-}
-
-/**
- * Estima o tempo médio que um cliente passa no sistema (Lei de Little)
- * @param fila A fila analisada
- * @param populacaoMedia População média calculada
- * @return Tempo médio estimado no sistema
- */
-private double estimarTempoMedioNoSistema(Fila fila, double populacaoMedia) {
-    // Vazão estimada (clientes por unidade de tempo)
-    double taxaChegadaEfetiva = populacaoMedia / 
-        ((fila.getMinAtendimento() + fila.getMaxAtendimento()) / 2.0);
     
-    // Aplicando a Lei de Little: E[N] = λ * E[T]
-    if (taxaChegadaEfetiva > 0) {
-        return populacaoMedia / taxaChegadaEfetiva;
-    } else {
-        return 0.0;
+    /**
+     * Executa uma simulação piloto com a mesma semente e o limite de aleatórios
+     * do piloto (padrão: 1/DIVISOR_PILOTO_PADRAO do da execução), e aplica a
+     * regra MSER-5 à população total da rede
+     * @return Tempo de simulação em que o aquecimento termina
+     */
+    private double detectarAquecimento() {
+        GeradorAleatorio geradorPiloto = new GeradorAleatorio(gerador.getFluxo().reiniciado(),
+                                                              gerador.getTamanhoBloco());
+        if (gerador.getNumFinalidades() > 0) {
+            geradorPiloto.separarFinalidades(gerador.getNumFinalidades());
+        }
+        Escalonador piloto = new Escalonador(config.criarFilas(), config.getTabelaRoteamento(),
+                                             geradorPiloto, new CalendarioHeap());
+        piloto.inicializar(2.0);
+        DetectorAquecimento detector = new DetectorAquecimento();
+        int aleatoriosPiloto = aquecimento.getAleatoriosPiloto() > 0
+            ? Math.min(aquecimento.getAleatoriosPiloto(), MAX_ALEATORIOS)
+            : Math.max(1, MAX_ALEATORIOS / PeriodoAquecimento.DIVISOR_PILOTO_PADRAO);
+        piloto.executarPiloto(aleatoriosPiloto, detector);
+        return detector.tempoTruncamento();
     }
-}
+    
     /**
-     * Carrega a configuração das filas do arquivo
-     * @param arquivo Nome do arquivo de configuração
-     * @return Número de filas
+     * Define o período de aquecimento, cujas estatísticas são descartadas
+     * @param aquecimento Período de aquecimento (padrão: nenhum)
      */
-    private int carregarEntrada(String arquivo) {
-        int numeroFilas = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(arquivo))) {
-            String linha;
-            int filaAtual = 0;
-            
-            while ((linha = br.readLine()) != null) {
-                linha = linha.trim();
-                if (linha.isEmpty() || linha.startsWith("#")) {
-                    continue; // Ignora linhas em branco ou comentários
-                }
-                
-                String[] partes = linha.split("\\s+");
-                if (numeroFilas == 0) {
-                    numeroFilas = Integer.parseInt(partes[0]);
-                    continue;
-                }
-                
-                if (filaAtual < numeroFilas) {
-                    int capacidade = Integer.parseInt(partes[0]);
-                    int numServidores = Integer.parseInt(partes[1]);
-                    double minChegada = Double.parseDouble(partes[2]);
-                    double maxChegada = Double.parseDouble(partes[3]);
-                    double minAtendimento = Double.parseDouble(partes[4]);
-                    double maxAtendimento = Double.parseDouble(partes[5]);
-                    
-                    filas.add(new Fila(capacidade, numServidores, 
-                               minChegada, maxChegada, 
-                               minAtendimento, maxAtendimento));
-                    filaAtual++;
-                }
-                
-                // Se já leu todas as filas, sai do loop
-                if (filaAtual >= numeroFilas) {
-                    break;
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Erro ao ler arquivo de entrada: " + e.getMessage());
-            System.exit(1);
+    public void setAquecimento(PeriodoAquecimento aquecimento) {
+        this.aquecimento = aquecimento;
+    }
+    
+    /**
+     * Ativa o trace binário dos eventos processados (o gravador deve ser
+     * fechado pelo chamador ao fim da execução)
+     * @param trace Gravador do trace, ou null para desativar
+     */
+    public void setGravadorTrace(GravadorTrace trace) {
+        escalonador.setGravadorTrace(trace);
+        comTrace = trace != null;
+    }
+    
+    /**
+     * Passa a tirar os números de chegada, de atendimento e de roteamento de
+     * cada fila de fluxos separados, para comparar configurações com números
+     * aleatórios comuns. Deve ser chamado antes de simular.
+     * @param ativo true para um fluxo por finalidade; false para o fluxo único (padrão)
+     */
+    public void setFluxosPorFinalidade(boolean ativo) {
+        if (ativo) {
+            gerador.separarFinalidades(Escalonador.numFinalidades(filas.size()));
         }
-        return numeroFilas;
     }
     
     /**
-     * Carrega a matriz de roteamento do arquivo
-     * @param arquivo Nome do arquivo de configuração
-     * @param numFilas Número de filas
+     * Ativa os checkpoints periódicos da simulação (o gravador deve ser
+     * fechado pelo chamador ao fim da execução). Os checkpoints começam depois
+     * do aquecimento e não se combinam com a parada sequencial.
+     * @param checkpoint Gravador dos checkpoints, ou null para desativar
      */
-    private void carregarMatrizRoteamento(String arquivo, int numFilas) {
-        try (BufferedReader br = new BufferedReader(new FileReader(arquivo))) {
-            String linha;
-            int linhasLidas = 0;
-            boolean lerMatriz = false;
-            
-            while ((linha = br.readLine()) != null) {
-                linha = linha.trim();
-                if (linha.isEmpty() || linha.startsWith("#")) {
-                    continue; // Ignora linhas em branco ou comentários
-                }
-                
-                linhasLidas++;
-                
-                // Pula a primeira linha (número de filas)
-                if (linhasLidas == 1) {
-                    continue;
-                }
-                
-                // Pula as linhas de configuração das filas
-                if (linhasLidas <= numFilas + 1) {
-                    continue;
-                }
-                
-                // Começamos a ler a matriz de roteamento
-                lerMatriz = true;
-                
-                String[] partes = linha.split("\\s+");
-                if (partes.length >= 3) {
-                    int origem = Integer.parseInt(partes[0]);
-                    int destino = Integer.parseInt(partes[1]);
-                    double probabilidade = Double.parseDouble(partes[2]);
-                    
-                    // Adiciona as probabilidades à matriz de roteamento
-                    matrizRoteamento[origem][destino] = probabilidade;
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Erro ao ler matriz de roteamento: " + e.getMessage());
-            System.exit(1);
+    public void setCheckpoint(GravadorCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+    
+    /**
+     * Restaura o estado de um checkpoint; simular() continua a partir dele,
+     * sem inicializar nem aquecer de novo. O simulador deve ter sido criado
+     * com a mesma configuração e o mesmo gerador da execução original.
+     * @param arquivo Caminho do checkpoint
+     * @throws IOException Se o checkpoint não puder ser lido ou não corresponder à simulação
+     */
+    public void retomar(String arquivo) throws IOException {
+        GravadorCheckpoint.restaurar(arquivo, escalonador);
+        retomada = true;
+    }
+    
+    /**
+     * Ativa a parada sequencial por médias de lotes; o número máximo de
+     * aleatórios passa a ser apenas um limite de segurança
+     * @param parada Regra de parada, ou null para executar até o limite de aleatórios
+     */
+    public void setParadaSequencial(ParadaSequencial parada) {
+        this.parada = parada;
+    }
+    
+    /**
+     * Reaproveita resultados de execuções idênticas: com um acerto, simular()
+     * não executa a simulação. Execuções com checkpoints, trace, parada
+     * sequencial ou retomadas não usam o cache.
+     * @param cache Cache de resultados, ou null para desativar
+     */
+    public void setCache(CacheResultados cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Agrupa nas tabelas de estados dos relatórios as sequências de estados
+     * com probabilidade abaixo do limiar (ver DadosRelatorio)
+     * @param limiar Probabilidade (0-1); zero mantém um estado por linha
+     */
+    public void setLimiarEstados(double limiar) {
+        if (!(limiar >= 0.0 && limiar < 1.0)) {
+            throw new IllegalArgumentException("Limiar de estados inválido: " + limiar);
         }
+        this.limiarEstados = limiar;
     }
     
     /**
-     * Executa a simulação
+     * @return Estatísticas da última execução, ou null se ainda não executou
      */
-    public void executar() {
-        // Inicializa o escalonador
-        escalonador.inicializar(2.0); // Primeiro cliente chega no tempo 2.0
-        
-        // Executa a simulação
-        tempoSimulacao = escalonador.executar(MAX_ALEATORIOS);
-        
-        // Gera o relatório
-        gerarRelatorio();
+    public ResultadoSimulacao getResultado() {
+        return resultado;
     }
     
     /**
-     * Gera o relatório da simulação
+     * Gera o relatório resumido da simulação no console
      */
     public void gerarRelatorio() {
-        System.out.println("=========================================================");
-        System.out.println("=================    END OF SIMULATION   ================");
-        System.out.println("=========================================================");
-        System.out.println("=========================================================");
-        System.out.println("======================    REPORT   ======================");
-        System.out.println("=========================================================");
-        
-        for (int i = 0; i < filas.size(); i++) {
-            Fila fila = filas.get(i);
-            System.out.println("*********************************************************");
-            
-            // Nome da fila e caracterização
-            String nomeConfig;
-            if (i == 0) {
-                nomeConfig = String.format("FILA1 (G/G/1)");
-                System.out.println("Queue:   " + nomeConfig);
-                System.out.printf("Arrival: %.1f ... %.1f\n", fila.getMinChegada(), fila.getMaxChegada());
-            } else if (i == 1) {
-                nomeConfig = String.format("FILA2 (G/G/2/5)");
-                System.out.println("Queue:   " + nomeConfig);
-            } else {
-                nomeConfig = String.format("FILA3 (G/G/2/10)");
-                System.out.println("Queue:   " + nomeConfig);
-            }
-            
-            System.out.printf("Service: %.1f ... %.1f\n", fila.getMinAtendimento(), fila.getMaxAtendimento());
-            System.out.println("*********************************************************");
-            
-            // Tabela de estados
-            System.out.println("   State               Time               Probability");
-            
-            double[] temposEstado = fila.getTemposEstado();
-            for (int j = 0; j < temposEstado.length; j++) {
-                double probabilidade = (temposEstado[j] / tempoSimulacao) * 100;
-                System.out.printf("      %d           %10.4f                %5.2f%%\n", 
-                                 j, temposEstado[j], probabilidade);
-            }
-            
-            // Número de perdas
-            System.out.println("Number of losses: " + fila.getPerdidos());
+        try {
+            gerarRelatorio(new RelatorioTexto(false), System.out);
+        } catch (IOException e) {
+            System.err.println("Erro ao gerar relatório: " + e.getMessage());
         }
-        
-        System.out.println("=========================================================");
-        System.out.printf("Simulation average time: %.4f\n", tempoSimulacao);
-        System.out.println("=========================================================");
     }
     
     /**
      * Método principal
-     * @param args Argumentos da linha de comando (arquivo_entrada, num_aleatorios)
+     * @param args arquivo_entrada num_aleatorios [--calendario heap|calendario|pq]
+     *             [--gerador lcg|mrg32k3a|xoshiro] [--roteamento cumulativo|alias]
+     *             [--aquecimento tempo|eventos:N|mser5[:N]] [--precisao meia_largura_relativa]
+     *             [--tolerancia meia_largura_absoluta] [--trace arquivo [--trace-registros N]]
+     *             [--checkpoint arquivo [--checkpoint-eventos N]] [--retomar arquivo]
+     *             [--fluxos-por-finalidade] [--cache[=diretorio] [--cache-mb N]]
+     *             [--relatorio texto|csv|csv-estados|json [--saida arquivo]] [--limiar-estados p]
      */
     public static void main(String[] args) {
-        if (args.length < 2) {
-            System.out.println("Uso: java Simulador <arquivo_entrada> <num_aleatorios>");
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "fluxos-por-finalidade", "cache");
+        if (opcoes.numPosicionais() < 2) {
+            System.out.println("Uso: java Simulador <arquivo_entrada> <num_aleatorios> [--calendario heap|calendario|pq]");
+            System.out.println("       [--gerador lcg|mrg32k3a|xoshiro] [--roteamento cumulativo|alias]");
+            System.out.println("       [--aquecimento tempo|eventos:N|mser5[:N]] [--precisao meia_largura_relativa]");
+            System.out.println("       [--tolerancia meia_largura_absoluta] [--trace arquivo [--trace-registros N]]");
+            System.out.println("       [--checkpoint arquivo [--checkpoint-eventos N]] [--retomar arquivo]");
+            System.out.println("       [--fluxos-por-finalidade] [--cache[=diretorio] [--cache-mb N]]");
+            System.out.println("       [--relatorio texto|csv|csv-estados|json [--saida arquivo]] [--limiar-estados p]");
             System.exit(1);
         }
         
-        String arquivoEntrada = args[0];
-        int numAleatorios = Integer.parseInt(args[1]);
+        String arquivoEntrada = opcoes.posicional(0);
+        int numAleatorios = Integer.parseInt(opcoes.posicional(1));
+        CalendarioEventos calendario = CalendarioEventos.criar(opcoes.get("calendario", "heap"));
+        FluxoAleatorio fluxo = FluxoAleatorio.criar(opcoes.get("gerador", "lcg"), SEMENTE_PADRAO);
+        ConfiguracaoRede config = ConfiguracaoRede.carregarOuSair(arquivoEntrada)
+            .comRoteamento(opcoes.get("roteamento", TabelaRoteamento.MODO_CUMULATIVO));
         
-        Simulador simulador = new Simulador(arquivoEntrada, numAleatorios);
-        simulador.executar();
+        Simulador simulador = new Simulador(config, numAleatorios, fluxo, calendario);
+        simulador.setAquecimento(PeriodoAquecimento.interpretar(opcoes.get("aquecimento", "0")));
+        simulador.setFluxosPorFinalidade(opcoes.tem("fluxos-por-finalidade"));
+        simulador.setCache(CacheResultados.daLinhaComando(opcoes, "cache"));
+        simulador.setLimiarEstados(opcoes.getDouble("limiar-estados", 0.0));
+        Relatorio relatorio = opcoes.tem("relatorio") ? Relatorio.criar(opcoes.get("relatorio", "texto")) : null;
+        if (opcoes.tem("precisao")) {
+            simulador.setParadaSequencial(new ParadaSequencial(opcoes.getDouble("precisao", 0.05),
+                opcoes.getDouble("tolerancia", ParadaSequencial.TOLERANCIA_ABSOLUTA_PADRAO)));
+        }
+        
+        GravadorTrace trace = null;
+        if (opcoes.tem("trace")) {
+            try {
+                trace = new GravadorTrace(opcoes.get("trace", "trace.bin"),
+                                          opcoes.getInt("trace-registros", GravadorTrace.CAPACIDADE_PADRAO));
+            } catch (IOException e) {
+                System.err.println("Erro ao criar trace: " + e.getMessage());
+                System.exit(1);
+            }
+            simulador.setGravadorTrace(trace);
+        }
+        
+        if (opcoes.tem("precisao") && (opcoes.tem("checkpoint") || opcoes.tem("retomar"))) {
+            System.err.println("Checkpoints não podem ser combinados com --precisao");
+            System.exit(1);
+        }
+        if (opcoes.tem("retomar")) {
+            try {
+                simulador.retomar(opcoes.get("retomar", "checkpoint.bin"));
+            } catch (IOException e) {
+                System.err.println("Erro ao retomar checkpoint: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        GravadorCheckpoint checkpoint = null;
+        if (opcoes.tem("checkpoint")) {
+            checkpoint = new GravadorCheckpoint(opcoes.get("checkpoint", "checkpoint.bin"),
+                opcoes.getLong("checkpoint-eventos", GravadorCheckpoint.INTERVALO_PADRAO));
+            simulador.setCheckpoint(checkpoint);
+        }
+        
+        // Com o relatório no console, as mensagens de estado vão para a saída de erro
+        PrintStream mensagens = relatorio != null && !opcoes.tem("saida") ? System.err : System.out;
+        if (relatorio == null) {
+            simulador.executar();
+        } else {
+            // Relatório no formato pedido, no console ou em um arquivo
+            simulador.simular();
+            try {
+                if (opcoes.tem("saida")) {
+                    try (OutputStream arquivo = Files.newOutputStream(Paths.get(opcoes.get("saida", "relatorio")))) {
+                        simulador.gerarRelatorio(relatorio, arquivo);
+                    }
+                } else {
+                    simulador.gerarRelatorio(relatorio, System.out);
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao gerar relatório: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        
+        if (checkpoint != null) {
+            try {
+                checkpoint.close();
+                mensagens.printf("Checkpoint: %d written to %s\n", checkpoint.getGravados(),
+                                  opcoes.get("checkpoint", "checkpoint.bin"));
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar checkpoint: " + e.getMessage());
+            }
+        }
+        if (trace != null) {
+            try {
+                trace.close();
+                mensagens.printf("Trace: %d events written to %s (last %d kept)\n", trace.getTotal(),
+                                  opcoes.get("trace", "trace.bin"), Math.min(trace.getTotal(), trace.getCapacidade()));
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar trace: " + e.getMessage());
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Classe SuiteBenchmark - conjunto de benchmarks do núcleo do simulador:
+ * execução completa do Escalonador, calendários de eventos, GeradorAleatorio,
+ * escolha de destino no roteamento e atualização de estado das filas, para
+ * redes de 3 a 10000 filas (com uma ou com todas as filas recebendo chegadas
+ * externas) e simulação paralela com 1 a 8 partições. Os resultados podem ser exportados em JSON para
+ * acompanhar regressões entre versões.
+ *
+ * Uso: java SuiteBenchmark [--json arquivo] [--versao nome] [--filtro texto] [--rapido]
+ */
+public class SuiteBenchmark {
+    private static final int[] TAMANHOS_REDE = { 3, 10, 100, 1000, 10000 };
+    private static final int ALEATORIOS_EXECUCAO = 1_000_000;
+    private static final int OPERACOES_MICRO = 2_000_000;
+    
+    private final List<Benchmark.Medicao> medicoes = new ArrayList<>();
+    private final String filtro;
+    private final int aquecimentos;
+    private final int iteracoes;
+    
+    public SuiteBenchmark(String filtro, boolean rapido) {
+        this.filtro = filtro;
+        this.aquecimentos = rapido ? 1 : 5;
+        this.iteracoes = rapido ? 3 : 10;
+    }
+    
+    /**
+     * Executa todos os benchmarks selecionados pelo filtro
+     * @return Medições realizadas
+     */
+    public List<Benchmark.Medicao> executar() {
+        // Execução completa nas configurações da disciplina
+        for (String arquivo : new String[] { "config.txt", "config_improved.txt" }) {
+            ConfiguracaoRede config = ConfiguracaoRede.carregar(arquivo);
+            medir("Escalonador.executar", "config=" + arquivo, () -> executarRede(config));
+        }
+        
+        for (int numFilas : TAMANHOS_REDE) {
+            ConfiguracaoRede config = ConfiguracaoRede.gerarSintetica(numFilas, 42L);
+            String parametros = "filas=" + numFilas;
+            
+            medir("Escalonador.executar", parametros, () -> executarRede(config));
+            if (numFilas >= 100) {
+                // Todas as filas com chegadas externas
+                ConfiguracaoRede configEntradas = ConfiguracaoRede.gerarSintetica(numFilas, 42L, numFilas);
+                medir("Escalonador.executar", parametros + ",entradas=" + numFilas,
+                      () -> executarRede(configEntradas));
+            }
+            for (String calendario : new String[] { "heap", "calendario", "pq" }) {
+                medir("CalendarioEventos." + calendario, parametros,
+                      () -> manterCalendario(CalendarioEventos.criar(calendario), 2 * numFilas));
+            }
+            for (String modo : new String[] { TabelaRoteamento.MODO_CUMULATIVO, TabelaRoteamento.MODO_ALIAS }) {
+                ConfiguracaoRede configModo = config.comRoteamento(modo);
+                medir("Escalonador.escolherDestino", parametros + ",roteamento=" + modo,
+                      () -> escolherDestinos(configModo));
+            }
+            medir("Fila.atualizarAte", parametros, () -> atualizarFilas(config));
+        }
+        
+        // Simulação paralela conservadora da rede carregada de 1000 filas
+        ConfiguracaoRede configCarregada = EscalonadorParalelo.redeCarregada(1000);
+        for (int particoes : new int[] { 1, 2, 4, 8 }) {
+            medir("EscalonadorParalelo.executar", "filas=1000,particoes=" + particoes,
+                  () -> executarParalelo(configCarregada, particoes));
+        }
+        
+        for (String fluxo : new String[] { "lcg", "mrg32k3a", "xoshiro" }) {
+            for (int bloco : new int[] { 0, GeradorAleatorio.TAMANHO_BLOCO_PADRAO }) {
+                GeradorAleatorio gerador = new GeradorAleatorio(FluxoAleatorio.criar(fluxo, 1L), bloco);
+                medir("GeradorAleatorio.nextRandom", "fluxo=" + fluxo + ",bloco=" + bloco, () -> {
+                    double soma = 0.0;
+                    for (int i = 0; i < OPERACOES_MICRO; i++) {
+                        soma += gerador.nextRandom();
+                    }
+                    Benchmark.consumir(soma);
+                    return OPERACOES_MICRO;
+                });
+            }
+        }
+        return medicoes;
+    }
+    
+    private void medir(String nome, String parametros, LongSupplier corpo) {
+        if (filtro != null && !(nome + " " + parametros).contains(filtro)) {
+            return;
+        }
+        Benchmark.Medicao medicao = Benchmark.medir(nome, parametros, aquecimentos, iteracoes, corpo);
+        System.out.println(medicao);
+        medicoes.add(medicao);
+    }
+    
+    /**
+     * Execução completa; a operação medida é um evento processado
+     */
+    private static long executarRede(ConfiguracaoRede config) {
+        GeradorAleatorio gerador = new GeradorAleatorio(new FluxoLCG(Simulador.SEMENTE_PADRAO),
+                                                        GeradorAleatorio.TAMANHO_BLOCO_PADRAO);
+        Escalonador escalonador = new Escalonador(config.criarFilas(), config.getTabelaRoteamento(), gerador,
+                                                  new CalendarioHeap());
+        escalonador.inicializar(2.0);
+        Benchmark.consumir(escalonador.executar(ALEATORIOS_EXECUCAO));
+        return escalonador.getEventosProcessados();
+    }
+    
+    /**
+     * Execução paralela com fluxos por finalidade; a operação medida é um evento processado
+     */
+    private static long executarParalelo(ConfiguracaoRede config, int particoes) {
+        EscalonadorParalelo escalonador = new EscalonadorParalelo(config, new FluxoMRG32k3a(Simulador.SEMENTE_PADRAO),
+                                                                  particoes);
+        Benchmark.consumir(escalonador.executar(2.0, ALEATORIOS_EXECUCAO).getTempoSimulacao());
+        return escalonador.getEventosProcessados();
+    }
+    
+    /**
+     * Modelo "hold": mantém o calendário com tamanho constante, removendo o
+     * próximo evento e agendando outro a um intervalo exponencial
+     */
+    private static long manterCalendario(CalendarioEventos calendario, int pendentes) {
+        SplittableRandom sorteio = new SplittableRandom(7L);
+        for (int i = 0; i < pendentes; i++) {
+            calendario.agendar(-Math.log(1.0 - sorteio.nextDouble()) * pendentes, Evento.TIPO_SAIDA, i, -1);
+        }
+        for (int i = 0; i < OPERACOES_MICRO; i++) {
+            calendario.removerProximo();
+            double tempo = calendario.getTempo() - Math.log(1.0 - sorteio.nextDouble()) * pendentes;
+            calendario.agendar(tempo, Evento.TIPO_SAIDA, calendario.getFilaOrigem(), -1);
+        }
+        return OPERACOES_MICRO;
+    }
+    
+    private static long escolherDestinos(ConfiguracaoRede config) {
+        int numFilas = config.getNumFilas();
+        GeradorAleatorio gerador = new GeradorAleatorio(new FluxoXoshiro256(3L), GeradorAleatorio.TAMANHO_BLOCO_PADRAO);
+        Escalonador escalonador = new Escalonador(config.criarFilas(), config.getTabelaRoteamento(), gerador,
+                                                  new CalendarioHeap());
+        long soma = 0;
+        for (int i = 0; i < OPERACOES_MICRO; i++) {
+            int origem = 1 + i % numFilas;
+            soma += escalonador.escolherDestino(origem, gerador.nextRandom());
+        }
+        Benchmark.consumir(soma);
+        return OPERACOES_MICRO;
+    }
+    
+    /**
+     * Alterna chegadas e saídas nas filas em rodízio, com a atualização de
+     * tempo de estado que o Escalonador faz a cada mudança de população
+     */
+    private static long atualizarFilas(ConfiguracaoRede config) {
+        List<Fila> filas = config.criarFilas();
+        int numFilas = filas.size();
+        double tempo = 0.0;
+        for (int i = 0; i < OPERACOES_MICRO; i++) {
+            Fila fila = filas.get(i % numFilas);
+            tempo += 0.5;
+            fila.atualizarAte(tempo);
+            if ((i / numFilas) % 2 == 0) {
+                fila.In();
+            } else {
+                fila.Out();
+            }
+        }
+        Benchmark.consumir(filas.get(0).getTemposEstado()[0]);
+        return OPERACOES_MICRO;
+    }
+    
+    /**
+     * Método principal
+     * @param args [--json arquivo] [--versao nome] [--filtro texto] [--rapido]
+     */
+    public static void main(String[] args) throws IOException {
+        String arquivoJson = null;
+        String versao = "dev";
+        String filtro = null;
+        boolean rapido = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--json": arquivoJson = args[++i]; break;
+                case "--versao": versao = args[++i]; break;
+                case "--filtro": filtro = args[++i]; break;
+                case "--rapido": rapido = true; break;
+                default:
+                    System.out.println("Uso: java SuiteBenchmark [--json arquivo] [--versao nome] [--filtro texto] [--rapido]");
+                    System.exit(1);
+            }
+        }
+        
+        List<Benchmark.Medicao> medicoes = new SuiteBenchmark(filtro, rapido).executar();
+        if (arquivoJson != null) {
+            Benchmark.exportarJson(medicoes, versao, arquivoJson);
+            System.out.println("Resultados exportados para " + arquivoJson);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+/**
+ * Classe TabelaAlias - amostragem em O(1) de uma distribuição discreta pelo
+ * método de alias de Walker (construção de Vose). Cada posição guarda um
+ * limiar e um índice alternativo; um único número uniforme escolhe a posição
+ * (parte inteira) e decide entre ela e o seu alias (parte fracionária).
+ */
+public class TabelaAlias {
+    private final double[] limiares;
+    private final int[] alias;
+    
+    /**
+     * Constrói a tabela
+     * @param pesos Pesos não negativos (não precisam somar 1), com soma positiva
+     */
+    public TabelaAlias(double[] pesos) {
+        int n = pesos.length;
+        double soma = 0.0;
+        for (double peso : pesos) {
+            if (peso < 0 || Double.isNaN(peso)) {
+                throw new IllegalArgumentException("Peso inválido na tabela de alias: " + peso);
+            }
+            soma += peso;
+        }
+        if (n == 0 || soma <= 0) {
+            throw new IllegalArgumentException("Tabela de alias sem pesos positivos");
+        }
+        
+        this.limiares = new double[n];
+        this.alias = new int[n];
+        double[] escalados = new double[n];
+        int[] pequenos = new int[n];
+        int[] grandes = new int[n];
+        int numPequenos = 0;
+        int numGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalados[i] = pesos[i] * n / soma;
+            if (escalados[i] < 1.0) {
+                pequenos[numPequenos++] = i;
+            } else {
+                grandes[numGrandes++] = i;
+            }
+        }
+        
+        // Cada posição pequena é completada com massa de uma posição grande
+        while (numPequenos > 0 && numGrandes > 0) {
+            int pequeno = pequenos[--numPequenos];
+            int grande = grandes[--numGrandes];
+            limiares[pequeno] = escalados[pequeno];
+            alias[pequeno] = grande;
+            escalados[grande] = (escalados[grande] + escalados[pequeno]) - 1.0;
+            if (escalados[grande] < 1.0) {
+                pequenos[numPequenos++] = grande;
+            } else {
+                grandes[numGrandes++] = grande;
+            }
+        }
+        
+        // Sobras (por arredondamento) ficam com limiar 1
+        while (numGrandes > 0) {
+            int i = grandes[--numGrandes];
+            limiares[i] = 1.0;
+            alias[i] = i;
+        }
+        while (numPequenos > 0) {
+            int i = pequenos[--numPequenos];
+            limiares[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+    
+    /**
+     * Reconstrói uma tabela já montada (lida do formato binário da configuração)
+     * @param limiares Limiar de cada posição, em [0, 1]
+     * @param alias Índice alternativo de cada posição
+     */
+    TabelaAlias(double[] limiares, int[] alias) {
+        if (limiares.length == 0 || limiares.length != alias.length) {
+            throw new IllegalArgumentException("Tabela de alias com tamanhos inválidos");
+        }
+        for (int i = 0; i < limiares.length; i++) {
+            if (!(limiares[i] >= 0.0 && limiares[i] <= 1.0) || alias[i] < 0 || alias[i] >= alias.length) {
+                throw new IllegalArgumentException("Posição inválida na tabela de alias: " + i);
+            }
+        }
+        this.limiares = limiares;
+        this.alias = alias;
+    }
+    
+    /**
+     * Sorteia um índice
+     * @param u Número uniforme em [0, 1)
+     * @return Índice sorteado, com probabilidade proporcional ao seu peso
+     */
+    public int amostrar(double u) {
+        double x = u * limiares.length;
+        int i = (int) x;
+        return x - i < limiares[i] ? i : alias[i];
+    }
+    
+    public int tamanho() { return limiares.length; }
+    
+    /**
+     * Limiar da posição (probabilidade de ficar com a própria posição)
+     */
+    public double getLimiar(int i) { return limiares[i]; }
+    
+    /**
+     * Índice alternativo da posição
+     */
+    public int getAlias(int i) { return alias[i]; }
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Classe TabelaRoteamento - roteamento compilado a partir das probabilidades
+ * configuradas, em formato esparso (CSR): para cada origem, apenas os destinos
+ * com probabilidade positiva, em ordem crescente de destino.
+ *
+ * Modos de escolha do destino:
+ * - cumulativo: busca binária nas probabilidades acumuladas, O(log k). Escolhe
+ *   exatamente o mesmo destino que a varredura linear da matriz, preservando
+ *   os resultados de referência (padrão).
+ * - alias: tabelas de alias de Walker por origem, O(1). Estatisticamente
+ *   equivalente, mas associa cada número aleatório a outro destino.
+ *
+ * A probabilidade que falta para completar 1 em uma origem corresponde à
+ * saída do sistema (destino 0), como na varredura original.
+ */
+public class TabelaRoteamento {
+    public static final String MODO_CUMULATIVO = "cumulativo";
+    public static final String MODO_ALIAS = "alias";
+    
+    private final int numFilas;
+    private final boolean usarAlias;
+    
+    // Probabilidades acumuladas por origem
+    private final int[] inicio;
+    private final int[] destinos;
+    private final double[] acumulados;
+    
+    // Tabelas de alias por origem (incluem a saída residual)
+    private final int[] inicioAlias;
+    private final double[] limiares;
+    private final int[] destinosProprios;
+    private final int[] destinosAlias;
+    
+    /**
+     * Compila a matriz densa de roteamento no modo cumulativo
+     * @param matrizRoteamento Matriz (n+1)x(n+1), onde o índice 0 é o mundo externo
+     */
+    public TabelaRoteamento(double[][] matrizRoteamento) {
+        this(matrizRoteamento, MODO_CUMULATIVO);
+    }
+    
+    /**
+     * Compila a matriz densa de roteamento
+     * @param matrizRoteamento Matriz (n+1)x(n+1), onde o índice 0 é o mundo externo
+     * @param modo MODO_CUMULATIVO ou MODO_ALIAS
+     */
+    public TabelaRoteamento(double[][] matrizRoteamento, String modo) {
+        this(ListaArestas.daMatriz(matrizRoteamento), matrizRoteamento.length - 1, modo);
+    }
+    
+    /**
+     * Compila uma lista de arestas de roteamento. Arestas repetidas para o
+     * mesmo par (origem, destino) valem pela última ocorrência, como na
+     * atribuição à matriz densa; probabilidades nulas são ignoradas.
+     * @param arestas Arestas (origem, destino, probabilidade), índice 0 = mundo externo
+     * @param numFilas Número de filas da rede
+     * @param modo MODO_CUMULATIVO ou MODO_ALIAS
+     */
+    public TabelaRoteamento(ListaArestas arestas, int numFilas, String modo) {
+        this.numFilas = numFilas;
+        this.usarAlias = modoAlias(modo);
+        
+        int numOrigens = numFilas + 1;
+        int numArestas = arestas.tamanho();
+        
+        // Ordenação por contagem das arestas pela origem
+        int[] porOrigem = new int[numOrigens + 1];
+        for (int i = 0; i < numArestas; i++) {
+            int origem = arestas.getOrigem(i);
+            int destino = arestas.getDestino(i);
+            if (origem < 0 || origem > numFilas || destino < 0 || destino > numFilas) {
+                throw new IllegalArgumentException(String.format(
+                    "Aresta de roteamento fora da rede: %d -> %d (filas 0 a %d)", origem, destino, numFilas));
+            }
+            porOrigem[origem + 1]++;
+        }
+        for (int origem = 0; origem < numOrigens; origem++) {
+            porOrigem[origem + 1] += porOrigem[origem];
+        }
+        
+        // Dentro de cada origem, ordena por (destino, posição na lista)
+        long[] chaves = new long[numArestas];
+        int[] proximaPosicao = porOrigem.clone();
+        for (int i = 0; i < numArestas; i++) {
+            chaves[proximaPosicao[arestas.getOrigem(i)]++] = ((long) arestas.getDestino(i) << 32) | i;
+        }
+        
+        this.inicio = new int[numOrigens + 1];
+        int[] destinosTemp = new int[numArestas];
+        double[] acumuladosTemp = new double[numArestas];
+        int k = 0;
+        for (int origem = 0; origem < numOrigens; origem++) {
+            inicio[origem] = k;
+            Arrays.sort(chaves, porOrigem[origem], porOrigem[origem + 1]);
+            double acumulado = 0.0;
+            for (int j = porOrigem[origem]; j < porOrigem[origem + 1]; j++) {
+                int destino = (int) (chaves[j] >>> 32);
+                if (j + 1 < porOrigem[origem + 1] && (int) (chaves[j + 1] >>> 32) == destino) {
+                    continue; // Vale a última ocorrência do par
+                }
+                double probabilidade = arestas.getProbabilidade((int) chaves[j]);
+                if (probabilidade > 0) {
+                    acumulado += probabilidade;
+                    destinosTemp[k] = destino;
+                    acumuladosTemp[k] = acumulado;
+                    k++;
+                }
+            }
+        }
+        inicio[numOrigens] = k;
+        this.destinos = Arrays.copyOf(destinosTemp, k);
+        this.acumulados = Arrays.copyOf(acumuladosTemp, k);
+        
+        // Tabelas de alias: uma entrada por aresta e, se a origem soma menos
+        // de 1, mais uma para a saída residual
+        this.inicioAlias = new int[numOrigens + 1];
+        int entradasAlias = 0;
+        for (int origem = 0; origem < numOrigens; origem++) {
+            inicioAlias[origem] = entradasAlias;
+            entradasAlias += inicio[origem + 1] - inicio[origem] + (temResidual(origem) ? 1 : 0);
+        }
+        inicioAlias[numOrigens] = entradasAlias;
+        
+        this.limiares = new double[entradasAlias];
+        this.destinosProprios = new int[entradasAlias];
+        this.destinosAlias = new int[entradasAlias];
+        for (int origem = 0; origem < numOrigens; origem++) {
+            int n = inicioAlias[origem + 1] - inicioAlias[origem];
+            if (n == 0) {
+                continue;
+            }
+            double[] pesos = new double[n];
+            int[] destinosOrigem = new int[n];
+            for (int i = 0; i < n; i++) {
+                pesos[i] = probabilidade(origem, i);
+                destinosOrigem[i] = destinoEntrada(origem, i);
+            }
+            TabelaAlias tabela = new TabelaAlias(pesos);
+            for (int i = 0; i < n; i++) {
+                int posicao = inicioAlias[origem] + i;
+                limiares[posicao] = tabela.getLimiar(i);
+                destinosProprios[posicao] = destinosOrigem[i];
+                destinosAlias[posicao] = destinosOrigem[tabela.getAlias(i)];
+            }
+        }
+    }
+    
+    /**
+     * Cópia que compartilha os arrays, mudando apenas o modo
+     */
+    private TabelaRoteamento(TabelaRoteamento outra, boolean usarAlias) {
+        this.numFilas = outra.numFilas;
+        this.usarAlias = usarAlias;
+        this.inicio = outra.inicio;
+        this.destinos = outra.destinos;
+        this.acumulados = outra.acumulados;
+        this.inicioAlias = outra.inicioAlias;
+        this.limiares = outra.limiares;
+        this.destinosProprios = outra.destinosProprios;
+        this.destinosAlias = outra.destinosAlias;
+    }
+    
+    /**
+     * @param modo MODO_CUMULATIVO ou MODO_ALIAS
+     * @return Tabela com os mesmos dados no modo indicado
+     */
+    public TabelaRoteamento comModo(String modo) {
+        boolean alias = modoAlias(modo);
+        return alias == usarAlias ? this : new TabelaRoteamento(this, alias);
+    }
+    
+    private static boolean modoAlias(String modo) {
+        switch (modo) {
+            case MODO_CUMULATIVO:
+                return false;
+            case MODO_ALIAS:
+                return true;
+            default:
+                throw new IllegalArgumentException("Modo de roteamento desconhecido: " + modo);
+        }
+    }
+    
+    private boolean temResidual(int origem) {
+        return getSoma(origem) < 1.0 - 1e-12;
+    }
+    
+    /**
+     * @return Soma das probabilidades das rotas da origem, já considerando
+     *         apenas a última ocorrência de cada destino (0 se não há rotas)
+     */
+    public double getSoma(int origem) {
+        int fim = inicio[origem + 1];
+        return fim > inicio[origem] ? acumulados[fim - 1] : 0.0;
+    }
+    
+    /**
+     * Destino da i-ésima entrada de alias de uma origem (a entrada após as
+     * arestas, quando existe, é a saída residual)
+     */
+    private int destinoEntrada(int origem, int i) {
+        return i < inicio[origem + 1] - inicio[origem] ? destinos[inicio[origem] + i] : 0;
+    }
+    
+    /**
+     * Probabilidade configurada da i-ésima entrada de alias de uma origem
+     */
+    private double probabilidade(int origem, int i) {
+        int arestas = inicio[origem + 1] - inicio[origem];
+        if (i < arestas) {
+            int k = inicio[origem] + i;
+            return k == inicio[origem] ? acumulados[k] : acumulados[k] - acumulados[k - 1];
+        }
+        return 1.0 - (arestas > 0 ? acumulados[inicio[origem + 1] - 1] : 0.0);
+    }
+    
+    /**
+     * Escolhe o destino de um cliente que sai da fila
+     * @param origem Fila de onde o cliente sai
+     * @param u Número aleatório uniforme em [0, 1)
+     * @return Fila de destino (0 representa saída do sistema)
+     */
+    public int destino(int origem, double u) {
+        return usarAlias ? destinoAlias(origem, u) : destinoCumulativo(origem, u);
+    }
+    
+    /**
+     * Primeiro destino cuja probabilidade acumulada alcança u (busca binária)
+     */
+    private int destinoCumulativo(int origem, double u) {
+        int baixo = inicio[origem];
+        int alto = inicio[origem + 1] - 1;
+        if (alto < baixo || u > acumulados[alto] || u <= 0.0) {
+            return 0; // Como na varredura: u = 0 já é alcançado pela coluna 0
+        }
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (u <= acumulados[meio]) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return destinos[baixo];
+    }
+    
+    private int destinoAlias(int origem, double u) {
+        int primeiro = inicioAlias[origem];
+        int n = inicioAlias[origem + 1] - primeiro;
+        if (n == 0) {
+            return 0;
+        }
+        double x = u * n;
+        int i = (int) x;
+        int posicao = primeiro + i;
+        return x - i < limiares[posicao] ? destinosProprios[posicao] : destinosAlias[posicao];
+    }
+    
+    public int getNumFilas() { return numFilas; }
+    
+    public String getModo() { return usarAlias ? MODO_ALIAS : MODO_CUMULATIVO; }
+    
+    /**
+     * Confere por amostragem se as frequências de cada destino correspondem às
+     * probabilidades configuradas (desvio de até 4,5 erros padrão)
+     * @param fluxo Fonte dos números aleatórios
+     * @param amostras Amostras por origem
+     * @param saida Destino da tabela de frequências
+     * @return true se todas as frequências estão dentro da tolerância
+     */
+    public boolean validar(FluxoAleatorio fluxo, int amostras, PrintStream saida) {
+        boolean valido = true;
+        saida.printf("Routing validation (%s, %d samples per origin)\n", getModo(), amostras);
+        saida.println("  Origin  Destination  Configured   Observed        z");
+        
+        // Contagem por destino reaproveitada; só as posições tocadas são zeradas
+        int[] contagem = new int[numFilas + 1];
+        double[] esperado = new double[numFilas + 1];
+        for (int origem = 0; origem <= numFilas; origem++) {
+            int n = inicioAlias[origem + 1] - inicioAlias[origem];
+            if (n == 0) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                esperado[destinoEntrada(origem, i)] += probabilidade(origem, i);
+            }
+            for (int i = 0; i < amostras; i++) {
+                contagem[destino(origem, fluxo.proximo())]++;
+            }
+            
+            // Destinos configurados, mais a saída (que pode aparecer por arredondamento)
+            boolean saidaListada = false;
+            for (int i = 0; i <= n; i++) {
+                int destino = i < n ? destinoEntrada(origem, i) : 0;
+                if (destino == 0 && (saidaListada || (i == n && contagem[0] == 0))) {
+                    continue;
+                }
+                saidaListada |= destino == 0;
+                double p = esperado[destino];
+                double observado = (double) contagem[destino] / amostras;
+                double erroPadrao = Math.sqrt(p * (1.0 - p) / amostras);
+                double z = erroPadrao > 0 ? (observado - p) / erroPadrao : (observado == p ? 0.0 : Double.POSITIVE_INFINITY);
+                if (Math.abs(z) > 4.5) {
+                    valido = false;
+                }
+                saida.printf("  %6d  %11d  %10.6f  %9.6f  %7.2f%s\n", origem, destino, p, observado, z,
+                             Math.abs(z) > 4.5 ? "  <--" : "");
+            }
+            
+            for (int i = 0; i < n; i++) {
+                int destino = destinoEntrada(origem, i);
+                esperado[destino] = 0.0;
+                contagem[destino] = 0;
+            }
+            esperado[0] = 0.0;
+            contagem[0] = 0;
+        }
+        saida.println(valido ? "Routing frequencies match the configuration."
+                             : "Routing frequencies DO NOT match the configuration.");
+        return valido;
+    }
+    
+    /**
+     * Método principal: valida o roteamento de um arquivo de configuração
+     * @param args arquivo_entrada [, amostras [, modo]]
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Uso: java TabelaRoteamento <arquivo_entrada> [amostras] [cumulativo|alias]");
+            System.exit(1);
+        }
+        int amostras = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        String modo = args.length > 2 ? args[2] : MODO_CUMULATIVO;
+        
+        TabelaRoteamento tabela = ConfiguracaoRede.carregarOuSair(args[0]).getTabelaRoteamento().comModo(modo);
+        boolean valido = tabela.validar(new FluxoMRG32k3a(Simulador.SEMENTE_PADRAO), amostras, System.out);
+        System.exit(valido ? 0 : 2);
+    }
+}
\ No newline at end of file
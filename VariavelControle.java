@@ -0,0 +1,74 @@
+/**
+ * Classe VariavelControle - estimador por variável de controle: corrige a
+ * média de uma métrica Y pelo desvio, em cada replicação, de uma variável C
+ * de média conhecida e correlacionada com Y (ex.: o tempo médio de
+ * atendimento sorteado numa fila, cuja média teórica é conhecida).
+ *
+ *   Y_c = média(Y) - b * (média(C) - mu),  b = cov(Y, C) / var(C)
+ *
+ * Com b estimado pelas próprias replicações, a variância do estimador é a
+ * dos resíduos da regressão de Y em C, com n - 2 graus de liberdade
+ * (Law e Kelton, seção 11.3).
+ */
+public class VariavelControle {
+    private final double media;
+    private final double meiaLargura;
+    private final double fatorReducao;
+    private final double coeficiente;
+    
+    private VariavelControle(double media, double meiaLargura, double fatorReducao, double coeficiente) {
+        this.media = media;
+        this.meiaLargura = meiaLargura;
+        this.fatorReducao = fatorReducao;
+        this.coeficiente = coeficiente;
+    }
+    
+    /**
+     * @param y Métrica em cada observação independente
+     * @param c Variável de controle nas mesmas observações
+     * @param mediaConhecida Média teórica da variável de controle
+     * @param confianca Nível de confiança (ex.: 0.95)
+     * @return Estimativa corrigida; sem correção (fator 1) se houver menos de
+     *         três observações ou se C não variar
+     */
+    public static VariavelControle estimar(double[] y, double[] c, double mediaConhecida, double confianca) {
+        int n = y.length;
+        double mediaY = Estatistica.media(y);
+        double mediaC = Estatistica.media(c);
+        double syy = 0.0;
+        double scc = 0.0;
+        double scy = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dy = y[i] - mediaY;
+            double dc = c[i] - mediaC;
+            syy += dy * dy;
+            scc += dc * dc;
+            scy += dc * dy;
+        }
+        if (n < 3 || !(scc > 0.0)) {
+            return new VariavelControle(mediaY, Estatistica.meiaLargura(y, confianca), 1.0, 0.0);
+        }
+        
+        double b = scy / scc;
+        double residuos = Math.max(syy - b * scy, 0.0) / (n - 2);
+        double desvioC = mediaC - mediaConhecida;
+        double variancia = residuos * (1.0 / n + desvioC * desvioC / scc);
+        double varianciaSemControle = syy / (n - 1) / n;
+        double t = Estatistica.quantilT(1.0 - (1.0 - confianca) / 2.0, n - 2);
+        return new VariavelControle(mediaY - b * desvioC, t * Math.sqrt(variancia),
+                                    variancia > 0.0 ? varianciaSemControle / variancia : Double.POSITIVE_INFINITY, b);
+    }
+    
+    public double getMedia() { return media; }
+    public double getMeiaLargura() { return meiaLargura; }
+    
+    /**
+     * @return Variância da média simples dividida pela variância do estimador com controle
+     */
+    public double getFatorReducao() { return fatorReducao; }
+    
+    /**
+     * @return Coeficiente b estimado
+     */
+    public double getCoeficiente() { return coeficiente; }
+}
\ No newline at end of file
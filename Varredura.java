@@ -0,0 +1,279 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Classe Varredura - executa todos os cenários do produto cartesiano de
+ * algumas dimensões de parâmetros (ParametroVarredura) sobre uma configuração
+ * base, em um pool com número fixo de threads, e grava os resultados em uma
+ * única tabela CSV com uma linha por cenário e fila.
+ *
+ * Os cenários são numerados com a última dimensão variando mais rápido.
+ * Todos usam os mesmos subfluxos do fluxo raiz (a replicação r de qualquer
+ * cenário usa o subfluxo r), com fluxos por finalidade, de modo que as
+ * diferenças entre cenários não se misturam com diferenças de sorteio.
+ * Apenas alguns cenários à frente do último gravado ficam em execução, e a
+ * tabela é escrita na ordem dos cenários à medida que ficam prontos, com
+ * memória independente do tamanho da varredura; o resultado é o mesmo para
+ * qualquer número de threads.
+ */
+public class Varredura {
+    private static final int CENARIOS_POR_THREAD = 4; // Cenários em andamento por thread
+    
+    private final ConfiguracaoRede base;
+    private final List<ParametroVarredura> parametros;
+    private final int maxAleatorios;
+    private final FluxoAleatorio fluxoRaiz;
+    private final PeriodoAquecimento aquecimento;
+    private final int replicacoes;
+    private final int numCenarios;
+    private CacheResultados cache; // Nulo: sem cache
+    
+    /**
+     * @param base Configuração de partida
+     * @param parametros Dimensões da varredura
+     * @param maxAleatorios Número máximo de aleatórios por execução
+     * @param fluxoRaiz Fluxo do qual cada replicação recebe um subfluxo
+     * @param aquecimento Aquecimento descartado em cada execução
+     * @param replicacoes Replicações por cenário
+     */
+    public Varredura(ConfiguracaoRede base, List<ParametroVarredura> parametros, int maxAleatorios,
+                     FluxoAleatorio fluxoRaiz, PeriodoAquecimento aquecimento, int replicacoes) {
+        long cenarios = 1;
+        for (ParametroVarredura parametro : parametros) {
+            cenarios *= parametro.numValores();
+            if (cenarios > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Varredura grande demais: mais de " + Integer.MAX_VALUE + " cenários");
+            }
+        }
+        if (replicacoes < 1) {
+            throw new IllegalArgumentException("Número de replicações inválido: " + replicacoes);
+        }
+        this.base = base;
+        this.parametros = parametros;
+        this.maxAleatorios = maxAleatorios;
+        this.fluxoRaiz = fluxoRaiz;
+        this.aquecimento = aquecimento;
+        this.replicacoes = replicacoes;
+        this.numCenarios = (int) cenarios;
+        validarCenarios();
+    }
+    
+    /**
+     * Monta e confere a configuração de todos os cenários antes de executar,
+     * para que um cenário inválido não interrompa a varredura no meio da tabela
+     * @throws IllegalArgumentException Com o primeiro cenário inválido
+     */
+    private void validarCenarios() {
+        for (int cenario = 0; cenario < numCenarios; cenario++) {
+            try {
+                LeitorConfiguracao.validar(configuracao(cenario), "cenário " + descricao(cenario));
+            } catch (ConfiguracaoInvalidaException e) {
+                throw e;
+            } catch (IllegalArgumentException e) {
+                throw new ConfiguracaoInvalidaException("cenário " + descricao(cenario), 0, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * @return Valores das dimensões num cenário, ex.: "servidores.2=3, rota.1-2=0.5"
+     */
+    private String descricao(int cenario) {
+        int[] indices = valoresCenario(cenario);
+        StringBuilder descricao = new StringBuilder();
+        for (int p = 0; p < parametros.size(); p++) {
+            if (p > 0) {
+                descricao.append(", ");
+            }
+            descricao.append(parametros.get(p).getNome()).append('=').append(parametros.get(p).getValor(indices[p]));
+        }
+        return descricao.toString();
+    }
+    
+    public int getNumCenarios() { return numCenarios; }
+    
+    /**
+     * Reaproveita as execuções de cenários já simulados (em varreduras que se sobrepõem)
+     * @param cache Cache de resultados, ou null para desativar
+     */
+    public void setCache(CacheResultados cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * @param cenario Índice do cenário (0 a getNumCenarios()-1)
+     * @return Índice do valor de cada dimensão no cenário
+     */
+    public int[] valoresCenario(int cenario) {
+        int[] indices = new int[parametros.size()];
+        for (int p = parametros.size() - 1; p >= 0; p--) {
+            int numValores = parametros.get(p).numValores();
+            indices[p] = cenario % numValores;
+            cenario /= numValores;
+        }
+        return indices;
+    }
+    
+    /**
+     * @param cenario Índice do cenário
+     * @return Configuração da rede no cenário
+     */
+    public ConfiguracaoRede configuracao(int cenario) {
+        int[] indices = valoresCenario(cenario);
+        ConfiguracaoRede config = base;
+        for (int p = 0; p < parametros.size(); p++) {
+            config = parametros.get(p).aplicar(config, indices[p]);
+        }
+        return config;
+    }
+    
+    /**
+     * Executa todos os cenários e grava a tabela
+     * @param saida Destino do CSV
+     * @param paralelismo Número de threads de trabalho
+     */
+    public void executar(PrintWriter saida, int paralelismo) {
+        saida.println(cabecalho());
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            ArrayDeque<ForkJoinTask<String>> andamento = new ArrayDeque<>();
+            int proximo = 0;
+            for (int gravados = 0; gravados < numCenarios; gravados++) {
+                while (proximo < numCenarios && andamento.size() < CENARIOS_POR_THREAD * paralelismo) {
+                    final int cenario = proximo++;
+                    andamento.add(pool.submit(() -> executarCenario(cenario)));
+                }
+                saida.print(andamento.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Varredura interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em um cenário", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * Executa as replicações de um cenário
+     * @param cenario Índice do cenário
+     * @return Linhas do CSV do cenário, uma por fila
+     */
+    private String executarCenario(int cenario) {
+        ConfiguracaoRede config = configuracao(cenario);
+        Replicador replicador = new Replicador(config, maxAleatorios, fluxoRaiz, aquecimento);
+        replicador.setFluxosPorFinalidade(true);
+        replicador.setCache(cache);
+        ResultadoSimulacao[] resultados = new ResultadoSimulacao[replicacoes];
+        for (int r = 0; r < replicacoes; r++) {
+            resultados[r] = replicador.executarReplicacao(r);
+        }
+        ResumoReplicacoes resumo = new ResumoReplicacoes(config, resultados);
+        
+        StringBuilder linhas = new StringBuilder();
+        StringBuilder prefixo = new StringBuilder().append(cenario);
+        int[] indices = valoresCenario(cenario);
+        for (int p = 0; p < parametros.size(); p++) {
+            prefixo.append(',').append(parametros.get(p).getValor(indices[p]));
+        }
+        for (int i = 0; i < config.getNumFilas(); i++) {
+            final int fila = i;
+            linhas.append(prefixo).append(',').append(fila + 1);
+            adicionarMetrica(linhas, resumo, r -> r.getUtilizacao(fila));
+            adicionarMetrica(linhas, resumo, r -> r.getPopulacaoMedia(fila));
+            adicionarMetrica(linhas, resumo, r -> r.getPerdas(fila));
+            adicionarMetrica(linhas, resumo, r -> r.getVazao(fila));
+            adicionarMetrica(linhas, resumo, r -> r.getTempoEspera(fila).getMedia());
+            adicionarMetrica(linhas, resumo, r -> r.getTempoResposta(fila).getMedia());
+            linhas.append(String.format(Locale.ROOT, ",%.6f\n",
+                                        resumo.media(r -> r.getTempoResposta(fila).getQuantil(0.95))));
+        }
+        return linhas.toString();
+    }
+    
+    /**
+     * Acrescenta a média e a meia-largura do IC de 95% entre as replicações
+     */
+    private static void adicionarMetrica(StringBuilder linha, ResumoReplicacoes resumo,
+                                         ToDoubleFunction<ResultadoSimulacao> metrica) {
+        linha.append(String.format(Locale.ROOT, ",%.6f,%.6f", resumo.media(metrica), resumo.meiaLargura(metrica)));
+    }
+    
+    private String cabecalho() {
+        StringBuilder cabecalho = new StringBuilder("cenario");
+        for (ParametroVarredura parametro : parametros) {
+            cabecalho.append(',').append(parametro.getNome());
+        }
+        cabecalho.append(",fila,utilizacao,utilizacao_ic,populacao_media,populacao_media_ic,perdas,perdas_ic,")
+                 .append("vazao,vazao_ic,espera_media,espera_media_ic,resposta_media,resposta_media_ic,resposta_p95");
+        return cabecalho.toString();
+    }
+    
+    /**
+     * Método principal
+     * @param args arquivo_entrada num_aleatorios arquivo_saida parametro=valores...
+     *             [--replicacoes R] [--threads N] [--semente S] [--gerador mrg32k3a|xoshiro|lcg]
+     *             [--aquecimento tempo|eventos:N|mser5] [--cache[=diretorio] [--cache-mb N]]
+     */
+    public static void main(String[] args) {
+        OpcoesLinhaComando opcoes = new OpcoesLinhaComando(args, "cache");
+        if (opcoes.numPosicionais() < 4) {
+            System.out.println("Uso: java Varredura <arquivo_entrada> <num_aleatorios> <saida.csv> <parametro=valores>...");
+            System.out.println("       [--replicacoes R] [--threads N] [--semente S] [--gerador mrg32k3a|xoshiro|lcg]");
+            System.out.println("       [--aquecimento tempo|eventos:N|mser5] [--cache[=diretorio] [--cache-mb N]]");
+            System.out.println("  parametro: servidores.F, capacidade.F, chegada_min.F, chegada_max.F,");
+            System.out.println("             atendimento_min.F, atendimento_max.F ou rota.O-D");
+            System.out.println("  valores:   lista (1,2,4) ou intervalo inicio:fim[:passo]");
+            System.exit(1);
+        }
+        
+        ConfiguracaoRede base = ConfiguracaoRede.carregarOuSair(opcoes.posicional(0));
+        int numAleatorios = Integer.parseInt(opcoes.posicional(1));
+        String arquivoSaida = opcoes.posicional(2);
+        FluxoAleatorio fluxoRaiz = FluxoAleatorio.criar(opcoes.get("gerador", "mrg32k3a"),
+                                                        opcoes.getLong("semente", Simulador.SEMENTE_PADRAO));
+        int threads = opcoes.getInt("threads", Runtime.getRuntime().availableProcessors());
+        
+        Varredura varredura = null;
+        try {
+            List<ParametroVarredura> parametros = new ArrayList<>();
+            for (int i = 3; i < opcoes.numPosicionais(); i++) {
+                parametros.add(ParametroVarredura.interpretar(opcoes.posicional(i)));
+            }
+            varredura = new Varredura(base, parametros, numAleatorios, fluxoRaiz,
+                                      PeriodoAquecimento.interpretar(opcoes.get("aquecimento", "0")),
+                                      opcoes.getInt("replicacoes", 1));
+        } catch (ConfiguracaoInvalidaException e) {
+            System.err.println("Erro na configuração: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erro nos parâmetros da varredura: " + e.getMessage());
+            System.exit(1);
+        }
+        CacheResultados cache = CacheResultados.daLinhaComando(opcoes, "cache");
+        varredura.setCache(cache);
+        long inicio = System.nanoTime();
+        try (PrintWriter saida = new PrintWriter(new FileWriter(arquivoSaida))) {
+            varredura.executar(saida, threads);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar resultados: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf(Locale.ROOT, "Sweep: %d scenarios x %d replications in %.1f s (%d threads) -> %s\n",
+                          varredura.getNumCenarios(), opcoes.getInt("replicacoes", 1),
+                          (System.nanoTime() - inicio) / 1e9, threads, arquivoSaida);
+        if (cache != null) {
+            System.out.println(cache);
+        }
+    }
+}
\ No newline at end of file